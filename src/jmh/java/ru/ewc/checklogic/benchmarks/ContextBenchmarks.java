@@ -0,0 +1,129 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Decision-Driven Development
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package ru.ewc.checklogic.benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.ewc.checklogic.ServerConfiguration;
+import ru.ewc.checklogic.ServerContextFactory;
+import ru.ewc.checklogic.ServerInstance;
+import ru.ewc.checklogic.testing.FunctionsLocator;
+import ru.ewc.decisions.api.ComputationContext;
+
+/**
+ * I am a set of benchmarks for the operations performed for every single computation: creating a
+ * context, making a decision, performing a command and running a function. All of them are
+ * measured on the tic-tac-toe sample project.
+ *
+ * <p>Making a decision needs a fresh context, since the tables remember their outcomes, so the
+ * {@link #createContext()} score should be subtracted from the {@link #decideGameState()} one to
+ * get the time of the decision itself.</p>
+ *
+ * @since 0.4.1
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ContextBenchmarks {
+    /**
+     * The generated project the benchmarks are run on.
+     */
+    private SyntheticProject project;
+
+    /**
+     * The factory for the computation contexts.
+     */
+    private ServerContextFactory factory;
+
+    /**
+     * The server instance to perform the commands in.
+     */
+    private ServerInstance instance;
+
+    /**
+     * The locator of the Groovy functions.
+     */
+    private FunctionsLocator functions;
+
+    /**
+     * The context to run the functions in.
+     */
+    private ComputationContext context;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        this.project = SyntheticProject.generate(0, 0);
+        this.factory = ServerContextFactory.create(this.project.root());
+        this.instance = this.factory.initialState();
+        final ServerConfiguration config = this.factory.configuration();
+        this.functions = new FunctionsLocator(
+            config.functionsLocatorName(),
+            Path.of(this.project.root(), "functions")
+        );
+        this.context = this.factory.context();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        this.project.delete();
+    }
+
+    @Benchmark
+    public ComputationContext createContext() {
+        return this.factory.context();
+    }
+
+    @Benchmark
+    public Map<String, String> decideGameState() {
+        return this.factory.decisionFor("game_state", this.factory.context());
+    }
+
+    @Benchmark
+    public Map<String, Map<String, Object>> performCommand() {
+        this.instance.perform("initialize", Map.of());
+        return this.instance.storedState();
+    }
+
+    @Benchmark
+    public String runFunction() {
+        return this.functions.fragmentBy(SyntheticProject.FUNCTION, this.context);
+    }
+}
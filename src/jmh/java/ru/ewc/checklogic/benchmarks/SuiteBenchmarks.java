@@ -0,0 +1,110 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Decision-Driven Development
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package ru.ewc.checklogic.benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.ewc.checklogic.ServerConfiguration;
+import ru.ewc.checklogic.testing.CheckSuite;
+
+/**
+ * I am a set of benchmarks for the whole test suite: reading the test files and performing all the
+ * tests. They are measured on synthetic projects of different sizes, see {@link SyntheticProject}.
+ *
+ * @since 0.4.1
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class SuiteBenchmarks {
+    /**
+     * The number of decision tables added to the sample ones.
+     */
+    @Param({"0", "100"})
+    public int tables;
+
+    /**
+     * The number of generated test files.
+     */
+    @Param({"10", "500"})
+    public int tests;
+
+    /**
+     * The number of threads to perform the tests in.
+     */
+    @Param("1")
+    public int threads;
+
+    /**
+     * The generated project the benchmarks are run on.
+     */
+    private SyntheticProject project;
+
+    /**
+     * The configuration of the generated project.
+     */
+    private ServerConfiguration config;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        this.project = SyntheticProject.generate(this.tables, this.tests);
+        this.config = new ServerConfiguration(this.project.root());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        this.project.delete();
+    }
+
+    @Benchmark
+    public CheckSuite readSuite() {
+        return CheckSuite.using(
+            this.config.csvReader(Path.of(this.project.root(), "tests").toUri()),
+            this.project.root(),
+            this.config.requestLocatorName()
+        );
+    }
+
+    @Benchmark
+    public CheckSuite performSuite() {
+        return this.readSuite().perform(this.threads);
+    }
+}
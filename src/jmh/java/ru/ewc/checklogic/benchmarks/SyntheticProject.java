@@ -0,0 +1,211 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Decision-Driven Development
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package ru.ewc.checklogic.benchmarks;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * I am a generator of synthetic projects to benchmark the logic checker on. My main responsibility
+ * is to take the tic-tac-toe sample project and scale it to the requested number of decision
+ * tables and test files, so that the benchmarks can show how the checker behaves on big projects.
+ *
+ * <p>Every generated table is a copy of the {@code game_state} table under its own name, and every
+ * generated test file is either a copy of one of the sample tests, or a check of one of the
+ * generated tables, so all the generated tests pass.</p>
+ *
+ * @since 0.4.1
+ */
+@SuppressWarnings("PMD.ProhibitPublicStaticMethods")
+public final class SyntheticProject {
+    /**
+     * The name of the sample function generated in the {@code functions} folder.
+     */
+    public static final String FUNCTION = "moves_left";
+
+    /**
+     * The root folder of the generated project.
+     */
+    private final Path root;
+
+    private SyntheticProject(final Path root) {
+        this.root = root;
+    }
+
+    /**
+     * Generates a new project in a temporary folder.
+     *
+     * @param tables The number of the decision tables to add to the sample ones.
+     * @param tests The number of the test files to generate.
+     * @return The generated project.
+     * @throws IOException If the project files could not be written.
+     */
+    public static SyntheticProject generate(final int tables, final int tests)
+        throws IOException {
+        final SyntheticProject project = new SyntheticProject(
+            Files.createTempDirectory("logic-checker-bench")
+        );
+        project.copySample();
+        project.writeTables(tables);
+        project.writeTests(tests, tables);
+        project.writeFunction();
+        return project;
+    }
+
+    /**
+     * The root folder of the generated project.
+     *
+     * @return The absolute path to the project root.
+     */
+    public String root() {
+        return this.root.toString();
+    }
+
+    /**
+     * Deletes the generated project.
+     *
+     * @throws IOException If the project files could not be deleted.
+     */
+    public void delete() throws IOException {
+        try (Stream<Path> files = Files.walk(this.root)) {
+            for (final Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    private void copySample() throws IOException {
+        final Path sample;
+        try {
+            sample = Path.of(
+                Thread.currentThread().getContextClassLoader().getResource("tic-tac-toe").toURI()
+            );
+        } catch (final URISyntaxException exception) {
+            throw new IllegalStateException("Sample project is not available", exception);
+        }
+        try (Stream<Path> files = Files.walk(sample)) {
+            for (final Path file : files.toList()) {
+                final Path target = this.root.resolve(sample.relativize(file).toString());
+                if (Files.isDirectory(file)) {
+                    Files.createDirectories(target);
+                } else {
+                    Files.copy(file, target);
+                }
+            }
+        }
+    }
+
+    private void writeTables(final int count) throws IOException {
+        final String table = this.read("tables", "game_state.csv");
+        for (int idx = 0; idx < count; idx += 1) {
+            this.write("tables", SyntheticProject.tableName(idx) + ".csv", table);
+        }
+    }
+
+    private void writeTests(final int count, final int tables) throws IOException {
+        final List<String> samples;
+        try (Stream<Path> files = Files.list(this.root.resolve("tests"))) {
+            samples = files.map(file -> file.getFileName().toString()).sorted().toList();
+        }
+        final List<String> sources = samples.stream()
+            .map(name -> this.read("tests", name))
+            .toList();
+        for (int idx = 0; idx < count; idx += 1) {
+            final String contents;
+            if (tables > 0 && idx % 2 == 1) {
+                contents = SyntheticProject.tableCheck(SyntheticProject.tableName(idx % tables));
+            } else {
+                contents = sources.get(idx % sources.size());
+            }
+            this.write("tests", "generated_%05d.csv".formatted(idx), contents);
+        }
+    }
+
+    private void writeFunction() throws IOException {
+        Files.createDirectories(this.root.resolve("functions"));
+        this.write(
+            "functions",
+            SyntheticProject.FUNCTION + ".groovy",
+            "['A1', 'A2', 'A3', 'B1', 'B2', 'B3', 'C1', 'C2', 'C3'].findAll { it > 'B' }.size()"
+        );
+    }
+
+    private String read(final String folder, final String name) {
+        try {
+            return Files.readString(
+                this.root.resolve(folder).resolve(name),
+                StandardCharsets.UTF_8
+            );
+        } catch (final IOException exception) {
+            throw new IllegalStateException("Failed to read the sample file", exception);
+        }
+    }
+
+    private void write(final String folder, final String name, final String contents)
+        throws IOException {
+        Files.writeString(
+            this.root.resolve(folder).resolve(name),
+            contents,
+            StandardCharsets.UTF_8
+        );
+    }
+
+    private static String tableName(final int idx) {
+        return "generated_table_%05d".formatted(idx);
+    }
+
+    private static String tableCheck(final String table) {
+        return Stream.concat(
+            IntStream.range(0, 9).mapToObj(
+                cell -> "ASG;cells::%s%d;%s".formatted(
+                    "ABC".charAt(cell / 3),
+                    cell % 3 + 1,
+                    SyntheticProject.diagonal(cell)
+                )
+            ),
+            Stream.of(
+                "CND;%s::is_over;true".formatted(table),
+                "CND;%s::winner;X".formatted(table)
+            )
+        ).collect(Collectors.joining("\n"));
+    }
+
+    private static String diagonal(final int cell) {
+        final String result;
+        if (cell % 4 == 0) {
+            result = "X";
+        } else {
+            result = "empty";
+        }
+        return result;
+    }
+}
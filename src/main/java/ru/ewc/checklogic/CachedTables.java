@@ -0,0 +1,158 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Decision-Driven Development
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package ru.ewc.checklogic;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import ru.ewc.decisions.api.ComputationContext;
+import ru.ewc.decisions.api.DecisionTables;
+import ru.ewc.decisions.input.ContentsReader;
+import ru.ewc.decisions.input.SourceLines;
+import ru.ewc.state.State;
+
+/**
+ * I am a set of decision tables' sources that were read and parsed only once. My main
+ * responsibility is to give every computation context its own fresh set of decision tables without
+ * walking and parsing the tables folder again.
+ *
+ * <p>The tables that can be compiled (see {@link CompiledTable}) are taken out of the interpreted
+ * ones and are added to the state of every context as read-only locators instead.</p>
+ *
+ * @since 0.4.1
+ */
+public final class CachedTables implements ContentsReader {
+    /**
+     * The immutable list of parsed table sources to be interpreted.
+     */
+    private final List<SourceLines> sources;
+
+    /**
+     * The compiled tables, by name.
+     */
+    private final Map<String, CompiledTable> compiled;
+
+    /**
+     * The dependencies of all the tables, compiled or not.
+     */
+    private final TableDependencies dependencies;
+
+    /**
+     * Ctor.
+     *
+     * @param reader The reader to get all the table sources from, used only once.
+     */
+    public CachedTables(final ContentsReader reader) {
+        this(reader, false);
+    }
+
+    /**
+     * Ctor.
+     *
+     * @param reader The reader to get all the table sources from, used only once.
+     * @param compile Whether the tables should be compiled where possible.
+     */
+    public CachedTables(final ContentsReader reader, final boolean compile) {
+        final List<SourceLines> interpreted = new ArrayList<>(0);
+        final Map<String, CompiledTable> tables = new HashMap<>();
+        final List<SourceLines> all = reader.readAll();
+        for (final SourceLines source : all) {
+            final Optional<CompiledTable> table;
+            if (compile) {
+                table = CompiledTable.from(source);
+            } else {
+                table = Optional.empty();
+            }
+            if (table.isPresent()) {
+                tables.put(table.get().locatorName(), table.get());
+            } else {
+                interpreted.add(source);
+            }
+        }
+        this.sources = List.copyOf(interpreted);
+        this.compiled = Map.copyOf(tables);
+        this.dependencies = TableDependencies.of(all);
+    }
+
+    @Override
+    public List<SourceLines> readAll() {
+        return this.sources;
+    }
+
+    /**
+     * Creates a new set of decision tables from the cached sources. The tables keep track of their
+     * own computation state, so every computation context should get its own set.
+     *
+     * @return The decision tables built from the cached sources.
+     */
+    public DecisionTables decisionTables() {
+        return DecisionTables.using(this);
+    }
+
+    /**
+     * Adds the compiled tables to the state, replacing any previously added ones.
+     *
+     * @param state The state of a computation context.
+     * @return The same state, with the compiled tables added as locators.
+     */
+    public State withCompiled(final State state) {
+        state.locators().putAll(this.compiled);
+        return state;
+    }
+
+    /**
+     * Makes the decision using the compiled table, if there is one.
+     *
+     * @param table The name of the table.
+     * @param context The context to make the decision in.
+     * @return The outcomes, or an empty optional if the table is interpreted.
+     */
+    public Optional<Map<String, String>> decisionFor(
+        final String table,
+        final ComputationContext context
+    ) {
+        return Optional.ofNullable(this.compiled.get(table)).map(found -> found.decide(context));
+    }
+
+    /**
+     * Returns the dependencies of all the tables, compiled or not.
+     *
+     * @return The dependency graph of the tables.
+     */
+    public TableDependencies dependencies() {
+        return this.dependencies;
+    }
+
+    /**
+     * Returns the names of the compiled tables.
+     *
+     * @return The set of the table names.
+     */
+    public Set<String> compiledNames() {
+        return this.compiled.keySet();
+    }
+}
@@ -0,0 +1,425 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Decision-Driven Development
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package ru.ewc.checklogic;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * I am a journal kept in a folder on disk. My main responsibility is to append every change to the
+ * state to a log file as soon as it is made, and to take a snapshot of the whole state every given
+ * number of changes, so that the log to replay stays short.
+ *
+ * <p>Every snapshot starts a new generation: the snapshot of generation N includes all the changes
+ * logged in the generations before, and the changes made after it are logged to the log file of
+ * generation N. So a crash at any moment leaves either the old snapshot with its full log, or the
+ * new snapshot with an empty one. Every log record is framed by its length and checksum, and the
+ * incomplete record left by a crash is dropped.</p>
+ *
+ * <p>Every record and snapshot is forced to the storage device before the change is published, so
+ * a published change survives a power loss as well.</p>
+ *
+ * @since 0.4.1
+ */
+@SuppressWarnings("PMD.ProhibitPublicStaticMethods")
+public final class CommandJournal implements Journal {
+    /**
+     * The format marker of the snapshot files.
+     */
+    private static final int MAGIC = 0x434A524E;
+
+    /**
+     * The name of the snapshot file.
+     */
+    private static final String SNAPSHOT = "snapshot.bin";
+
+    /**
+     * The folder to keep the snapshot and the logs in.
+     */
+    private final Path folder;
+
+    /**
+     * The number of changes to take a new snapshot after.
+     */
+    private final int every;
+
+    /**
+     * The generation of the current snapshot and log.
+     */
+    private long generation;
+
+    /**
+     * The number of changes logged since the latest snapshot.
+     */
+    private int logged;
+
+    /**
+     * The log of the current generation, open for appending.
+     */
+    private FileChannel log;
+
+    private CommandJournal(final Path folder, final int every) {
+        this.folder = folder;
+        this.every = every;
+    }
+
+    /**
+     * Opens the journal kept in the folder, creating it if needed.
+     *
+     * @param folder The folder to keep the snapshot and the logs in.
+     * @param every The number of changes to take a new snapshot after.
+     * @return The journal.
+     */
+    public static CommandJournal open(final Path folder, final int every) {
+        final CommandJournal result = new CommandJournal(folder, every);
+        try {
+            Files.createDirectories(folder);
+            result.generation = result.snapshotGeneration();
+            result.log = FileChannel.open(
+                result.logOf(result.generation),
+                StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE,
+                StandardOpenOption.READ
+            );
+        } catch (final IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+        return result;
+    }
+
+    @Override
+    public synchronized void append(
+        final Entry entry,
+        final Supplier<Map<String, Map<String, Object>>> state
+    ) {
+        long end = -1L;
+        try {
+            final byte[] payload = CommandJournal.encoded(entry);
+            final CRC32 checksum = new CRC32();
+            checksum.update(payload);
+            final ByteBuffer record = ByteBuffer.allocate(Integer.BYTES * 2 + payload.length);
+            record.putInt(payload.length).putInt((int) checksum.getValue()).put(payload).flip();
+            end = this.log.size();
+            this.log.position(end);
+            while (record.hasRemaining()) {
+                this.log.write(record);
+            }
+            this.log.force(false);
+        } catch (final IOException exception) {
+            this.truncate(end);
+            throw new UncheckedIOException(exception);
+        }
+        this.logged += 1;
+        if (this.logged >= this.every) {
+            try {
+                this.snapshot(state.get());
+            } catch (final UncheckedIOException exception) {
+                // The change is already logged, the snapshot is taken again with the next change
+            }
+        }
+    }
+
+    @Override
+    public synchronized void snapshot(final Map<String, Map<String, Object>> state) {
+        final long next = this.generation + 1;
+        final Path temporary = this.folder.resolve("%s.tmp".formatted(CommandJournal.SNAPSHOT));
+        try {
+            try (DataOutputStream output = new DataOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(temporary))
+            )) {
+                output.writeInt(CommandJournal.MAGIC);
+                output.writeLong(next);
+                output.writeInt(state.size());
+                for (final Map.Entry<String, Map<String, Object>> locator : state.entrySet()) {
+                    output.writeUTF(locator.getKey());
+                    output.writeInt(locator.getValue().size());
+                    for (final Map.Entry<String, Object> value : locator.getValue().entrySet()) {
+                        output.writeUTF(value.getKey());
+                        output.writeUTF(String.valueOf(value.getValue()));
+                    }
+                }
+            }
+            try (FileChannel written = FileChannel.open(temporary, StandardOpenOption.WRITE)) {
+                written.force(true);
+            }
+            Files.move(
+                temporary,
+                this.folder.resolve(CommandJournal.SNAPSHOT),
+                StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE
+            );
+            this.forceFolder();
+            this.log.close();
+            Files.deleteIfExists(this.logOf(this.generation));
+            this.generation = next;
+            this.log = FileChannel.open(
+                this.logOf(next),
+                StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE,
+                StandardOpenOption.READ
+            );
+            this.logged = 0;
+        } catch (final IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+    }
+
+    @Override
+    public synchronized Recovery recover() {
+        try {
+            this.deleteStaleLogs();
+            return new Recovery(this.latestSnapshot(), this.tail());
+        } catch (final IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        try {
+            this.log.close();
+        } catch (final IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+    }
+
+    @Override
+    public synchronized void delete() {
+        this.close();
+        try {
+            CommandJournal.deleteFolder(this.folder);
+        } catch (final IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+    }
+
+    /**
+     * Deletes the journals of the sessions that were not changed since the given moment, so that
+     * the journals of the expired sessions do not pile up.
+     *
+     * @param folder The folder keeping the journals of the sessions, one subfolder per session.
+     * @param expired The moment of the last change of the sessions that are expired.
+     */
+    public static void prune(final Path folder, final Instant expired) {
+        if (Files.isDirectory(folder)) {
+            try (Stream<Path> sessions = Files.list(folder)) {
+                for (final Path session : sessions.filter(Files::isDirectory).toList()) {
+                    if (CommandJournal.lastModified(session).isBefore(expired)) {
+                        CommandJournal.deleteFolder(session);
+                    }
+                }
+            } catch (final IOException exception) {
+                throw new UncheckedIOException(exception);
+            }
+        }
+    }
+
+    private Optional<Map<String, Map<String, Object>>> latestSnapshot() throws IOException {
+        final Path file = this.folder.resolve(CommandJournal.SNAPSHOT);
+        final Optional<Map<String, Map<String, Object>>> result;
+        if (Files.exists(file)) {
+            try (DataInputStream input = new DataInputStream(
+                new BufferedInputStream(Files.newInputStream(file))
+            )) {
+                input.readInt();
+                input.readLong();
+                final int locators = input.readInt();
+                final Map<String, Map<String, Object>> state = new LinkedHashMap<>();
+                for (int locator = 0; locator < locators; locator += 1) {
+                    final String name = input.readUTF();
+                    final int count = input.readInt();
+                    final Map<String, Object> values = new HashMap<>();
+                    for (int value = 0; value < count; value += 1) {
+                        values.put(input.readUTF(), input.readUTF());
+                    }
+                    state.put(name, values);
+                }
+                result = Optional.of(state);
+            }
+        } else {
+            result = Optional.empty();
+        }
+        return result;
+    }
+
+    private List<Entry> tail() throws IOException {
+        final List<Entry> result = new ArrayList<>(this.every);
+        final ByteBuffer header = ByteBuffer.allocate(Integer.BYTES * 2);
+        long valid = 0;
+        this.log.position(0);
+        while (this.log.read(header.clear()) == header.capacity()) {
+            final int length = header.flip().getInt();
+            final int expected = header.getInt();
+            if (length < 0 || length > this.log.size() - this.log.position()) {
+                break;
+            }
+            final ByteBuffer payload = ByteBuffer.allocate(length);
+            if (this.log.read(payload) != length) {
+                break;
+            }
+            final CRC32 checksum = new CRC32();
+            checksum.update(payload.array());
+            if ((int) checksum.getValue() != expected) {
+                break;
+            }
+            result.add(CommandJournal.decoded(payload.array()));
+            valid = this.log.position();
+        }
+        this.log.truncate(valid);
+        this.logged = result.size();
+        return result;
+    }
+
+    /**
+     * Makes the renaming of the snapshot durable, so that after a power loss the folder does not
+     * point to the deleted log without the snapshot replacing it.
+     */
+    private void forceFolder() {
+        try (FileChannel directory = FileChannel.open(this.folder, StandardOpenOption.READ)) {
+            directory.force(true);
+        } catch (final IOException exception) {
+            // Some platforms, like Windows, cannot open a folder, and keep the renames durable
+        }
+    }
+
+    /**
+     * Cuts off the part of a record written before a failure, so that the next records are not
+     * lost behind it on recovery.
+     *
+     * @param end The size of the log before the failed record, negative if nothing was written.
+     */
+    private void truncate(final long end) {
+        if (end >= 0) {
+            try {
+                this.log.truncate(end);
+            } catch (final IOException exception) {
+                // The record is dropped on recovery along with the rest of the log
+            }
+        }
+    }
+
+    private long snapshotGeneration() throws IOException {
+        final Path file = this.folder.resolve(CommandJournal.SNAPSHOT);
+        long result = 0;
+        if (Files.exists(file)) {
+            try (DataInputStream input = new DataInputStream(Files.newInputStream(file))) {
+                if (input.readInt() == CommandJournal.MAGIC) {
+                    result = input.readLong();
+                }
+            }
+        }
+        return result;
+    }
+
+    private void deleteStaleLogs() throws IOException {
+        final Path current = this.logOf(this.generation);
+        try (Stream<Path> files = Files.list(this.folder)) {
+            for (final Path file : files.toList()) {
+                if (file.getFileName().toString().endsWith(".log") && !file.equals(current)) {
+                    Files.delete(file);
+                }
+            }
+        }
+    }
+
+    private static Instant lastModified(final Path folder) throws IOException {
+        Instant result = Files.getLastModifiedTime(folder).toInstant();
+        try (Stream<Path> files = Files.list(folder)) {
+            for (final Path file : files.toList()) {
+                final Instant modified = Files.getLastModifiedTime(file).toInstant();
+                if (modified.isAfter(result)) {
+                    result = modified;
+                }
+            }
+        }
+        return result;
+    }
+
+    private static void deleteFolder(final Path folder) throws IOException {
+        if (Files.exists(folder)) {
+            try (Stream<Path> files = Files.list(folder)) {
+                for (final Path file : files.toList()) {
+                    Files.delete(file);
+                }
+            }
+            Files.delete(folder);
+        }
+    }
+
+    private Path logOf(final long number) {
+        return this.folder.resolve("journal-%d.log".formatted(number));
+    }
+
+    private static byte[] encoded(final Entry entry) throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream output = new DataOutputStream(bytes)) {
+            output.writeByte(entry.type().ordinal());
+            output.writeUTF(entry.name());
+            output.writeInt(entry.values().size());
+            for (final Map.Entry<String, String> value : entry.values().entrySet()) {
+                output.writeUTF(value.getKey());
+                output.writeUTF(value.getValue());
+            }
+        }
+        return bytes.toByteArray();
+    }
+
+    private static Entry decoded(final byte[] payload) throws IOException {
+        try (DataInputStream input = new DataInputStream(
+            new ByteArrayInputStream(payload)
+        )) {
+            final Type type = Type.values()[input.readByte()];
+            final String name = input.readUTF();
+            final int count = input.readInt();
+            final Map<String, String> values = new LinkedHashMap<>();
+            for (int value = 0; value < count; value += 1) {
+                values.put(input.readUTF(), input.readUTF());
+            }
+            return new Entry(type, name, values);
+        }
+    }
+}
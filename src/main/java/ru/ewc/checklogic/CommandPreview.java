@@ -0,0 +1,51 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Decision-Driven Development
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package ru.ewc.checklogic;
+
+import java.util.Map;
+
+/**
+ * I am the preview of a command: what it would change in the state and how the decisions depending
+ * on the changed fragments would look like after it, computed on a fork of the state that is
+ * discarded afterwards.
+ *
+ * @param changes The changed fragments, by their coordinates ({@code locator::fragment}).
+ * @param decisions The outcomes of the tables affected by the changes, by table name.
+ * @since 0.4.1
+ */
+public record CommandPreview(
+    Map<String, Change> changes,
+    Map<String, Map<String, String>> decisions
+) {
+    /**
+     * I am the change of a single fragment.
+     *
+     * @param before The value before the command, empty if there was none.
+     * @param after The value after the command, empty if it was removed.
+     * @since 0.4.1
+     */
+    public record Change(String before, String after) {
+    }
+}
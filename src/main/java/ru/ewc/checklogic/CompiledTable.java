@@ -0,0 +1,590 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Decision-Driven Development
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package ru.ewc.checklogic;
+
+import java.lang.System.Logger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import ru.ewc.decisions.api.ComputationContext;
+import ru.ewc.decisions.api.DecitaException;
+import ru.ewc.decisions.api.Locator;
+import ru.ewc.decisions.api.OutputTracker;
+import ru.ewc.decisions.api.RuleFragment;
+import ru.ewc.decisions.api.RuleFragments;
+import ru.ewc.decisions.input.SourceLines;
+
+/**
+ * I am a decision table compiled into a compact matcher. My main responsibility is to make the
+ * same decisions as the interpreted table, but without walking the generic rule structure: every
+ * condition base is resolved at most once per decision, the matching rule is found by a handful of
+ * bitset intersections over the rules, and every outcome is a precomputed immutable map.
+ *
+ * <p>Only the tables whose decisions are unambiguous by construction are compiled: the ones having
+ * only conditions and outcomes, using plain equality checks (with an optional {@code !} or a
+ * {@code ~}), having an else rule, and whose rules are pairwise exclusive, so that at most one rule
+ * can match. All the other tables are left to the interpreter.</p>
+ *
+ * <p>I am immutable and keep no computation state, so a single instance can be shared by all the
+ * contexts and threads. Assigning a value to my outcome, as an interpreted table would allow, has
+ * no effect and is only logged.</p>
+ *
+ * @since 0.4.1
+ */
+@SuppressWarnings("PMD.ProhibitPublicStaticMethods")
+public final class CompiledTable implements Locator {
+    /**
+     * The logger of the ignored assignments.
+     */
+    private static final Logger LOGGER = System.getLogger(CompiledTable.class.getName());
+
+    /**
+     * The name of the table.
+     */
+    private final String name;
+
+    /**
+     * The condition bases, i.e. the values every rule checks, resolved once per decision.
+     */
+    private final List<Operand> bases;
+
+    /**
+     * The rules, in the order they are specified in the table.
+     */
+    private final List<Rule> rules;
+
+    /**
+     * The outcomes of the else rule.
+     */
+    private final Map<String, String> otherwise;
+
+    /**
+     * The index of the rules by the values of the condition bases.
+     */
+    private final Index index;
+
+    private CompiledTable(
+        final String name,
+        final List<Operand> bases,
+        final List<Rule> rules,
+        final Map<String, String> otherwise
+    ) {
+        this.name = name;
+        this.bases = bases;
+        this.rules = rules;
+        this.otherwise = otherwise;
+        this.index = new Index(bases.size(), rules);
+    }
+
+    /**
+     * Compiles the table, if it is possible to do without changing its decisions.
+     *
+     * @param source The parsed table.
+     * @return The compiled table, or an empty optional if the table should be interpreted.
+     */
+    public static Optional<CompiledTable> from(final SourceLines source) {
+        final List<String> rows = new ArrayList<>(8);
+        final List<Rule> rules = new ArrayList<>(source.specifiedRulesFragments().size());
+        Map<String, String> otherwise = null;
+        boolean compilable = true;
+        for (final RuleFragments rule : source.specifiedRulesFragments()) {
+            final List<RuleFragment> conditions = new ArrayList<>(rows.size());
+            final Map<String, String> outcomes = new LinkedHashMap<>();
+            for (final RuleFragment fragment : rule.getFragments()) {
+                switch (fragment.type()) {
+                    case "CND" -> conditions.add(fragment);
+                    case "OUT" -> {
+                        compilable = compilable && Operand.isConstant(fragment.right());
+                        outcomes.put(fragment.left(), Operand.from(fragment.right()).value);
+                    }
+                    default -> compilable = compilable && fragment.right().isEmpty();
+                }
+            }
+            if (conditions.stream().allMatch(fragment -> fragment.right().isEmpty())) {
+                compilable = compilable && otherwise == null;
+                otherwise = Map.copyOf(outcomes);
+            } else {
+                final Optional<Rule> compiled = Rule.from(conditions, rows, outcomes);
+                compilable = compilable && compiled.isPresent() && otherwise == null;
+                compiled.ifPresent(rules::add);
+            }
+        }
+        final Optional<CompiledTable> result;
+        if (compilable && otherwise != null && Rule.exclusive(rules)
+            && rows.stream().allMatch(Operand::isResolvable)) {
+            result = Optional.of(
+                new CompiledTable(
+                    CompiledTable.nameOf(source.fileName()),
+                    rows.stream().map(Operand::from).toList(),
+                    List.copyOf(rules),
+                    otherwise
+                )
+            );
+        } else {
+            result = Optional.empty();
+        }
+        return result;
+    }
+
+    /**
+     * Makes the decision in the specified context.
+     *
+     * @param context The context to resolve the condition bases in.
+     * @return The outcomes of the matching rule, or of the else rule if none matches.
+     */
+    public Map<String, String> decide(final ComputationContext context) {
+        final Resolution values = new Resolution(this.bases, context);
+        final BitSet candidates = this.index.candidates(values);
+        Map<String, String> result = this.otherwise;
+        for (int idx = candidates.nextSetBit(0); idx >= 0; idx = candidates.nextSetBit(idx + 1)) {
+            final Rule rule = this.rules.get(idx);
+            if (!this.index.verified.get(idx) || rule.matches(values)) {
+                result = rule.outcomes;
+                break;
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public String fragmentBy(
+        final String fragment,
+        final ComputationContext context
+    ) throws DecitaException {
+        final String result = this.decide(context).get(fragment);
+        if (result == null) {
+            throw new DecitaException(
+                "Table '%s' has no outcome '%s'".formatted(this.name, fragment)
+            );
+        }
+        context.logComputation(
+            OutputTracker.EventType.CH,
+            "%s::%s => %s".formatted(this.name, fragment, result)
+        );
+        return result;
+    }
+
+    @Override
+    public void setFragmentValue(final String fragment, final String value) {
+        CompiledTable.LOGGER.log(
+            Logger.Level.WARNING,
+            "Ignored the assignment of '%s' to the outcome '%s' of the compiled table '%s'"
+                .formatted(value, fragment, this.name)
+        );
+    }
+
+    @Override
+    public String locatorName() {
+        return this.name;
+    }
+
+    static String nameOf(final String file) {
+        final String base = file.substring(file.lastIndexOf('/') + 1);
+        final String result;
+        if (base.endsWith(".csv")) {
+            result = base.substring(0, base.length() - 4);
+        } else {
+            result = base;
+        }
+        return result;
+    }
+
+    /**
+     * I am a single rule of a compiled table: the precomputed checks of the condition bases.
+     *
+     * @since 0.4.1
+     */
+    private static final class Rule {
+        /**
+         * The indexes of the condition bases to check, the {@code ~} cells are skipped.
+         */
+        private final int[] rows;
+
+        /**
+         * The values to compare the condition bases with.
+         */
+        private final Operand[] expected;
+
+        /**
+         * Whether the check is negated with {@code !}.
+         */
+        private final boolean[] negated;
+
+        /**
+         * The outcomes of the rule.
+         */
+        private final Map<String, String> outcomes;
+
+        private Rule(
+            final int[] rows,
+            final Operand[] expected,
+            final boolean[] negated,
+            final Map<String, String> outcomes
+        ) {
+            this.rows = rows;
+            this.expected = expected;
+            this.negated = negated;
+            this.outcomes = outcomes;
+        }
+
+        static Optional<Rule> from(
+            final List<RuleFragment> conditions,
+            final List<String> rows,
+            final Map<String, String> outcomes
+        ) {
+            final List<Integer> indexes = new ArrayList<>(conditions.size());
+            final List<Operand> expected = new ArrayList<>(conditions.size());
+            final List<Boolean> negated = new ArrayList<>(conditions.size());
+            boolean compilable = true;
+            for (final RuleFragment condition : conditions) {
+                final String cell = condition.right().trim();
+                if (!"~".equals(cell)) {
+                    final boolean negation = cell.startsWith("!");
+                    final String value;
+                    if (negation) {
+                        value = cell.substring(1).trim();
+                    } else {
+                        value = cell;
+                    }
+                    compilable = compilable && !cell.isEmpty() && Operand.isResolvable(value);
+                    if (!rows.contains(condition.left())) {
+                        rows.add(condition.left());
+                    }
+                    indexes.add(rows.indexOf(condition.left()));
+                    expected.add(Operand.from(value));
+                    negated.add(negation);
+                }
+            }
+            final Optional<Rule> result;
+            if (compilable) {
+                final boolean[] flags = new boolean[negated.size()];
+                for (int idx = 0; idx < flags.length; idx += 1) {
+                    flags[idx] = negated.get(idx);
+                }
+                result = Optional.of(
+                    new Rule(
+                        indexes.stream().mapToInt(Integer::intValue).toArray(),
+                        expected.toArray(new Operand[0]),
+                        flags,
+                        Map.copyOf(outcomes)
+                    )
+                );
+            } else {
+                result = Optional.empty();
+            }
+            return result;
+        }
+
+        /**
+         * Checks that no two rules can match at the same time, i.e. every pair of rules expects
+         * different constants, or a constant and its negation, from the same condition base.
+         *
+         * @param rules The rules of the table.
+         * @return True if at most one rule can match any input.
+         */
+        static boolean exclusive(final List<Rule> rules) {
+            boolean result = true;
+            for (int first = 0; result && first < rules.size(); first += 1) {
+                for (int second = first + 1; result && second < rules.size(); second += 1) {
+                    result = rules.get(first).excludes(rules.get(second));
+                }
+            }
+            return result;
+        }
+
+        boolean matches(final Resolution values) {
+            boolean result = true;
+            for (int idx = 0; result && idx < this.rows.length; idx += 1) {
+                result = this.negated[idx] != Objects.equals(
+                    values.valueOf(this.rows[idx]),
+                    values.resolved(this.expected[idx])
+                );
+            }
+            return result;
+        }
+
+        boolean hasRepeatedRows() {
+            return Arrays.stream(this.rows).distinct().count() < this.rows.length;
+        }
+
+        private boolean excludes(final Rule other) {
+            boolean result = false;
+            for (int mine = 0; !result && mine < this.rows.length; mine += 1) {
+                for (int theirs = 0; !result && theirs < other.rows.length; theirs += 1) {
+                    result = this.rows[mine] == other.rows[theirs]
+                        && this.expected[mine].constant
+                        && other.expected[theirs].constant
+                        && this.contradicts(mine, other, theirs);
+                }
+            }
+            return result;
+        }
+
+        private boolean contradicts(final int mine, final Rule other, final int theirs) {
+            final boolean same = this.expected[mine].value.equals(other.expected[theirs].value);
+            final boolean result;
+            if (this.negated[mine] == other.negated[theirs]) {
+                result = !same && !this.negated[mine];
+            } else {
+                result = same;
+            }
+            return result;
+        }
+    }
+
+    /**
+     * I am the index of the rules of a compiled table. For every condition base I keep the set of
+     * rules that can match each of the constants mentioned in the table, and the set of rules that
+     * can match any other value. Finding the matching rule is then a matter of intersecting one
+     * set per condition base, whatever the number of rules is.
+     *
+     * <p>The rules comparing a condition base with another coordinate (or checking the same base
+     * twice) can not be indexed; they are kept in every set of that base and are verified one by
+     * one after the intersection.</p>
+     *
+     * @since 0.4.1
+     */
+    private static final class Index {
+        /**
+         * The number of rules.
+         */
+        private final int size;
+
+        /**
+         * The rules that can match, by the value of the condition base with the same index.
+         */
+        private final List<Map<String, BitSet>> matching;
+
+        /**
+         * The rules that can match a value not mentioned in the table, by condition base.
+         */
+        private final List<BitSet> unmatched;
+
+        /**
+         * The rules that have to be verified after the intersection.
+         */
+        private final BitSet verified;
+
+        Index(final int bases, final List<Rule> rules) {
+            this.size = rules.size();
+            this.matching = new ArrayList<>(bases);
+            this.unmatched = new ArrayList<>(bases);
+            this.verified = new BitSet(this.size);
+            final List<BitSet> equal = new ArrayList<>(bases);
+            final List<Map<String, BitSet>> exact = new ArrayList<>(bases);
+            final List<Map<String, BitSet>> negative = new ArrayList<>(bases);
+            for (int row = 0; row < bases; row += 1) {
+                final BitSet any = new BitSet(this.size);
+                any.set(0, this.size);
+                this.unmatched.add(any);
+                equal.add(new BitSet(this.size));
+                exact.add(new HashMap<>());
+                negative.add(new HashMap<>());
+            }
+            for (int idx = 0; idx < this.size; idx += 1) {
+                final Rule rule = rules.get(idx);
+                final boolean repeated = rule.hasRepeatedRows();
+                for (int check = 0; check < rule.rows.length; check += 1) {
+                    final int row = rule.rows[check];
+                    final Operand expected = rule.expected[check];
+                    if (repeated || !expected.constant) {
+                        this.verified.set(idx);
+                    } else if (rule.negated[check]) {
+                        negative.get(row).computeIfAbsent(expected.value, key -> new BitSet())
+                            .set(idx);
+                    } else {
+                        this.unmatched.get(row).clear(idx);
+                        equal.get(row).set(idx);
+                        exact.get(row).computeIfAbsent(expected.value, key -> new BitSet())
+                            .set(idx);
+                    }
+                }
+            }
+            for (int row = 0; row < bases; row += 1) {
+                this.matching.add(
+                    Index.byValue(this.unmatched.get(row), exact.get(row), negative.get(row))
+                );
+            }
+        }
+
+        /**
+         * Finds the rules that can match the values of the condition bases.
+         *
+         * @param values The values of the condition bases.
+         * @return The candidate rules, only the ones in {@link #verified} need further checks.
+         */
+        BitSet candidates(final Resolution values) {
+            final BitSet result = new BitSet(this.size);
+            result.set(0, this.size);
+            for (int row = 0; !result.isEmpty() && row < this.unmatched.size(); row += 1) {
+                result.and(
+                    this.matching.get(row).getOrDefault(
+                        values.valueOf(row),
+                        this.unmatched.get(row)
+                    )
+                );
+            }
+            return result;
+        }
+
+        private static Map<String, BitSet> byValue(
+            final BitSet unmatched,
+            final Map<String, BitSet> exact,
+            final Map<String, BitSet> negative
+        ) {
+            final Map<String, BitSet> result = new HashMap<>();
+            for (final String value : exact.keySet()) {
+                result.put(value, (BitSet) unmatched.clone());
+            }
+            for (final String value : negative.keySet()) {
+                result.put(value, (BitSet) unmatched.clone());
+            }
+            result.forEach(
+                (value, rules) -> {
+                    rules.andNot(negative.getOrDefault(value, new BitSet()));
+                    rules.or(exact.getOrDefault(value, new BitSet()));
+                }
+            );
+            return result;
+        }
+    }
+
+    /**
+     * I am the values of the condition bases of a single decision, each resolved only when some
+     * rule checks it for the first time.
+     *
+     * @since 0.4.1
+     */
+    private static final class Resolution {
+        /**
+         * The condition bases of the table.
+         */
+        private final List<Operand> bases;
+
+        /**
+         * The context to resolve the values in.
+         */
+        private final ComputationContext context;
+
+        /**
+         * The values resolved so far.
+         */
+        private final String[] values;
+
+        /**
+         * Whether the value of the condition base with the same index is already resolved.
+         */
+        private final boolean[] known;
+
+        Resolution(final List<Operand> bases, final ComputationContext context) {
+            this.bases = bases;
+            this.context = context;
+            this.values = new String[bases.size()];
+            this.known = new boolean[bases.size()];
+        }
+
+        String valueOf(final int row) {
+            if (!this.known[row]) {
+                this.values[row] = this.resolved(this.bases.get(row));
+                this.known[row] = true;
+            }
+            return this.values[row];
+        }
+
+        String resolved(final Operand operand) {
+            return operand.valueIn(this.context);
+        }
+    }
+
+    /**
+     * I am a value used by a compiled table: either a constant, or a coordinate of a fragment.
+     *
+     * @since 0.4.1
+     */
+    private static final class Operand {
+        /**
+         * The name of the locator holding the constants.
+         */
+        private static final String CONSTANT = "constant";
+
+        /**
+         * Whether the value is a constant.
+         */
+        private final boolean constant;
+
+        /**
+         * The locator name, for the coordinates.
+         */
+        private final String locator;
+
+        /**
+         * The constant value, or the fragment name for the coordinates.
+         */
+        private final String value;
+
+        private Operand(final boolean constant, final String locator, final String value) {
+            this.constant = constant;
+            this.locator = locator;
+            this.value = value;
+        }
+
+        static Operand from(final String text) {
+            final String[] parts = text.trim().split("::", 2);
+            final Operand result;
+            if (parts.length == 1) {
+                result = new Operand(true, Operand.CONSTANT, parts[0]);
+            } else if (Operand.CONSTANT.equals(parts[0])) {
+                result = new Operand(true, Operand.CONSTANT, parts[1]);
+            } else {
+                result = new Operand(false, parts[0], parts[1]);
+            }
+            return result;
+        }
+
+        static boolean isConstant(final String text) {
+            return Operand.isResolvable(text) && Operand.from(text).constant;
+        }
+
+        static boolean isResolvable(final String text) {
+            return !text.contains("${") && !text.startsWith(">") && !text.startsWith("<")
+                && !text.startsWith("!") && !"~".equals(text.trim());
+        }
+
+        String valueIn(final ComputationContext context) {
+            final String result;
+            if (this.constant) {
+                result = this.value;
+            } else {
+                result = context.valueFor(this.locator, this.value);
+            }
+            return result;
+        }
+    }
+}
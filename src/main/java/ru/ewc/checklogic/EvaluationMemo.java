@@ -0,0 +1,465 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Decision-Driven Development
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package ru.ewc.checklogic;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import ru.ewc.decisions.api.Locator;
+import ru.ewc.state.State;
+
+/**
+ * I am the memory of a single evaluation. My main responsibility is to remember the outcomes of the
+ * decision tables and the values of the locator fragments computed during an evaluation, together
+ * with all the fragments each of them was computed from, so that they are computed only once.
+ *
+ * <p>The results of the Groovy functions can depend on the time, randomness or the outside world,
+ * so they are remembered for a single {@link Evaluation} only, together with the fragments they
+ * read through the {@code context}, and nothing computed from them is remembered beyond it. The
+ * fragments read by a computation that failed are remembered as its sources anyway, so that fixing
+ * any of them makes the computations that used the failure run again.</p>
+ *
+ * <p>When a fragment is assigned a new value, I forget exactly the values that were computed from
+ * it, directly or through other remembered values, and the decisions of the tables that read it
+ * according to the {@link TableDependencies}, and nothing else. So I can outlive a single context:
+ * after a state change only the affected decisions are computed again.</p>
+ *
+ * <p>I can be read by many threads at once, each tracking its own computations. A value computed by
+ * two threads at the same time is just remembered twice. A memo being changed should not be
+ * shared: the changes are made to a {@link #fork()}, published when complete.</p>
+ *
+ * <p>A fork is made in constant time: it starts empty and falls back to its parent for the values
+ * it does not remember itself. The keys forgotten by the fork hide the values of the parent that
+ * are or were computed from them, including the ones the readers of the parent compute later. The
+ * chain of forks is merged into a single memo every {@link #DEPTH} forks, so a lookup never goes
+ * through more than that many memos.</p>
+ *
+ * @since 0.4.1
+ */
+public final class EvaluationMemo {
+    /**
+     * The key read by the computations that should not be remembered beyond the evaluation, never
+     * used by the values.
+     */
+    private static final String VOLATILE = "::volatile";
+
+    /**
+     * The number of forks in a chain after which the chain is merged into a single memo.
+     */
+    private static final int DEPTH = 16;
+
+    /**
+     * The memo to fall back to for the values not remembered in this one.
+     */
+    private final Optional<EvaluationMemo> parent;
+
+    /**
+     * The number of memos in the chain of parents.
+     */
+    private final int depth;
+
+    /**
+     * The keys forgotten since the fork, hiding the values of the parent computed from them.
+     */
+    private final Set<String> forgotten;
+
+    /**
+     * The locators forgotten as a whole since the fork, hiding the values of the parent computed
+     * from any of their fragments.
+     */
+    private final Set<String> locators;
+
+    /**
+     * The remembered values, by the fragment coordinate or the table name.
+     */
+    private final Map<String, Remembered> values;
+
+    /**
+     * The keys of the remembered values, by the keys they were computed from.
+     */
+    private final Map<String, Set<String>> dependents;
+
+    /**
+     * The keys read by each of the values being computed at the moment by the current thread,
+     * innermost first.
+     */
+    private final ThreadLocal<Deque<Set<String>>> computing;
+
+    /**
+     * The dependencies of the tables, known before any of them is computed.
+     */
+    private final TableDependencies tables;
+
+    /**
+     * Ctor.
+     */
+    public EvaluationMemo() {
+        this(TableDependencies.NONE);
+    }
+
+    /**
+     * Ctor.
+     *
+     * @param tables The dependencies of the tables, known before any of them is computed.
+     */
+    public EvaluationMemo(final TableDependencies tables) {
+        this(tables, Optional.empty());
+    }
+
+    private EvaluationMemo(final TableDependencies tables, final Optional<EvaluationMemo> parent) {
+        this.values = new ConcurrentHashMap<>();
+        this.dependents = new ConcurrentHashMap<>();
+        this.computing = ThreadLocal.withInitial(ArrayDeque::new);
+        this.tables = tables;
+        this.parent = parent;
+        this.depth = parent.map(memo -> memo.depth + 1).orElse(0);
+        this.forgotten = ConcurrentHashMap.newKeySet();
+        this.locators = ConcurrentHashMap.newKeySet();
+    }
+
+    /**
+     * Creates a memo remembering the same values as this one, to be changed without affecting the
+     * readers of this one. The fork shares the values with this memo instead of copying them.
+     *
+     * @return The fork of this memo.
+     */
+    public EvaluationMemo fork() {
+        final EvaluationMemo result;
+        if (this.depth < EvaluationMemo.DEPTH) {
+            result = new EvaluationMemo(this.tables, Optional.of(this));
+        } else {
+            result = new EvaluationMemo(this.tables);
+            this.visible().forEach(
+                (key, known) -> {
+                    result.values.put(key, known);
+                    known.sources().forEach(
+                        source -> result.dependents
+                            .computeIfAbsent(source, any -> ConcurrentHashMap.newKeySet())
+                            .add(key)
+                    );
+                }
+            );
+        }
+        return result;
+    }
+
+    /**
+     * Creates the state that reads and writes all the fragments through this memo, starting a new
+     * evaluation.
+     *
+     * @param state The state to read and write the fragments of.
+     * @return The state with the same locators, each remembering its values in this memo.
+     */
+    public State track(final State state) {
+        final Evaluation evaluation = new Evaluation();
+        return new State(
+            state.locators().values().stream()
+                .<Locator>map(locator -> new MemoizingLocator(locator, this, evaluation))
+                .toList()
+        );
+    }
+
+    /**
+     * Returns the remembered value of the fragment, computing it if needed.
+     *
+     * @param locator The name of the locator.
+     * @param fragment The name of the fragment.
+     * @param compute The way to compute the value.
+     * @return The value of the fragment.
+     */
+    public String fragment(
+        final String locator,
+        final String fragment,
+        final Supplier<String> compute
+    ) {
+        return this.remembered(EvaluationMemo.keyOf(locator, fragment), compute);
+    }
+
+    /**
+     * Returns the remembered outcomes of the decision table, computing them if needed.
+     *
+     * @param table The name of the table.
+     * @param compute The way to compute the outcomes.
+     * @return The outcomes of the table.
+     */
+    public Map<String, String> decision(
+        final String table,
+        final Supplier<Map<String, String>> compute
+    ) {
+        return this.remembered(table, compute);
+    }
+
+    /**
+     * Returns the result of the function remembered during the evaluation, computing it if needed.
+     * The values computed from the result are not remembered beyond the evaluation either.
+     *
+     * @param evaluation The evaluation to remember the result in.
+     * @param locator The name of the functions locator.
+     * @param fragment The name of the function.
+     * @param compute The way to call the function.
+     * @return The result of the function.
+     */
+    public String function(
+        final Evaluation evaluation,
+        final String locator,
+        final String fragment,
+        final Supplier<String> compute
+    ) {
+        final String key = EvaluationMemo.keyOf(locator, fragment);
+        this.read(EvaluationMemo.VOLATILE, Set.of());
+        final Remembered known = evaluation.values.get(key);
+        final String result;
+        if (known == null) {
+            final Set<String> reads = new HashSet<>();
+            final Deque<Set<String>> frames = this.computing.get();
+            frames.push(reads);
+            try {
+                result = compute.get();
+            } finally {
+                frames.pop();
+                this.read(key, reads);
+            }
+            evaluation.values.put(key, new Remembered(result, Set.copyOf(reads)));
+        } else {
+            result = (String) known.value();
+            this.read(key, known.sources());
+        }
+        return result;
+    }
+
+    /**
+     * Forgets the value of the fragment and all the values computed from it, both in this memo
+     * and in the evaluation the fragment was assigned in.
+     *
+     * @param evaluation The evaluation the fragment was assigned in.
+     * @param locator The name of the locator.
+     * @param fragment The name of the fragment.
+     */
+    public void invalidate(
+        final Evaluation evaluation,
+        final String locator,
+        final String fragment
+    ) {
+        this.invalidate(locator, fragment);
+        final String key = EvaluationMemo.keyOf(locator, fragment);
+        final Set<String> affected = this.tables.affectedBy(locator, fragment);
+        evaluation.values.entrySet().removeIf(
+            entry -> entry.getKey().equals(key)
+                || entry.getValue().sources().stream().anyMatch(
+                    source -> source.equals(key) || affected.contains(EvaluationMemo.nameOf(source))
+                )
+        );
+    }
+
+    /**
+     * Forgets the value of the fragment and all the values computed from it.
+     *
+     * @param locator The name of the locator.
+     * @param fragment The name of the fragment.
+     */
+    public void invalidate(final String locator, final String fragment) {
+        this.forget(EvaluationMemo.keyOf(locator, fragment));
+        this.tables.affectedBy(locator, fragment).forEach(this::forgetTable);
+    }
+
+    /**
+     * Forgets the values of all the fragments of the locator and all the values computed from
+     * them, as when the locator is replaced as a whole.
+     *
+     * @param locator The name of the locator.
+     */
+    public void invalidate(final String locator) {
+        this.forgetTable(locator);
+        this.tables.affectedBy(locator).forEach(this::forgetTable);
+    }
+
+    /**
+     * Returns the number of values remembered at the moment.
+     *
+     * @return The number of remembered values.
+     */
+    public int size() {
+        return this.visible().size();
+    }
+
+    private void forgetTable(final String name) {
+        final String prefix = EvaluationMemo.keyOf(name, "");
+        if (this.parent.isPresent()) {
+            this.locators.add(name);
+        }
+        this.forget(name);
+        this.values.keySet().stream()
+            .filter(key -> key.startsWith(prefix))
+            .toList()
+            .forEach(this::forget);
+        this.dependents.keySet().stream()
+            .filter(key -> key.startsWith(prefix))
+            .toList()
+            .forEach(this::forget);
+    }
+
+    private void forget(final String key) {
+        if (this.parent.isPresent()) {
+            this.forgotten.add(key);
+        }
+        this.values.remove(key);
+        final Set<String> stale = this.dependents.remove(key);
+        if (stale != null) {
+            stale.forEach(this.values::remove);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T remembered(final String key, final Supplier<T> compute) {
+        final Remembered known = this.lookup(key);
+        final T result;
+        if (known == null) {
+            final Set<String> reads = new HashSet<>();
+            final Deque<Set<String>> frames = this.computing.get();
+            frames.push(reads);
+            try {
+                result = compute.get();
+            } finally {
+                frames.pop();
+                reads.stream()
+                    .filter(read -> !EvaluationMemo.VOLATILE.equals(read))
+                    .forEach(
+                        read -> this.dependents
+                            .computeIfAbsent(read, any -> ConcurrentHashMap.newKeySet())
+                            .add(key)
+                    );
+                this.read(key, reads);
+            }
+            if (!reads.contains(EvaluationMemo.VOLATILE)) {
+                this.values.put(key, new Remembered(result, Set.copyOf(reads)));
+            }
+        } else {
+            result = (T) known.value();
+            this.read(key, known.sources());
+        }
+        return result;
+    }
+
+    private void read(final String key, final Set<String> sources) {
+        for (final Set<String> reads : this.computing.get()) {
+            reads.add(key);
+            reads.addAll(sources);
+        }
+    }
+
+    /**
+     * Finds the value remembered in this memo or, if it is not hidden by the forgotten keys, in the
+     * chain of its parents.
+     *
+     * @param key The key of the value.
+     * @return The remembered value, or {@code null} if there is none.
+     */
+    private Remembered lookup(final String key) {
+        Remembered result = this.values.get(key);
+        if (result == null && this.parent.isPresent() && !this.hidden(key)) {
+            result = this.parent.get().lookup(key);
+            if (result != null && result.sources().stream().anyMatch(this::hidden)) {
+                result = null;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Collects all the values visible in this memo, including the ones of its parents.
+     *
+     * @return The visible values, by their keys.
+     */
+    private Map<String, Remembered> visible() {
+        final Map<String, Remembered> result = new HashMap<>();
+        this.parent.ifPresent(
+            memo -> memo.visible().forEach(
+                (key, known) -> {
+                    if (!this.hidden(key) && known.sources().stream().noneMatch(this::hidden)) {
+                        result.put(key, known);
+                    }
+                }
+            )
+        );
+        result.putAll(this.values);
+        return result;
+    }
+
+    private boolean hidden(final String key) {
+        final int separator = key.indexOf("::");
+        return this.forgotten.contains(key)
+            || separator > 0 && this.locators.contains(key.substring(0, separator));
+    }
+
+    private static String keyOf(final String locator, final String fragment) {
+        return "%s::%s".formatted(locator, fragment);
+    }
+
+    private static String nameOf(final String key) {
+        final int separator = key.indexOf("::");
+        final String result;
+        if (separator > 0) {
+            result = key.substring(0, separator);
+        } else {
+            result = key;
+        }
+        return result;
+    }
+
+    /**
+     * I am a single evaluation, e.g. a request or a command, made in a context created by
+     * {@link #track(State)}. My main responsibility is to remember the results of the Groovy
+     * functions called during the evaluation, together with the keys they were computed from, so
+     * that every function is called once per evaluation, unless any of its sources changes.
+     *
+     * @since 0.4.1
+     */
+    public static final class Evaluation {
+        /**
+         * The results of the functions, by the fragment coordinate.
+         */
+        private final Map<String, Remembered> values;
+
+        public Evaluation() {
+            this.values = new ConcurrentHashMap<>();
+        }
+    }
+
+    /**
+     * I am a remembered value together with the keys it was computed from.
+     *
+     * @param value The value.
+     * @param sources The keys of all the values read while computing it.
+     * @since 0.4.1
+     */
+    private record Remembered(Object value, Set<String> sources) {
+    }
+}
@@ -53,43 +53,43 @@ public final class FileStateFactory implements StateFactory {
     private final ServerConfiguration config;
 
     /**
-     * The collection of all the state and functions locators.
+     * The names of the locators specified in the application config, cached between the calls.
      */
-    private final List<Locator> locators;
+    private List<String> names;
+
+    /**
+     * The modification time of the application config the cached names were read from.
+     */
+    private long modified;
 
     public FileStateFactory(final ServerConfiguration config) {
         this.config = config;
-        this.locators = new ArrayList<>(1);
+        this.names = List.of();
+        this.modified = -1L;
     }
 
     @Override
     public State initialState() {
-        this.locators.clear();
-        this.loadLocatorsFromApplicationConfig();
-        this.loadInMemoryRequestLocator();
-        this.loadFunctionsLocator();
-        return new State(this.locators);
-    }
-
-    @Override
-    public boolean functionSpecified(final String arg) {
-        return ((FunctionsLocator) new State(this.locators)
-            .locatorFor(this.config.functionsLocatorName())).functionSpecified(arg);
-    }
-
-    private void loadFunctionsLocator() {
-        this.locators.add(
+        final List<String> domains = this.locatorNames();
+        final List<Locator> fresh = new ArrayList<>(domains.size() + 2);
+        domains.forEach(name -> fresh.add(new InMemoryLocator(name, new HashMap<>())));
+        fresh.add(new InMemoryLocator(this.config.requestLocatorName(), new HashMap<>()));
+        fresh.add(
             new FunctionsLocator(
                 this.config.functionsLocatorName(),
                 Paths.get(this.config.getRoot(), "functions")
             )
         );
+        return new State(fresh);
     }
 
-    private void loadInMemoryRequestLocator() {
-        this.locators.add(
-            new InMemoryLocator(this.config.requestLocatorName(), new HashMap<>())
-        );
+    private synchronized List<String> locatorNames() {
+        final File file = this.config.applicationConfig().toFile();
+        if (!file.exists() || file.lastModified() != this.modified) {
+            this.names = this.loadLocatorsFromApplicationConfig();
+            this.modified = file.lastModified();
+        }
+        return this.names;
     }
 
     @SneakyThrows
@@ -104,16 +104,14 @@ public final class FileStateFactory implements StateFactory {
     }
 
     @SuppressWarnings("unchecked")
-    private void loadLocatorsFromApplicationConfig() {
+    private List<String> loadLocatorsFromApplicationConfig() {
+        List<String> result;
         try (InputStream file = this.applicationConfigFile()) {
             final Map<String, Object> yaml = new Yaml().load(file);
-            this.locators.addAll(
-                ((List<String>) yaml.get("locators")).stream()
-                    .map(name -> new InMemoryLocator(name, new HashMap<>()))
-                    .toList()
-            );
+            result = List.copyOf((List<String>) yaml.get("locators"));
         } catch (final IOException exception) {
-            this.locators.addAll(List.of());
+            result = List.of();
         }
+        return result;
     }
 }
@@ -0,0 +1,177 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Decision-Driven Development
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package ru.ewc.checklogic;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * I am the journal of the changes made to the state of a server instance. My main responsibility
+ * is to keep the changes durable, so that the state could be recovered after a restart by loading
+ * the latest snapshot and replaying only the changes made after it.
+ *
+ * @since 0.4.1
+ */
+public interface Journal extends AutoCloseable {
+    /**
+     * The journal that keeps nothing.
+     */
+    Journal NONE = new Journal() {
+        @Override
+        public void append(
+            final Entry entry,
+            final Supplier<Map<String, Map<String, Object>>> state
+        ) {
+            // nothing to keep
+        }
+
+        @Override
+        public void snapshot(final Map<String, Map<String, Object>> state) {
+            // nothing to keep
+        }
+
+        @Override
+        public Recovery recover() {
+            return new Recovery(Optional.empty(), List.of());
+        }
+
+        @Override
+        public void close() {
+            // nothing to release
+        }
+
+        @Override
+        public void delete() {
+            // nothing to delete
+        }
+    };
+
+    /**
+     * Appends the change to the journal, taking a snapshot of the state if it is time to.
+     *
+     * @param entry The change made.
+     * @param state The way to get the state after the change, used only for the snapshots.
+     */
+    void append(Entry entry, Supplier<Map<String, Map<String, Object>>> state);
+
+    /**
+     * Takes a snapshot of the state, so that the changes made before are not replayed anymore.
+     *
+     * @param state The current state.
+     */
+    void snapshot(Map<String, Map<String, Object>> state);
+
+    /**
+     * Reads the latest snapshot and the changes made after it.
+     *
+     * @return The state to start with and the changes to replay.
+     */
+    Recovery recover();
+
+    /**
+     * Releases the files held open by the journal. The journal is not used after it is closed.
+     */
+    @Override
+    void close();
+
+    /**
+     * Closes the journal and deletes everything kept in it, so that nothing is recovered anymore.
+     */
+    void delete();
+
+    /**
+     * I am the type of a change made to the state.
+     *
+     * @since 0.4.1
+     */
+    enum Type {
+        /**
+         * A command performed with its arguments.
+         */
+        COMMAND,
+
+        /**
+         * The request values updated.
+         */
+        UPDATE,
+
+        /**
+         * The state reset to the initial one.
+         */
+        RESET
+    }
+
+    /**
+     * I am a single change made to the state.
+     *
+     * @param type The type of the change.
+     * @param name The name of the command, empty for the other changes.
+     * @param values The command arguments or the request values, by their names.
+     * @since 0.4.1
+     */
+    record Entry(Type type, String name, Map<String, String> values) {
+        /**
+         * Creates the entry for a performed command.
+         *
+         * @param command The name of the command.
+         * @param args The arguments of the command.
+         * @return The journal entry.
+         */
+        public static Entry command(final String command, final Map<String, String> args) {
+            return new Entry(Type.COMMAND, command, Map.copyOf(args));
+        }
+
+        /**
+         * Creates the entry for the updated request values.
+         *
+         * @param values The new request values.
+         * @return The journal entry.
+         */
+        public static Entry update(final Map<String, String> values) {
+            return new Entry(Type.UPDATE, "", Map.copyOf(values));
+        }
+
+        /**
+         * Creates the entry for the state reset.
+         *
+         * @return The journal entry.
+         */
+        public static Entry reset() {
+            return new Entry(Type.RESET, "", Map.of());
+        }
+    }
+
+    /**
+     * I am what is needed to recover the state: the latest snapshot and the changes made after it.
+     *
+     * @param snapshot The latest snapshot of the state, if there is one.
+     * @param tail The changes made after the snapshot, in the order they were made.
+     * @since 0.4.1
+     */
+    record Recovery(Optional<Map<String, Map<String, Object>>> snapshot, List<Entry> tail) {
+    }
+}
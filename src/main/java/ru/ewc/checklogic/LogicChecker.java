@@ -26,18 +26,31 @@ package ru.ewc.checklogic;
 
 import com.renomad.minum.web.FullSystem;
 import com.renomad.minum.web.WebFramework;
+import java.nio.file.Path;
+import ru.ewc.checklogic.cli.ConsoleRunner;
+import ru.ewc.checklogic.cli.ShardCoordinator;
+import ru.ewc.checklogic.cli.ShardWorker;
+import ru.ewc.checklogic.cli.WatchRunner;
 import ru.ewc.checklogic.server.AllEndpoints;
 import ru.ewc.checklogic.server.CommandPage;
 import ru.ewc.checklogic.server.ContextPage;
 import ru.ewc.checklogic.server.Endpoints;
+import ru.ewc.checklogic.server.MetricsPage;
 import ru.ewc.checklogic.server.ResourceTemplateRender;
+import ru.ewc.checklogic.server.SessionPool;
+import ru.ewc.checklogic.server.Sessions;
 import ru.ewc.checklogic.server.StatePage;
+import ru.ewc.checklogic.server.TestRunPage;
 import ru.ewc.checklogic.server.config.ConfigPage;
 
 /**
  * I am an entry point for the logic checker web-based application. My main responsibility is to
  * create an instance of the web framework, register the endpoints that will be served and start
- * listening to incoming HTTP requests.
+ * listening to incoming HTTP requests. When started as {@code test <root> [reports]}, I run all the
+ * tests headless instead and exit with a non-zero code if any of them failed. When started as
+ * {@code watch <root>}, I keep re-running the tests affected by every change in the project files.
+ * When started as {@code shard <root> <workers> [reports]}, I spread the tests between several
+ * worker processes, each started as {@code worker <root> <host:port>}.
  *
  * @since 0.1
  */
@@ -48,21 +61,73 @@ public final class LogicChecker {
     }
 
     public static void main(final String[] args) {
-        if (args.length != 1) {
-            throw new IllegalArgumentException("Please provide the path to the resources");
+        if (args.length > 1 && "test".equals(args[0])) {
+            final int code = runTests(args);
+            if (code != 0) {
+                System.exit(code);
+            }
+        } else if (args.length == 2 && "watch".equals(args[0])) {
+            new WatchRunner(new ServerConfiguration(args[1]), System.out).run();
+        } else if (args.length > 2 && "shard".equals(args[0])) {
+            final int code = runShards(args);
+            if (code != 0) {
+                System.exit(code);
+            }
+        } else if (args.length == 3 && "worker".equals(args[0])) {
+            new ShardWorker(new ServerConfiguration(args[1]), args[2], System.out).run();
+        } else if (args.length == 1) {
+            startServer(args[0]);
+        } else {
+            throw new IllegalArgumentException(
+                "Please provide the path to the resources, 'test <path> [reports path]', "
+                    + "'watch <path>', 'shard <path> <workers> [reports path]' or "
+                    + "'worker <path> <host:port>'"
+            );
+        }
+    }
+
+    private static int runTests(final String[] args) {
+        final String root = args[1];
+        final Path reports;
+        if (args.length > 2) {
+            reports = Path.of(args[2]);
+        } else {
+            reports = Path.of(root, "reports");
+        }
+        return new ConsoleRunner(new ServerConfiguration(root), reports, System.out).run();
+    }
+
+    private static int runShards(final String[] args) {
+        final String root = args[1];
+        final Path reports;
+        if (args.length > 3) {
+            reports = Path.of(args[3]);
+        } else {
+            reports = Path.of(root, "reports");
+        }
+        return new ShardCoordinator(
+            new ServerConfiguration(root),
+            reports,
+            Integer.parseInt(args[2]),
+            System.out
+        ).run();
+    }
+
+    private static void startServer(final String root) {
+        try (ServerContextFactory factory = ServerContextFactory.create(root)) {
+            final Sessions sessions = SessionPool.using(factory);
+            final FullSystem minum = FullSystem.initialize();
+            final WebFramework web = minum.getWebFramework();
+            final ResourceTemplateRender render = new ResourceTemplateRender();
+            registerEndpoints(web, new ConfigPage(factory.configuration()));
+            registerEndpoints(web, new CommandPage(sessions));
+            registerEndpoints(web, new ContextPage(sessions, factory.configuration()));
+            registerEndpoints(web, new AllEndpoints(sessions, render));
+            registerEndpoints(web, new StatePage(sessions, factory.configuration(), render));
+            registerEndpoints(web, new TestRunPage(factory.configuration()));
+            registerEndpoints(web, new MetricsPage(Metrics.SHARED));
+            minum.block();
         }
-        final String root = args[0];
-        final ServerContextFactory factory = ServerContextFactory.create(root);
-        final ServerInstance context = factory.initialState();
-        final FullSystem minum = FullSystem.initialize();
-        final WebFramework web = minum.getWebFramework();
-        final ResourceTemplateRender render = new ResourceTemplateRender();
-        registerEndpoints(web, new ConfigPage(factory.configuration()));
-        registerEndpoints(web, new CommandPage(context));
-        registerEndpoints(web, new ContextPage(context, factory.configuration()));
-        registerEndpoints(web, new AllEndpoints(context, factory.configuration(), render));
-        registerEndpoints(web, new StatePage(context, factory.configuration(), render));
-        minum.block();
     }
 
     private static void registerEndpoints(final WebFramework web, final Endpoints endpoints) {
@@ -0,0 +1,119 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Decision-Driven Development
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package ru.ewc.checklogic;
+
+import ru.ewc.checklogic.testing.FunctionsLocator;
+import ru.ewc.decisions.api.ComputationContext;
+import ru.ewc.decisions.api.DecitaException;
+import ru.ewc.decisions.api.Locator;
+
+/**
+ * I am a locator that remembers every fragment value I returned in an {@link EvaluationMemo}. My
+ * main responsibility is to make an evaluation resolve every shared fragment (a compiled table
+ * outcome, a state entity field) only once, however many of the decisions depend on it. The results
+ * of the Groovy functions are remembered for the single {@link EvaluationMemo.Evaluation} only.
+ *
+ * <p>Assigning a value to a fragment makes the memo forget the fragment and everything computed
+ * from it.</p>
+ *
+ * @since 0.4.1
+ */
+public final class MemoizingLocator implements Locator {
+    /**
+     * The locator to resolve the fragments with.
+     */
+    private final Locator origin;
+
+    /**
+     * The memo to remember the fragment values in.
+     */
+    private final EvaluationMemo memo;
+
+    /**
+     * The evaluation to remember the results of the functions in.
+     */
+    private final EvaluationMemo.Evaluation evaluation;
+
+    /**
+     * Ctor.
+     *
+     * @param origin The locator to resolve the fragments with.
+     * @param memo The memo to remember the fragment values in.
+     */
+    public MemoizingLocator(final Locator origin, final EvaluationMemo memo) {
+        this(origin, memo, new EvaluationMemo.Evaluation());
+    }
+
+    /**
+     * Ctor.
+     *
+     * @param origin The locator to resolve the fragments with.
+     * @param memo The memo to remember the fragment values in.
+     * @param evaluation The evaluation to remember the results of the functions in.
+     */
+    public MemoizingLocator(
+        final Locator origin,
+        final EvaluationMemo memo,
+        final EvaluationMemo.Evaluation evaluation
+    ) {
+        this.origin = origin;
+        this.memo = memo;
+        this.evaluation = evaluation;
+    }
+
+    @Override
+    public String fragmentBy(
+        final String fragment,
+        final ComputationContext context
+    ) throws DecitaException {
+        final String result;
+        if (this.origin instanceof FunctionsLocator) {
+            result = this.memo.function(
+                this.evaluation,
+                this.origin.locatorName(),
+                fragment,
+                () -> this.origin.fragmentBy(fragment, context)
+            );
+        } else {
+            result = this.memo.fragment(
+                this.origin.locatorName(),
+                fragment,
+                () -> this.origin.fragmentBy(fragment, context)
+            );
+        }
+        return result;
+    }
+
+    @Override
+    public void setFragmentValue(final String fragment, final String value) {
+        this.origin.setFragmentValue(fragment, value);
+        this.memo.invalidate(this.evaluation, this.origin.locatorName(), fragment);
+    }
+
+    @Override
+    public String locatorName() {
+        return this.origin.locatorName();
+    }
+}
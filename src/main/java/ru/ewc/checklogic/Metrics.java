@@ -0,0 +1,450 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Decision-Driven Development
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package ru.ewc.checklogic;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryUsage;
+import java.math.BigDecimal;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * I am a registry of the server metrics. My main responsibility is to keep the counters and the
+ * latency histograms of everything the server does, and to describe them in the Prometheus text
+ * exposition format, together with the JVM heap and GC statistics.
+ *
+ * <p>The metrics are identified by name and a list of label names and values. Every metric is
+ * created on first use and lives as long as the registry. Looking a metric up formats its labels,
+ * so the hot paths look their metrics up once and keep them, see {@link Labelled}.</p>
+ *
+ * @since 0.4.1
+ */
+@SuppressWarnings("PMD.ProhibitPublicStaticMethods")
+public final class Metrics {
+    /**
+     * The process-wide registry, shared by the web server and the test runs.
+     */
+    public static final Metrics SHARED = new Metrics();
+
+    /**
+     * The upper bounds of the histogram buckets, in seconds.
+     */
+    private static final double[] BUCKETS = {
+        0.0005, 0.001, 0.0025, 0.005, 0.01, 0.025, 0.05, 0.1, 0.25, 0.5, 1, 2.5, 5, 10,
+    };
+
+    /**
+     * The latencies of the decisions, by table.
+     */
+    private static final Labelled<Histogram> DECISIONS = Metrics.SHARED.histograms(
+        "checker_decision_duration_seconds",
+        "Latency of the decisions evaluated by the server, by table",
+        "table"
+    );
+
+    /**
+     * The metric families, by metric name.
+     */
+    private final ConcurrentMap<String, Family> families;
+
+    public Metrics() {
+        this.families = new ConcurrentSkipListMap<>();
+    }
+
+    /**
+     * Gets or creates the counter.
+     *
+     * @param name The name of the metric.
+     * @param help The description of the metric.
+     * @param labels The label names followed by their values.
+     * @return The counter to be incremented.
+     */
+    public Counter counter(final String name, final String help, final String... labels) {
+        return (Counter) this.families
+            .computeIfAbsent(name, key -> new Family(help, "counter"))
+            .metrics.computeIfAbsent(Metrics.labelsOf(labels), key -> new Counter());
+    }
+
+    /**
+     * Gets or creates the latency histogram.
+     *
+     * @param name The name of the metric, in seconds.
+     * @param help The description of the metric.
+     * @param labels The label names followed by their values.
+     * @return The histogram to put the observations into.
+     */
+    public Histogram histogram(final String name, final String help, final String... labels) {
+        return (Histogram) this.families
+            .computeIfAbsent(name, key -> new Family(help, "histogram"))
+            .metrics.computeIfAbsent(Metrics.labelsOf(labels), key -> new Histogram());
+    }
+
+    /**
+     * Gets the counters split by the values of a single label, created on first use.
+     *
+     * @param name The name of the metric.
+     * @param help The description of the metric.
+     * @param label The name of the label.
+     * @return The counters by the label value.
+     */
+    public Labelled<Counter> counters(final String name, final String help, final String label) {
+        return new Labelled<>(value -> this.counter(name, help, label, value));
+    }
+
+    /**
+     * Gets the latency histograms split by the values of a single label, created on first use.
+     *
+     * @param name The name of the metric, in seconds.
+     * @param help The description of the metric.
+     * @param label The name of the label.
+     * @return The histograms by the label value.
+     */
+    public Labelled<Histogram> histograms(
+        final String name,
+        final String help,
+        final String label
+    ) {
+        return new Labelled<>(value -> this.histogram(name, help, label, value));
+    }
+
+    /**
+     * Records a decision made by a table in the shared registry.
+     *
+     * @param table The name of the decision table.
+     * @param start The {@link System#nanoTime()} value taken when the decision was requested.
+     */
+    public static void decisionOf(final String table, final long start) {
+        Metrics.DECISIONS.of(table).observeSince(start);
+    }
+
+    /**
+     * Describes all the metrics in the Prometheus text exposition format.
+     *
+     * @return The text to be served to the scraper.
+     */
+    public String asPrometheusText() {
+        final StringBuilder result = new StringBuilder(4096);
+        this.families.forEach(
+            (name, family) -> {
+                result.append("# HELP %s %s\n# TYPE %s %s\n".formatted(
+                    name, family.help, name, family.type
+                ));
+                family.metrics.forEach(
+                    (labels, metric) -> metric.describe(name, labels, result)
+                );
+            }
+        );
+        Metrics.describeJvm(result);
+        return result.toString();
+    }
+
+    private static void describeJvm(final StringBuilder result) {
+        final MemoryUsage heap = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage();
+        Metrics.gauge(result, "jvm_memory_heap_used_bytes", "Used heap memory", heap.getUsed());
+        Metrics.gauge(
+            result,
+            "jvm_memory_heap_committed_bytes",
+            "Committed heap memory",
+            heap.getCommitted()
+        );
+        Metrics.gauge(result, "jvm_memory_heap_max_bytes", "Maximum heap memory", heap.getMax());
+        Metrics.gauge(
+            result,
+            "jvm_threads_live",
+            "Live threads",
+            ManagementFactory.getThreadMXBean().getThreadCount()
+        );
+        result.append(
+            "# HELP jvm_gc_collections_total GC collections\n"
+                + "# TYPE jvm_gc_collections_total counter\n"
+        );
+        for (final GarbageCollectorMXBean bean : ManagementFactory.getGarbageCollectorMXBeans()) {
+            result.append(
+                "jvm_gc_collections_total{gc=\"%s\"} %d\n".formatted(
+                    Metrics.escaped(bean.getName()),
+                    Math.max(0, bean.getCollectionCount())
+                )
+            );
+        }
+        result.append(
+            "# HELP jvm_gc_collection_seconds_total Time spent in GC\n"
+                + "# TYPE jvm_gc_collection_seconds_total counter\n"
+        );
+        for (final GarbageCollectorMXBean bean : ManagementFactory.getGarbageCollectorMXBeans()) {
+            result.append(
+                String.format(
+                    Locale.ROOT,
+                    "jvm_gc_collection_seconds_total{gc=\"%s\"} %.3f\n",
+                    Metrics.escaped(bean.getName()),
+                    Math.max(0, bean.getCollectionTime()) / 1000.0
+                )
+            );
+        }
+    }
+
+    private static void gauge(
+        final StringBuilder result,
+        final String name,
+        final String help,
+        final long value
+    ) {
+        result.append(
+            "# HELP %s %s\n# TYPE %s gauge\n%s %d\n".formatted(name, help, name, name, value)
+        );
+    }
+
+    private static String labelsOf(final String... labels) {
+        final StringBuilder result = new StringBuilder();
+        for (int idx = 0; idx + 1 < labels.length; idx += 2) {
+            if (!result.isEmpty()) {
+                result.append(',');
+            }
+            result.append("%s=\"%s\"".formatted(labels[idx], Metrics.escaped(labels[idx + 1])));
+        }
+        return result.toString();
+    }
+
+    private static String escaped(final String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+
+    private static String braced(final String labels) {
+        final String result;
+        if (labels.isEmpty()) {
+            result = "";
+        } else {
+            result = "{%s}".formatted(labels);
+        }
+        return result;
+    }
+
+    /**
+     * I am a metric split by the values of a single label. My main responsibility is to keep the
+     * metric of every value seen so far, so that getting it again costs a single map lookup
+     * instead of formatting the labels.
+     *
+     * @param <M> The type of the metric.
+     * @since 0.4.1
+     */
+    public static final class Labelled<M> {
+        /**
+         * The metrics by the label value.
+         */
+        private final ConcurrentMap<String, M> metrics;
+
+        /**
+         * The lookup of the metric by the label value in the registry.
+         */
+        private final Function<String, M> lookup;
+
+        private Labelled(final Function<String, M> lookup) {
+            this.metrics = new ConcurrentHashMap<>();
+            this.lookup = lookup;
+        }
+
+        /**
+         * Gets the metric for the label value.
+         *
+         * @param value The value of the label.
+         * @return The metric, the same for the same value.
+         */
+        public M of(final String value) {
+            M result = this.metrics.get(value);
+            if (result == null) {
+                result = this.metrics.computeIfAbsent(value, this.lookup);
+            }
+            return result;
+        }
+    }
+
+    /**
+     * I am a single metric that can describe itself in the Prometheus text format.
+     *
+     * @since 0.4.1
+     */
+    private interface Metric {
+        /**
+         * Appends the samples of the metric to the text.
+         *
+         * @param name The name of the metric.
+         * @param labels The labels of the metric, without braces.
+         * @param result The text to append the samples to.
+         */
+        void describe(String name, String labels, StringBuilder result);
+    }
+
+    /**
+     * I am a monotonically increasing counter.
+     *
+     * @since 0.4.1
+     */
+    public static final class Counter implements Metric {
+        /**
+         * The current value.
+         */
+        private final LongAdder value;
+
+        private Counter() {
+            this.value = new LongAdder();
+        }
+
+        public void increment() {
+            this.value.increment();
+        }
+
+        public long value() {
+            return this.value.sum();
+        }
+
+        @Override
+        public void describe(final String name, final String labels, final StringBuilder result) {
+            result.append("%s%s %d\n".formatted(name, Metrics.braced(labels), this.value()));
+        }
+    }
+
+    /**
+     * I am a latency histogram with fixed buckets, from half a millisecond to ten seconds.
+     *
+     * @since 0.4.1
+     */
+    public static final class Histogram implements Metric {
+        /**
+         * The number of observations falling into every bucket, the last one is for the larger
+         * ones.
+         */
+        private final AtomicLongArray buckets;
+
+        /**
+         * The sum of all the observations, in nanoseconds.
+         */
+        private final LongAdder sum;
+
+        private Histogram() {
+            this.buckets = new AtomicLongArray(Metrics.BUCKETS.length + 1);
+            this.sum = new LongAdder();
+        }
+
+        /**
+         * Observes the time elapsed since the specified moment.
+         *
+         * @param start The {@link System#nanoTime()} value taken when the operation started.
+         */
+        public void observeSince(final long start) {
+            this.observe(System.nanoTime() - start);
+        }
+
+        /**
+         * Observes a single duration.
+         *
+         * @param nanos The duration in nanoseconds.
+         */
+        public void observe(final long nanos) {
+            final double seconds = nanos / 1_000_000_000.0;
+            int idx = 0;
+            while (idx < Metrics.BUCKETS.length && seconds > Metrics.BUCKETS[idx]) {
+                idx += 1;
+            }
+            this.buckets.incrementAndGet(idx);
+            this.sum.add(nanos);
+        }
+
+        public long count() {
+            long result = 0L;
+            for (int idx = 0; idx < this.buckets.length(); idx += 1) {
+                result += this.buckets.get(idx);
+            }
+            return result;
+        }
+
+        @Override
+        public void describe(final String name, final String labels, final StringBuilder result) {
+            final String prefix;
+            if (labels.isEmpty()) {
+                prefix = "";
+            } else {
+                prefix = labels + ",";
+            }
+            long cumulative = 0L;
+            for (int idx = 0; idx < Metrics.BUCKETS.length; idx += 1) {
+                cumulative += this.buckets.get(idx);
+                result.append(
+                    "%s_bucket{%sle=\"%s\"} %d\n".formatted(
+                        name,
+                        prefix,
+                        BigDecimal.valueOf(Metrics.BUCKETS[idx]).toPlainString(),
+                        cumulative
+                    )
+                );
+            }
+            cumulative += this.buckets.get(Metrics.BUCKETS.length);
+            result.append("%s_bucket{%sle=\"+Inf\"} %d\n".formatted(name, prefix, cumulative));
+            result.append(
+                String.format(
+                    Locale.ROOT,
+                    "%s_sum%s %.6f\n%s_count%s %d\n",
+                    name,
+                    Metrics.braced(labels),
+                    this.sum.sum() / 1_000_000_000.0,
+                    name,
+                    Metrics.braced(labels),
+                    cumulative
+                )
+            );
+        }
+    }
+
+    /**
+     * I am a family of metrics sharing the same name, but having different labels.
+     *
+     * @since 0.4.1
+     */
+    private static final class Family {
+        /**
+         * The description of the metrics.
+         */
+        private final String help;
+
+        /**
+         * The Prometheus type of the metrics.
+         */
+        private final String type;
+
+        /**
+         * The metrics, by their labels.
+         */
+        private final ConcurrentMap<String, Metric> metrics;
+
+        Family(final String help, final String type) {
+            this.help = help;
+            this.type = type;
+            this.metrics = new ConcurrentSkipListMap<>();
+        }
+    }
+}
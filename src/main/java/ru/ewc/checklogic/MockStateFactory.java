@@ -43,10 +43,4 @@ public final class MockStateFactory implements StateFactory {
             )
         );
     }
-
-    @Override
-    public boolean functionSpecified(final String arg) {
-        return false;
-    }
-
 }
@@ -0,0 +1,402 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Decision-Driven Development
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package ru.ewc.checklogic;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * I am a map of fragment values that shares its structure with its copies. My entries are kept in
+ * a hash trie of immutable nodes: every change copies only the nodes on the path to the changed
+ * entry, so a copy is made in constant time, and a change costs only the few nodes it replaces.
+ * That allows keeping thousands of historical states for the price of the changes between them.
+ *
+ * <p>I am changed in place, like any other map, so I can be given to an {@code InMemoryLocator};
+ * I am not thread-safe, but my copies could be changed independently.</p>
+ *
+ * @since 0.4.1
+ */
+final class PersistentMap extends AbstractMap<String, Object> {
+    /**
+     * The number of hash bits used at every level of the trie.
+     */
+    private static final int BITS = 4;
+
+    /**
+     * The mask for the hash bits used at every level of the trie.
+     */
+    private static final int MASK = (1 << PersistentMap.BITS) - 1;
+
+    /**
+     * The root of the trie, a {@link Node} or a {@link Leaf}, or {@code null} when I am empty.
+     */
+    private Object root;
+
+    /**
+     * The number of my entries.
+     */
+    private int count;
+
+    PersistentMap() {
+        this(null, 0);
+    }
+
+    private PersistentMap(final Object root, final int count) {
+        this.root = root;
+        this.count = count;
+    }
+
+    /**
+     * Creates a map with the same entries as the specified one, sharing its structure if it is
+     * a persistent map itself.
+     *
+     * @param values The map to copy.
+     * @return The copy of the map.
+     */
+    static PersistentMap copyOf(final Map<String, ?> values) {
+        final PersistentMap result;
+        if (values instanceof PersistentMap persistent) {
+            result = persistent.copy();
+        } else {
+            result = new PersistentMap();
+            result.putAll(values);
+        }
+        return result;
+    }
+
+    /**
+     * Creates a copy of me in constant time. The changes made to the copy are not visible to me,
+     * and vice versa.
+     *
+     * @return The copy of this map.
+     */
+    PersistentMap copy() {
+        return new PersistentMap(this.root, this.count);
+    }
+
+    /**
+     * Finds the keys whose values differ in two maps. The branches shared by the maps are skipped,
+     * so comparing a map with its slightly changed copy costs only the changes.
+     *
+     * @param before The first map.
+     * @param after The second map.
+     * @return The keys that are present in only one of the maps or have different values.
+     */
+    static Set<String> changedKeys(final PersistentMap before, final PersistentMap after) {
+        final Set<String> result = new HashSet<>();
+        PersistentMap.compare(before.root, after.root, result);
+        return result;
+    }
+
+    @Override
+    public Object get(final Object key) {
+        final Leaf found = this.find(key);
+        final Object result;
+        if (found == null) {
+            result = null;
+        } else {
+            result = found.value();
+        }
+        return result;
+    }
+
+    @Override
+    public boolean containsKey(final Object key) {
+        return this.find(key) != null;
+    }
+
+    @Override
+    public Object put(final String key, final Object value) {
+        final Object previous = this.get(key);
+        final boolean[] added = new boolean[1];
+        this.root = PersistentMap.with(this.root, 0, PersistentMap.hash(key), key, value, added);
+        if (added[0]) {
+            this.count += 1;
+        }
+        return previous;
+    }
+
+    @Override
+    public Object remove(final Object key) {
+        Object previous = null;
+        if (key instanceof String name && this.containsKey(name)) {
+            previous = this.get(name);
+            this.root = PersistentMap.without(this.root, 0, PersistentMap.hash(name), name);
+            this.count -= 1;
+        }
+        return previous;
+    }
+
+    @Override
+    public void clear() {
+        this.root = null;
+        this.count = 0;
+    }
+
+    @Override
+    public int size() {
+        return this.count;
+    }
+
+    @Override
+    public Set<Map.Entry<String, Object>> entrySet() {
+        return new Entries();
+    }
+
+    private Leaf find(final Object key) {
+        Leaf result = null;
+        if (key instanceof String name) {
+            final int hash = PersistentMap.hash(name);
+            Object node = this.root;
+            int shift = 0;
+            while (node instanceof Node branch) {
+                node = branch.slots[hash >>> shift & PersistentMap.MASK];
+                shift += PersistentMap.BITS;
+            }
+            for (Leaf leaf = (Leaf) node; leaf != null && result == null; leaf = leaf.next()) {
+                if (leaf.key().equals(name)) {
+                    result = leaf;
+                }
+            }
+        }
+        return result;
+    }
+
+    private static Object with(
+        final Object node,
+        final int shift,
+        final int hash,
+        final String key,
+        final Object value,
+        final boolean[] added
+    ) {
+        final Object result;
+        if (node == null) {
+            added[0] = true;
+            result = new Leaf(key, value, null);
+        } else if (node instanceof Leaf leaf && PersistentMap.hash(leaf.key()) == hash) {
+            result = PersistentMap.replaced(leaf, key, value, added);
+        } else if (node instanceof Leaf leaf) {
+            final Node split = new Node();
+            split.slots[PersistentMap.hash(leaf.key()) >>> shift & PersistentMap.MASK] = leaf;
+            result = PersistentMap.with(split, shift, hash, key, value, added);
+        } else {
+            final Node branch = ((Node) node).copy();
+            final int index = hash >>> shift & PersistentMap.MASK;
+            branch.slots[index] = PersistentMap.with(
+                branch.slots[index], shift + PersistentMap.BITS, hash, key, value, added
+            );
+            result = branch;
+        }
+        return result;
+    }
+
+    private static Object without(
+        final Object node,
+        final int shift,
+        final int hash,
+        final String key
+    ) {
+        final Object result;
+        if (node instanceof Node branch) {
+            final int index = hash >>> shift & PersistentMap.MASK;
+            final Node copy = branch.copy();
+            copy.slots[index] = PersistentMap.without(
+                branch.slots[index], shift + PersistentMap.BITS, hash, key
+            );
+            if (copy.isEmpty()) {
+                result = null;
+            } else {
+                result = copy;
+            }
+        } else {
+            Leaf chain = null;
+            for (Leaf leaf = (Leaf) node; leaf != null; leaf = leaf.next()) {
+                if (!leaf.key().equals(key)) {
+                    chain = new Leaf(leaf.key(), leaf.value(), chain);
+                }
+            }
+            result = chain;
+        }
+        return result;
+    }
+
+    private static Leaf replaced(
+        final Leaf chain,
+        final String key,
+        final Object value,
+        final boolean[] added
+    ) {
+        Leaf result = new Leaf(key, value, null);
+        added[0] = true;
+        for (Leaf leaf = chain; leaf != null; leaf = leaf.next()) {
+            if (leaf.key().equals(key)) {
+                added[0] = false;
+            } else {
+                result = new Leaf(leaf.key(), leaf.value(), result);
+            }
+        }
+        return result;
+    }
+
+    private static void compare(final Object before, final Object after, final Set<String> keys) {
+        if (before instanceof Node first && after instanceof Node second) {
+            for (int index = 0; index < first.slots.length; index += 1) {
+                if (first.slots[index] != second.slots[index]) {
+                    PersistentMap.compare(first.slots[index], second.slots[index], keys);
+                }
+            }
+        } else if (before != after) {
+            final Map<String, Object> old = PersistentMap.entriesOf(before);
+            final Map<String, Object> actual = PersistentMap.entriesOf(after);
+            old.forEach(
+                (key, value) -> {
+                    if (!actual.containsKey(key) || !Objects.equals(value, actual.get(key))) {
+                        keys.add(key);
+                    }
+                }
+            );
+            actual.keySet().stream().filter(key -> !old.containsKey(key)).forEach(keys::add);
+        }
+    }
+
+    private static Map<String, Object> entriesOf(final Object node) {
+        final List<Leaf> leaves = new ArrayList<>();
+        PersistentMap.collect(node, leaves);
+        final Map<String, Object> result = new HashMap<>();
+        leaves.forEach(leaf -> result.put(leaf.key(), leaf.value()));
+        return result;
+    }
+
+    private static void collect(final Object node, final List<Leaf> leaves) {
+        if (node instanceof Node branch) {
+            for (final Object slot : branch.slots) {
+                PersistentMap.collect(slot, leaves);
+            }
+        } else {
+            for (Leaf leaf = (Leaf) node; leaf != null; leaf = leaf.next()) {
+                leaves.add(leaf);
+            }
+        }
+    }
+
+    private static int hash(final String key) {
+        final int code = key.hashCode();
+        return code ^ code >>> 16;
+    }
+
+    /**
+     * I am an entry of the map, linked to the other entries with the same hash.
+     *
+     * @param key The key of the entry.
+     * @param value The value of the entry.
+     * @param next The next entry with the same hash, if any.
+     * @since 0.4.1
+     */
+    private record Leaf(String key, Object value, Leaf next) {
+    }
+
+    /**
+     * I am a branch of the trie, never changed after being linked into it.
+     *
+     * @since 0.4.1
+     */
+    private static final class Node {
+        /**
+         * The children of the branch, by the next bits of their hashes.
+         */
+        private final Object[] slots = new Object[PersistentMap.MASK + 1];
+
+        Node copy() {
+            final Node result = new Node();
+            System.arraycopy(this.slots, 0, result.slots, 0, this.slots.length);
+            return result;
+        }
+
+        boolean isEmpty() {
+            boolean result = true;
+            for (final Object slot : this.slots) {
+                if (slot != null) {
+                    result = false;
+                    break;
+                }
+            }
+            return result;
+        }
+    }
+
+    /**
+     * I am the view of the map entries, as of the moment I was iterated.
+     *
+     * @since 0.4.1
+     */
+    private final class Entries extends AbstractSet<Map.Entry<String, Object>> {
+        @Override
+        public Iterator<Map.Entry<String, Object>> iterator() {
+            final List<Leaf> leaves = new ArrayList<>(PersistentMap.this.count);
+            PersistentMap.collect(PersistentMap.this.root, leaves);
+            final Iterator<Leaf> origin = leaves.iterator();
+            return new Iterator<>() {
+                private Leaf last;
+
+                @Override
+                public boolean hasNext() {
+                    return origin.hasNext();
+                }
+
+                @Override
+                public Map.Entry<String, Object> next() {
+                    this.last = origin.next();
+                    return new AbstractMap.SimpleImmutableEntry<>(
+                        this.last.key(),
+                        this.last.value()
+                    );
+                }
+
+                @Override
+                public void remove() {
+                    if (this.last == null) {
+                        throw new IllegalStateException("No entry to remove");
+                    }
+                    PersistentMap.this.remove(this.last.key());
+                    this.last = null;
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return PersistentMap.this.count;
+        }
+    }
+}
@@ -23,14 +23,23 @@
  */
 package ru.ewc.checklogic;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.net.URI;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.time.Duration;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import org.yaml.snakeyaml.Yaml;
+import org.yaml.snakeyaml.error.YAMLException;
 import ru.ewc.decisions.input.CombinedCsvFileReader;
 
 /**
- * I am a context for the web server.
+ * I am a context for the web server. Every parameter has a default value, which can be overridden
+ * by a top-level key of the same name in the {@code application.yaml} of the project.
  *
  * @since 0.3.2
  */
@@ -41,20 +50,41 @@ public final class ServerConfiguration {
     private final String root;
 
     /**
-     * The parameters of the context.
+     * The parameters of the context, changed on the configuration page while the other requests
+     * and the test runs read them.
      */
     private final Map<String, String> parameters;
 
     public ServerConfiguration(final String root) {
         this.root = root;
-        this.parameters = new HashMap<>(
-            Map.of(
-                "request", "request",
-                "command", "available",
-                "function", "function",
-                "delimiter", ","
+        this.parameters = new ConcurrentHashMap<>(
+            Map.ofEntries(
+                Map.entry("request", "request"),
+                Map.entry("command", "available"),
+                Map.entry("function", "function"),
+                Map.entry("delimiter", ","),
+                Map.entry(
+                    "parallelism",
+                    String.valueOf(Runtime.getRuntime().availableProcessors())
+                ),
+                Map.entry("cacheSize", "1000"),
+                Map.entry("compileTables", "false"),
+                Map.entry("sessions", "64"),
+                Map.entry("sessionIdleMinutes", "30"),
+                Map.entry("sessionSpill", "false"),
+                Map.entry("journal", "false"),
+                Map.entry("journalSnapshotEvery", "100"),
+                Map.entry("historySize", "1000"),
+                Map.entry("testRuns", "2"),
+                Map.entry("testRunQueue", "4"),
+                Map.entry("testTimeoutSeconds", "60"),
+                Map.entry("suiteTimeoutSeconds", "0"),
+                Map.entry("shardPort", "0"),
+                Map.entry("shardRemote", "false"),
+                Map.entry("shardToken", "")
             )
         );
+        this.parameters.putAll(this.fromApplicationConfig());
     }
 
     /**
@@ -100,4 +130,241 @@ public final class ServerConfiguration {
     public String functionsLocatorName() {
         return this.parameters.get("function");
     }
+
+    /**
+     * Returns the number of threads to be used for running the tests.
+     *
+     * @return The configured degree of parallelism, at least 1.
+     */
+    public int parallelism() {
+        return this.positive("parallelism", 1);
+    }
+
+    /**
+     * Checks whether the decision tables should be compiled where possible.
+     *
+     * @return True only if the compilation was explicitly turned on.
+     */
+    public boolean compileTables() {
+        return "true".equalsIgnoreCase(this.getParameterValue("compileTables").trim());
+    }
+
+    /**
+     * Returns the maximum number of test results to be kept in the results cache.
+     *
+     * @return The configured cache size, at least 1.
+     */
+    public int cacheSize() {
+        return this.positive("cacheSize", 1000);
+    }
+
+    /**
+     * Returns the folder to keep the results cache of the headless test runs in.
+     *
+     * @return The path to the cache folder inside the project root folder.
+     */
+    public Path cacheFolder() {
+        return Path.of(this.root, ".cache", "results");
+    }
+
+    /**
+     * Returns the maximum number of user sessions to be kept in memory at once.
+     *
+     * @return The configured number of sessions, at least 1.
+     */
+    public int sessions() {
+        return this.positive("sessions", 64);
+    }
+
+    /**
+     * Returns the time a user session is kept in memory after its last request.
+     *
+     * @return The configured idle timeout, at least a minute.
+     */
+    public Duration sessionIdleTimeout() {
+        return Duration.ofMinutes(this.positive("sessionIdleMinutes", 30));
+    }
+
+    /**
+     * Returns the folder to keep the state of the evicted user sessions in, if it should be kept.
+     *
+     * @return The path to the sessions folder inside the project root folder, or an empty optional
+     *  if the state of the evicted sessions should be dropped.
+     */
+    public Optional<Path> sessionSpillFolder() {
+        final Optional<Path> result;
+        if ("true".equalsIgnoreCase(this.getParameterValue("sessionSpill").trim())) {
+            result = Optional.of(Path.of(this.root, ".cache", "sessions"));
+        } else {
+            result = Optional.empty();
+        }
+        return result;
+    }
+
+    /**
+     * Returns the folder to keep the journals of the user sessions in, if they should be kept.
+     *
+     * @return The path to the journal folder inside the project root folder, or an empty optional
+     *  if the changes made by the users should not survive a restart.
+     */
+    public Optional<Path> journalFolder() {
+        final Optional<Path> result;
+        if ("true".equalsIgnoreCase(this.getParameterValue("journal").trim())) {
+            result = Optional.of(Path.of(this.root, ".cache", "journal"));
+        } else {
+            result = Optional.empty();
+        }
+        return result;
+    }
+
+    /**
+     * Returns the number of changes to a session state to take its new snapshot after.
+     *
+     * @return The configured number of changes, at least 1.
+     */
+    public int journalSnapshotEvery() {
+        return this.positive("journalSnapshotEvery", 100);
+    }
+
+    /**
+     * Returns the maximum number of states kept in the history of a user session.
+     *
+     * @return The configured number of states, at least 1.
+     */
+    public int historySize() {
+        return this.positive("historySize", 1000);
+    }
+
+    /**
+     * Returns the maximum number of distinct test runs performed at once by the web UI.
+     *
+     * @return The configured number of runs, at least 1.
+     */
+    public int testRuns() {
+        return this.positive("testRuns", 2);
+    }
+
+    /**
+     * Returns the maximum number of distinct test runs waiting for the running ones to finish.
+     *
+     * @return The configured number of queued runs, at least 1.
+     */
+    public int testRunQueue() {
+        return this.positive("testRunQueue", 4);
+    }
+
+    /**
+     * Returns the time budget of a single test, after which it is abandoned and reported as timed
+     * out.
+     *
+     * @return The configured budget, at least a second.
+     */
+    public Duration testTimeout() {
+        return Duration.ofSeconds(this.positive("testTimeoutSeconds", 60));
+    }
+
+    /**
+     * Returns the time budget of the whole test suite, after which the unfinished tests are
+     * abandoned and reported as timed out.
+     *
+     * @return The configured budget, or an empty optional if the suite is not limited.
+     */
+    public Optional<Duration> suiteTimeout() {
+        Optional<Duration> result;
+        try {
+            result = Optional.of(
+                Integer.parseInt(this.getParameterValue("suiteTimeoutSeconds").trim())
+            ).filter(seconds -> seconds > 0).map(Duration::ofSeconds);
+        } catch (final NumberFormatException exception) {
+            result = Optional.empty();
+        }
+        return result;
+    }
+
+    /**
+     * Returns the port the coordinator of the sharded test runs accepts the workers on.
+     *
+     * @return The configured port, or 0 to accept the workers on any free port.
+     */
+    public int shardPort() {
+        int result;
+        try {
+            result = Integer.parseInt(this.getParameterValue("shardPort").trim());
+        } catch (final NumberFormatException exception) {
+            result = 0;
+        }
+        if (result < 0 || result > 65_535) {
+            result = 0;
+        }
+        return result;
+    }
+
+    /**
+     * Checks whether the coordinator of the sharded test runs accepts the workers from the other
+     * hosts, rather than from this one only.
+     *
+     * @return True only if the remote workers were explicitly allowed.
+     */
+    public boolean shardRemote() {
+        return "true".equalsIgnoreCase(this.getParameterValue("shardRemote").trim());
+    }
+
+    /**
+     * Returns the token the workers of the sharded test runs have to present to the coordinator.
+     *
+     * @return The configured token, or an empty optional if none is set.
+     */
+    public Optional<String> shardToken() {
+        return Optional.of(this.getParameterValue("shardToken").trim())
+            .filter(token -> !token.isEmpty());
+    }
+
+    /**
+     * Returns the file to keep the durations of the test files from the previous sharded runs in.
+     *
+     * @return The path to the durations file inside the project root folder.
+     */
+    public Path durationsFile() {
+        return Path.of(this.root, ".cache", "durations.properties");
+    }
+
+    private int positive(final String parameter, final int fallback) {
+        int result;
+        try {
+            result = Math.max(1, Integer.parseInt(this.getParameterValue(parameter).trim()));
+        } catch (final NumberFormatException exception) {
+            result = fallback;
+        }
+        return result;
+    }
+
+    /**
+     * Reads the values of the known parameters from the application config, if there is one.
+     * Only the scalar values are taken, so the other sections, like {@code locators}, are ignored.
+     *
+     * @return The values of the parameters specified in the application config.
+     */
+    private Map<String, String> fromApplicationConfig() {
+        final Map<String, String> result = new HashMap<>();
+        final Path file = this.applicationConfig();
+        if (Files.isRegularFile(file)) {
+            try (InputStream input = Files.newInputStream(file)) {
+                final Object yaml = new Yaml().load(input);
+                if (yaml instanceof Map<?, ?> values) {
+                    values.forEach(
+                        (key, value) -> {
+                            if (this.parameters.containsKey(String.valueOf(key))
+                                && value != null && !(value instanceof Iterable<?>)
+                                && !(value instanceof Map<?, ?>)) {
+                                result.put(String.valueOf(key), String.valueOf(value));
+                            }
+                        }
+                    );
+                }
+            } catch (final IOException | YAMLException exception) {
+                result.clear();
+            }
+        }
+        return result;
+    }
 }
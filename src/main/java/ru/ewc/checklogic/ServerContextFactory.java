@@ -25,16 +25,17 @@ package ru.ewc.checklogic;
 
 import java.net.URI;
 import java.nio.file.Path;
+import java.util.Map;
 import ru.ewc.decisions.api.ComputationContext;
-import ru.ewc.decisions.api.DecisionTables;
 
 /**
- * I am a factory for creating server contexts.
+ * I am a factory for creating server contexts. The server instances created by me watch the tables
+ * folder until I am closed.
  *
  * @since 0.3.2
  */
 @SuppressWarnings("PMD.ProhibitPublicStaticMethods")
-public final class ServerContextFactory {
+public final class ServerContextFactory implements AutoCloseable {
     /**
      * The root path for the external business logic resources.
      */
@@ -50,6 +51,12 @@ public final class ServerContextFactory {
      */
     private final ServerConfiguration config;
 
+    /**
+     * The decision tables shared by all the server instances and the contexts created by this
+     * factory, re-read when changed.
+     */
+    private final TableSource source;
+
     private ServerContextFactory(
         final String root,
         final StateFactory factory,
@@ -57,6 +64,7 @@ public final class ServerContextFactory {
         this.root = root;
         this.factory = factory;
         this.config = config;
+        this.source = new TableSource(config, this.tablesFolder());
     }
 
     public static ServerContextFactory testable() {
@@ -78,25 +86,76 @@ public final class ServerContextFactory {
     }
 
     /**
-     * Creates a new server context from the application configuration.
+     * Creates a new server context from the application configuration. All the contexts created by
+     * this factory share the parsed tables, but every one has its own state.
      *
      * @return A new server context initialized with the basic set of empty Locators.
      */
     public ServerInstance initialState() {
-        return new ServerInstance(this.factory, this.tablesFolder(), this.config);
+        return new ServerInstance(this.factory, this.source, this.config);
+    }
+
+    /**
+     * Creates a server context for the user session. If the journal is enabled in the application
+     * configuration, the changes made to the context are journaled, and the state left by the
+     * previous run of the session is recovered.
+     *
+     * @param session The identifier of the session.
+     * @return A server context with the recovered or initial state.
+     */
+    public ServerInstance initialState(final String session) {
+        return new ServerInstance(
+            this.factory,
+            this.source,
+            this.config,
+            this.config.journalFolder()
+                .<Journal>map(
+                    folder -> CommandJournal.open(
+                        folder.resolve(session),
+                        this.config.journalSnapshotEvery()
+                    )
+                )
+                .orElse(Journal.NONE)
+        );
     }
 
+    /**
+     * Creates a new computation context with a fresh state. The decision tables are built from the
+     * sources parsed once for the server instances and the contexts alike, so no file system access
+     * is needed unless the tables were changed. The compiled tables are shared by all the contexts.
+     *
+     * @return A new computation context.
+     */
     public ComputationContext context() {
+        final CachedTables tables = this.source.current().tables();
         return new ComputationContext(
-            this.factory.initialState(),
-            DecisionTables.using(this.config.csvReader(this.tablesFolder()))
+            tables.withCompiled(this.factory.initialState()),
+            tables.decisionTables()
         );
     }
 
+    /**
+     * Makes the decision for the specified table in a context created by this factory, using the
+     * compiled version of the table if there is one.
+     *
+     * @param table The name of the table.
+     * @param context The context created by {@link #context()}.
+     * @return The outcomes of the table.
+     */
+    public Map<String, String> decisionFor(final String table, final ComputationContext context) {
+        return this.source.current().tables().decisionFor(table, context)
+            .orElseGet(() -> context.decisionFor(table));
+    }
+
     public ServerConfiguration configuration() {
         return this.config;
     }
 
+    @Override
+    public void close() {
+        this.source.close();
+    }
+
     private URI tablesFolder() {
         return Path.of(this.root, "tables").toUri();
     }
@@ -24,43 +24,113 @@
 
 package ru.ewc.checklogic;
 
-import java.net.URI;
+import java.io.UncheckedIOException;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import lombok.Getter;
+import ru.ewc.checklogic.testing.FunctionsLocator;
 import ru.ewc.decisions.api.ComputationContext;
-import ru.ewc.decisions.api.DecisionTables;
 import ru.ewc.decisions.api.DecitaException;
 import ru.ewc.decisions.api.InMemoryLocator;
+import ru.ewc.decisions.api.Locator;
 import ru.ewc.state.State;
 
 /**
  * I am a unique instance of a decision table computation.
  *
+ * <p>I am shared by all the threads serving the requests. Everything I know is kept in an
+ * immutable {@link Snapshot}, published through an atomic reference: the readers just take the
+ * current snapshot and never block, while the changes are serialized, made to a copy of the state
+ * and published only when complete, so nobody ever sees a half-performed command.</p>
+ *
+ * <p>Every change is written to my {@link Journal} in the order it was made, before it is
+ * published, so a change that could not be journaled is never published. When created, I recover
+ * the state by loading the latest snapshot in the journal and replaying the changes made after
+ * it.</p>
+ *
+ * <p>The published states are kept in a {@link StateHistory}, so the changes could be undone and
+ * redone. The contents of the locators are kept in {@link PersistentMap}s, so every copy of the
+ * state shares everything but the changed fragments with the previous one.</p>
+ *
  * @since 0.1.0
  */
 @SuppressWarnings("PMD.ProhibitPublicStaticMethods")
 public final class ServerInstance {
     /**
-     * The root path for the external business logic resources.
+     * The latencies of the commands, by command.
      */
-    @Getter
-    private final String root;
+    private static final Metrics.Labelled<Metrics.Histogram> COMMANDS = Metrics.SHARED.histograms(
+        "checker_command_duration_seconds",
+        "Latency of the commands performed on the server state",
+        "command"
+    );
+
+    /**
+     * The failed commands, by command.
+     */
+    private static final Metrics.Labelled<Metrics.Counter> FAILURES = Metrics.SHARED.counters(
+        "checker_command_failures_total",
+        "Commands that failed to be performed",
+        "command"
+    );
+
+    /**
+     * The latencies of the command previews, by command.
+     */
+    private static final Metrics.Labelled<Metrics.Histogram> PREVIEWS = Metrics.SHARED.histograms(
+        "checker_preview_duration_seconds",
+        "Latency of the command previews",
+        "command"
+    );
 
     /**
-     * The stored state of the system, persisted between requests.
+     * The latency of checking the availability of all the commands.
      */
-    private State state;
+    private static final Metrics.Histogram AVAILABILITY = Metrics.SHARED.histogram(
+        "checker_availability_duration_seconds",
+        "Latency of checking the availability of all the commands at once"
+    );
 
     /**
-     * The URI of the tables folder, used to recreate the computation context for each request.
+     * The journaled commands that could not be replayed.
      */
-    private final URI tables;
+    private static final Metrics.Counter SKIPPED = Metrics.SHARED.counter(
+        "checker_journal_skipped_total",
+        "Journaled commands that could not be replayed"
+    );
 
     /**
-     * The context of the computation.
+     * The time to recover the state from the journal.
      */
-    private ComputationContext context;
+    private static final Metrics.Histogram RECOVERY = Metrics.SHARED.histogram(
+        "checker_journal_recovery_seconds",
+        "Time to recover the state from the journal"
+    );
+
+    /**
+     * The root path for the external business logic resources.
+     */
+    @Getter
+    private final String root;
+
+    /**
+     * The source of the tables, shared with the other instances.
+     */
+    private final TableSource tables;
 
     /**
      * The web server context.
@@ -72,16 +142,50 @@ public final class ServerInstance {
      */
     private final StateFactory states;
 
+    /**
+     * The current snapshot of the state, tables and remembered decisions.
+     */
+    private final AtomicReference<Snapshot> snapshot;
+
+    /**
+     * The lock serializing the changes of the snapshot.
+     */
+    private final ReentrantLock writer;
+
+    /**
+     * The journal of the changes made to the state.
+     */
+    private final Journal journal;
+
+    /**
+     * The history of the published states.
+     */
+    private final StateHistory history;
+
     ServerInstance(
         final StateFactory initial,
-        final URI tables,
+        final TableSource tables,
         final ServerConfiguration server) {
+        this(initial, tables, server, Journal.NONE);
+    }
+
+    ServerInstance(
+        final StateFactory initial,
+        final TableSource tables,
+        final ServerConfiguration server,
+        final Journal journal) {
         this.states = initial;
         this.server = server;
         this.root = this.server.getRoot();
-        this.state = this.states.initialState();
         this.tables = tables;
-        this.context = new ComputationContext(this.state, this.getAllTables());
+        this.journal = journal;
+        this.history = new StateHistory(this.server.historySize());
+        this.writer = new ReentrantLock();
+        this.snapshot = new AtomicReference<>(
+            ServerInstance.rebased(this.states.initialState(), this.tables.current().tables())
+        );
+        this.history.record(this.snapshot.get().state());
+        this.recover();
     }
 
     public static ServerInstance testable() {
@@ -89,32 +193,118 @@ public final class ServerInstance {
     }
 
     public void perform(final String command, final Map<String, String> args) {
-        args.forEach(
-            (key, value) -> {
-                if (!value.isEmpty()) {
-                    final String[] split = key.split("::");
-                    this.context.setValueFor(split[0], split[1], value);
-                }
-            });
+        final long start = System.nanoTime();
         try {
-            this.context.perform(command);
-            this.context = new ComputationContext(this.state, this.getAllTables());
+            this.performed(
+                command,
+                args,
+                next -> this.journal.append(
+                    Journal.Entry.command(command, args),
+                    () -> ServerInstance.stored(next)
+                )
+            );
         } catch (final DecitaException exception) {
+            ServerInstance.FAILURES.of(command).increment();
             throw new IllegalStateException(
                 "Command file for '%s' not found".formatted(command),
                 exception
             );
+        } finally {
+            ServerInstance.COMMANDS.of(command).observeSince(start);
         }
     }
 
+    /**
+     * Previews the command without changing the state. The command is performed on a fork of the
+     * current snapshot, that shares all the unchanged fragments with it and is discarded
+     * afterwards, so a preview costs about the same as the command itself.
+     *
+     * @param command The name of the command.
+     * @param args The arguments of the command.
+     * @return The changes the command would make and the decisions affected by them.
+     * @throws DecitaException If the command could not be performed.
+     */
+    public CommandPreview preview(final String command, final Map<String, String> args)
+        throws DecitaException {
+        final long start = System.nanoTime();
+        final Snapshot current = this.current();
+        final Snapshot fork = current.with(
+            ServerInstance.copyOf(current.state()),
+            current.memo().fork()
+        );
+        ServerInstance.perform(fork.context(), command, args);
+        final Map<String, CommandPreview.Change> changes = ServerInstance.differences(
+            current.state(),
+            fork.state()
+        );
+        final Set<String> affected = new LinkedHashSet<>();
+        changes.keySet().forEach(
+            coordinate -> {
+                final String[] split = coordinate.split("::", 2);
+                affected.addAll(current.tables().dependencies().affectedBy(split[0], split[1]));
+            }
+        );
+        final ComputationContext context = fork.context();
+        final Map<String, Map<String, String>> decisions = new TreeMap<>();
+        for (final String table : affected) {
+            try {
+                decisions.put(table, new TreeMap<>(fork.decisionFor(table, context)));
+            } catch (final DecitaException exception) {
+                decisions.put(table, Map.of("error", exception.getMessage()));
+            }
+        }
+        ServerInstance.PREVIEWS.of(command).observeSince(start);
+        return new CommandPreview(changes, decisions);
+    }
+
+    /**
+     * Applies the change to a copy of the current state and publishes the result. The changes are
+     * serialized, and if the change fails, nothing is published. As an arbitrary change could not
+     * be replayed, the journal takes a snapshot of the resulting state.
+     *
+     * @param change The change to apply, in a context over the copy of the state.
+     */
+    public void apply(final Consumer<ComputationContext> change) {
+        this.change(
+            (next, context) -> change.accept(context),
+            next -> this.journal.snapshot(ServerInstance.stored(next))
+        );
+    }
+
     public Map<String, Map<String, Object>> storedState() {
-        return this.context.storedState();
+        return ServerInstance.stored(this.current());
+    }
+
+    /**
+     * Closes the journal once the changes in progress are journaled. I am not changed after that,
+     * and the journal could be opened again to recover my state.
+     */
+    public void close() {
+        this.writer.lock();
+        try {
+            this.journal.close();
+        } finally {
+            this.writer.unlock();
+        }
+    }
+
+    /**
+     * Closes and deletes the journal once the changes in progress are journaled, when my session
+     * expired and my state is not going to be recovered anymore.
+     */
+    public void discard() {
+        this.writer.lock();
+        try {
+            this.journal.delete();
+        } finally {
+            this.writer.unlock();
+        }
     }
 
     public String valueFor(final String locator, final String fragment) {
         String value;
         try {
-            value = this.context.valueFor(locator, fragment);
+            value = this.current().context().valueFor(locator, fragment);
         } catch (final DecitaException exception) {
             value = "";
         }
@@ -122,45 +312,497 @@ public final class ServerInstance {
     }
 
     public Map<String, List<String>> commandData() {
-        return this.context.commandData();
+        return this.current().context().commandData();
     }
 
     public boolean isAvailable(final String command, final String field) {
-        return "true".equalsIgnoreCase(this.context.decisionFor(command).get(field));
+        return "true".equalsIgnoreCase(this.decisionFor(command).get(field));
+    }
+
+    /**
+     * Checks the availability of all the specified commands in a single pass. All the decisions
+     * are made in one context and share the memo of the current snapshot, so the tables, functions
+     * and fragments shared by the commands are computed only once.
+     *
+     * @param commands The names of the commands to check.
+     * @param field The outcome of the command's table that shows its availability.
+     * @return The availability of every command, by command name.
+     */
+    public Map<String, Boolean> availability(
+        final Collection<String> commands,
+        final String field
+    ) {
+        final long start = System.nanoTime();
+        final Snapshot current = this.current();
+        final ComputationContext context = current.context();
+        final Map<String, Boolean> result = new HashMap<>();
+        for (final String command : commands) {
+            result.put(
+                command,
+                "true".equalsIgnoreCase(current.decisionFor(command, context).get(field))
+            );
+        }
+        ServerInstance.AVAILABILITY.observeSince(start);
+        return result;
     }
 
+    /**
+     * Makes the decision for the specified table, using its compiled version if there is one. The
+     * outcomes are remembered until any of the fragments they were computed from is changed.
+     *
+     * @param table The name of the table.
+     * @return The outcomes of the table.
+     * @throws DecitaException If the table could not be computed.
+     */
+    public Map<String, String> decisionFor(final String table) throws DecitaException {
+        final Snapshot current = this.current();
+        return current.decisionFor(table, current.context());
+    }
+
+    /**
+     * Makes the decision for the specified table again, without using the remembered outcomes of
+     * the table itself, so that the whole computation could be tracked.
+     *
+     * @param table The name of the table.
+     * @param context The context created by {@link #computation()} to make the decision in.
+     * @return The outcomes of the table.
+     * @throws DecitaException If the table could not be computed.
+     */
+    public Map<String, String> recomputed(
+        final String table,
+        final ComputationContext context
+    ) throws DecitaException {
+        final long start = System.nanoTime();
+        final Map<String, String> decision = this.current().tables().decisionFor(table, context)
+            .orElseGet(() -> context.decisionFor(table));
+        Metrics.decisionOf(table, start);
+        return decision;
+    }
+
+    /**
+     * Returns the names of all the decision tables, both compiled and interpreted.
+     *
+     * @return The set of the table names.
+     */
+    public Set<String> tableNames() {
+        final Snapshot current = this.current();
+        final Set<String> names = new HashSet<>(current.context().tableNames());
+        names.addAll(current.tables().compiledNames());
+        return names;
+    }
+
+    /**
+     * Creates a new context over the current state, to read it. To change the state, use
+     * {@link #apply(Consumer)} instead.
+     *
+     * @return The new computation context.
+     */
     public ComputationContext computation() {
-        return this.context;
+        return this.current().context();
+    }
+
+    /**
+     * Returns the number of times the tables were read.
+     *
+     * @return The number of times the tables were read.
+     */
+    public int getReloads() {
+        return this.tables.current().reloads();
     }
 
     public void update(final List<String> values) {
-        final InMemoryLocator request = InMemoryLocator.empty(this.server.requestLocatorName());
+        final Map<String, String> request = new LinkedHashMap<>();
         values.forEach(
             value -> {
                 final String[] split = value.split(":");
-                request.setFragmentValue(split[0].trim(), split[1].trim());
+                request.put(split[0].trim(), split[1].trim());
             });
-        this.state.locators().put(this.server.requestLocatorName(), request);
-        this.context = new ComputationContext(this.state, this.getAllTables());
+        this.updated(
+            request,
+            next -> this.journal.append(
+                Journal.Entry.update(request),
+                () -> ServerInstance.stored(next)
+            )
+        );
     }
 
     public boolean isEmpty() {
-        return this.state.locators().isEmpty();
+        return this.current().state().locators().isEmpty();
     }
 
     public void initialize() {
-        this.state = this.states.initialState();
-        this.context = new ComputationContext(this.state, this.getAllTables());
+        this.reset(
+            next -> this.journal.append(
+                Journal.Entry.reset(),
+                () -> ServerInstance.stored(next)
+            )
+        );
+    }
+
+    /**
+     * Moves the state back to the one before the latest change.
+     *
+     * @return True if the state was moved, false if there is no earlier state.
+     */
+    public boolean undo() {
+        return this.travel(StateHistory::undo);
+    }
+
+    /**
+     * Moves the state forward to the one after the latest undone change.
+     *
+     * @return True if the state was moved, false if there is no undone change.
+     */
+    public boolean redo() {
+        return this.travel(StateHistory::redo);
+    }
+
+    /**
+     * Moves the state to the specified step of its history.
+     *
+     * @param step The index of the step, the oldest kept state being 0.
+     * @return True if the state was moved, false if there is no such step or it is the current.
+     */
+    public boolean jumpTo(final int step) {
+        return this.travel(steps -> steps.jump(step));
+    }
+
+    /**
+     * Returns the index of the current state in the history.
+     *
+     * @return The index of the current step, the oldest kept state being 0.
+     */
+    public int historyStep() {
+        return this.history.position();
+    }
+
+    /**
+     * Returns the number of the states kept in the history.
+     *
+     * @return The number of the kept states.
+     */
+    public int historySize() {
+        return this.history.size();
     }
 
     public boolean isNotSpecified(final String arg) {
         final String[] args = arg.split("::");
         final boolean function = this.server.functionsLocatorName().equals(args[0]);
         final boolean request = this.server.requestLocatorName().equals(args[0]);
-        return function && !this.states.functionSpecified(args[1]) || request;
+        return function && !this.functionSpecified(args[1]) || request;
+    }
+
+    /**
+     * Checks whether the function is specified in the functions locator of the current state, as
+     * every published state has its own copy of it.
+     *
+     * @param name The name of the function.
+     * @return True if the current state has the function.
+     */
+    private boolean functionSpecified(final String name) {
+        return this.current().state().locators().get(this.server.functionsLocatorName())
+            instanceof FunctionsLocator functions && functions.functionSpecified(name);
+    }
+
+    /**
+     * Loads the latest snapshot from the journal and replays the changes made after it. The
+     * commands that could not be performed anymore, e.g. because their files were removed, are
+     * skipped.
+     */
+    private void recover() {
+        final long start = System.nanoTime();
+        final Journal.Recovery recovery = this.journal.recover();
+        recovery.snapshot().ifPresent(
+            stored -> this.change(
+                (next, context) -> stored.forEach(
+                    (locator, fragments) -> fragments.forEach(
+                        (fragment, value) -> context.setValueFor(
+                            locator,
+                            fragment,
+                            String.valueOf(value)
+                        )
+                    )
+                ),
+                next -> { }
+            )
+        );
+        for (final Journal.Entry entry : recovery.tail()) {
+            try {
+                this.replay(entry);
+            } catch (final DecitaException exception) {
+                ServerInstance.SKIPPED.increment();
+            }
+        }
+        if (recovery.snapshot().isPresent() || !recovery.tail().isEmpty()) {
+            ServerInstance.RECOVERY.observeSince(start);
+        }
+    }
+
+    private void replay(final Journal.Entry entry) {
+        final Consumer<Snapshot> untracked = next -> { };
+        switch (entry.type()) {
+            case COMMAND -> this.performed(entry.name(), entry.values(), untracked);
+            case UPDATE -> this.updated(entry.values(), untracked);
+            case RESET -> this.reset(untracked);
+            default -> throw new IllegalStateException(
+                "Unknown journal entry type: %s".formatted(entry.type())
+            );
+        }
+    }
+
+    private void performed(
+        final String command,
+        final Map<String, String> args,
+        final Consumer<Snapshot> journaled
+    ) {
+        this.change((next, context) -> ServerInstance.perform(context, command, args), journaled);
+    }
+
+    private void updated(final Map<String, String> values, final Consumer<Snapshot> journaled) {
+        final InMemoryLocator request = InMemoryLocator.empty(this.server.requestLocatorName());
+        values.forEach(request::setFragmentValue);
+        this.change(
+            (next, context) -> {
+                next.state().locators().put(this.server.requestLocatorName(), request);
+                next.memo().invalidate(this.server.requestLocatorName());
+            },
+            journaled
+        );
+    }
+
+    private void reset(final Consumer<Snapshot> journaled) {
+        this.writer.lock();
+        try {
+            final Snapshot current = this.current();
+            final State state = ServerInstance.copyOf(this.states.initialState());
+            current.tables().withCompiled(state);
+            final Snapshot next = current.with(
+                state,
+                new EvaluationMemo(current.tables().dependencies())
+            );
+            journaled.accept(next);
+            this.snapshot.set(next);
+            this.history.record(state);
+        } finally {
+            this.writer.unlock();
+        }
+    }
+
+    /**
+     * Publishes the state found in the history. As moving through the history could not be
+     * replayed, the journal takes a snapshot of the state moved to, and if it fails, the history
+     * is moved back.
+     *
+     * @param move The move through the history.
+     * @return True if the state was moved.
+     */
+    private boolean travel(final Function<StateHistory, Optional<State>> move) {
+        this.writer.lock();
+        try {
+            final int before = this.history.position();
+            final Optional<State> state = move.apply(this.history);
+            state.ifPresent(
+                found -> {
+                    final Snapshot next = ServerInstance.rebased(
+                        found,
+                        this.tables.current().tables()
+                    );
+                    try {
+                        this.journal.snapshot(ServerInstance.stored(next));
+                    } catch (final UncheckedIOException exception) {
+                        this.history.jump(before);
+                        throw exception;
+                    }
+                    this.snapshot.set(next);
+                }
+            );
+            return state.isPresent();
+        } finally {
+            this.writer.unlock();
+        }
     }
 
-    private DecisionTables getAllTables() {
-        return DecisionTables.using(this.server.csvReader(this.tables));
+    /**
+     * Applies the change to a copy of the current snapshot and publishes the result. The change is
+     * journaled before it is published, while still holding the lock, so that the journal gets the
+     * changes in the order they were published, and a change that failed to be journaled is never
+     * published.
+     *
+     * @param change The change of the copy of the snapshot, given a context over its state.
+     * @param journaled The action to journal the changed snapshot, before it is published.
+     */
+    private void change(
+        final BiConsumer<Snapshot, ComputationContext> change,
+        final Consumer<Snapshot> journaled
+    ) {
+        this.writer.lock();
+        try {
+            final Snapshot current = this.current();
+            final Snapshot next = current.with(
+                ServerInstance.copyOf(current.state()),
+                current.memo().fork()
+            );
+            change.accept(next, next.context());
+            journaled.accept(next);
+            this.snapshot.set(next);
+            this.history.record(next.state());
+        } finally {
+            this.writer.unlock();
+        }
+    }
+
+    /**
+     * Returns the current snapshot, moving it to the latest tables first if they were changed.
+     *
+     * @return The current snapshot.
+     */
+    private Snapshot current() {
+        Snapshot result = this.snapshot.get();
+        if (result.tables() != this.tables.current().tables()) {
+            this.writer.lock();
+            try {
+                result = this.snapshot.get();
+                final CachedTables latest = this.tables.current().tables();
+                if (result.tables() != latest) {
+                    result = ServerInstance.rebased(result.state(), latest);
+                    this.snapshot.set(result);
+                }
+            } finally {
+                this.writer.unlock();
+            }
+        }
+        return result;
+    }
+
+    private static void perform(
+        final ComputationContext context,
+        final String command,
+        final Map<String, String> args
+    ) {
+        args.forEach(
+            (key, value) -> {
+                if (!value.isEmpty()) {
+                    final String[] split = key.split("::");
+                    context.setValueFor(split[0], split[1], value);
+                }
+            });
+        context.perform(command);
+    }
+
+    private static Map<String, CommandPreview.Change> differences(
+        final State before,
+        final State after
+    ) {
+        final Map<String, CommandPreview.Change> result = new TreeMap<>();
+        final Set<String> names = new HashSet<>(before.locators().keySet());
+        names.addAll(after.locators().keySet());
+        for (final String name : names) {
+            final Map<String, Object> old = ServerInstance.contentsOf(before.locators().get(name));
+            final Map<String, Object> actual = ServerInstance.contentsOf(
+                after.locators().get(name)
+            );
+            final Set<String> changed;
+            if (old instanceof PersistentMap first && actual instanceof PersistentMap second) {
+                changed = PersistentMap.changedKeys(first, second);
+            } else {
+                changed = new HashSet<>(old.keySet());
+                changed.addAll(actual.keySet());
+                changed.removeIf(key -> Objects.equals(old.get(key), actual.get(key)));
+            }
+            changed.forEach(
+                key -> result.put(
+                    "%s::%s".formatted(name, key),
+                    new CommandPreview.Change(
+                        Objects.toString(old.get(key), ""),
+                        Objects.toString(actual.get(key), "")
+                    )
+                )
+            );
+        }
+        return result;
+    }
+
+    private static Map<String, Object> contentsOf(final Locator locator) {
+        final Map<String, Object> result;
+        if (locator instanceof InMemoryLocator entity) {
+            result = entity.state();
+        } else {
+            result = Map.of();
+        }
+        return result;
+    }
+
+    private static Map<String, Map<String, Object>> stored(final Snapshot snapshot) {
+        final Map<String, Map<String, Object>> stored = new HashMap<>(
+            new ComputationContext(snapshot.state(), snapshot.tables().decisionTables())
+                .storedState()
+        );
+        stored.keySet().removeAll(snapshot.tables().compiledNames());
+        return stored;
+    }
+
+    private static Snapshot rebased(final State previous, final CachedTables tables) {
+        final State state = new State(
+            ServerInstance.copyOf(previous).locators().values().stream()
+                .filter(locator -> !(locator instanceof CompiledTable))
+                .toList()
+        );
+        tables.withCompiled(state);
+        return new Snapshot(state, tables, new EvaluationMemo(tables.dependencies()));
+    }
+
+    private static State copyOf(final State state) {
+        return new State(
+            state.locators().values().stream().map(ServerInstance::copyOf).toList()
+        );
+    }
+
+    private static Locator copyOf(final Locator locator) {
+        final Locator result;
+        if (locator instanceof InMemoryLocator entity) {
+            result = new InMemoryLocator(
+                entity.locatorName(),
+                PersistentMap.copyOf(entity.state())
+            );
+        } else if (locator instanceof FunctionsLocator functions) {
+            result = functions.copy();
+        } else {
+            result = locator;
+        }
+        return result;
+    }
+
+    /**
+     * I am an immutable snapshot of everything a server instance knows: the state, never changed
+     * after being published, the shared tables it is computed with, and the decisions remembered
+     * so far.
+     *
+     * @param state The stored state of the system.
+     * @param tables The tables, including the compiled ones.
+     * @param memo The memo of the decisions and fragment values made in this state.
+     * @since 0.4.1
+     */
+    private record Snapshot(State state, CachedTables tables, EvaluationMemo memo) {
+        Snapshot with(final State next, final EvaluationMemo remembered) {
+            return new Snapshot(next, this.tables, remembered);
+        }
+
+        ComputationContext context() {
+            return new ComputationContext(
+                this.memo.track(this.state),
+                this.tables.decisionTables()
+            );
+        }
+
+        Map<String, String> decisionFor(final String table, final ComputationContext context) {
+            final long start = System.nanoTime();
+            final Map<String, String> decision = this.memo.decision(
+                table,
+                () -> this.tables.decisionFor(table, context)
+                    .orElseGet(() -> context.decisionFor(table))
+            );
+            Metrics.decisionOf(table, start);
+            return decision;
+        }
     }
 }
@@ -34,6 +34,4 @@ import ru.ewc.state.State;
  */
 interface StateFactory {
     State initialState();
-
-    boolean functionSpecified(String arg);
 }
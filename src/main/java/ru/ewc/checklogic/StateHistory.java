@@ -0,0 +1,128 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Decision-Driven Development
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package ru.ewc.checklogic;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import ru.ewc.state.State;
+
+/**
+ * I am the history of the states of a server instance. My main responsibility is to keep the
+ * published states in the order they were published, and to move back and forth between them.
+ * A change made after moving back drops the states that could be redone. The states share the
+ * contents of their locators, so keeping many of them costs only the changes between them.
+ *
+ * @since 0.4.1
+ */
+final class StateHistory {
+    /**
+     * The maximum number of states to keep.
+     */
+    private final int limit;
+
+    /**
+     * The kept states, the oldest first.
+     */
+    private final List<State> states;
+
+    /**
+     * The index of the current state.
+     */
+    private int position;
+
+    StateHistory(final int limit) {
+        this.limit = limit;
+        this.states = new ArrayList<>(Math.min(limit, 64));
+        this.position = -1;
+    }
+
+    /**
+     * Records the newly published state as the current one.
+     *
+     * @param state The published state, never changed afterwards.
+     */
+    synchronized void record(final State state) {
+        this.states.subList(this.position + 1, this.states.size()).clear();
+        this.states.add(state);
+        if (this.states.size() > this.limit) {
+            this.states.remove(0);
+        }
+        this.position = this.states.size() - 1;
+    }
+
+    /**
+     * Moves to the previous state.
+     *
+     * @return The previous state, or an empty optional if there is none.
+     */
+    synchronized Optional<State> undo() {
+        return this.jump(this.position - 1);
+    }
+
+    /**
+     * Moves to the next state, if the previous change was undone.
+     *
+     * @return The next state, or an empty optional if there is none.
+     */
+    synchronized Optional<State> redo() {
+        return this.jump(this.position + 1);
+    }
+
+    /**
+     * Moves to the specified state.
+     *
+     * @param step The index of the state, the oldest one being 0.
+     * @return The state, or an empty optional if there is no such state or it is the current one.
+     */
+    synchronized Optional<State> jump(final int step) {
+        final Optional<State> result;
+        if (step >= 0 && step < this.states.size() && step != this.position) {
+            this.position = step;
+            result = Optional.of(this.states.get(step));
+        } else {
+            result = Optional.empty();
+        }
+        return result;
+    }
+
+    /**
+     * Returns the index of the current state.
+     *
+     * @return The index of the current state, the oldest one being 0.
+     */
+    synchronized int position() {
+        return this.position;
+    }
+
+    /**
+     * Returns the number of the kept states.
+     *
+     * @return The number of the kept states.
+     */
+    synchronized int size() {
+        return this.states.size();
+    }
+}
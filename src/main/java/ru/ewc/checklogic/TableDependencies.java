@@ -0,0 +1,181 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Decision-Driven Development
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package ru.ewc.checklogic;
+
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import ru.ewc.decisions.api.RuleFragment;
+import ru.ewc.decisions.api.RuleFragments;
+import ru.ewc.decisions.input.SourceLines;
+
+/**
+ * I am the dependency graph of the decision tables, built once when the tables are loaded. My main
+ * responsibility is to tell which tables could have a different decision after a locator fragment
+ * is changed, i.e. the tables reading that fragment, directly or through other tables.
+ *
+ * <p>A coordinate with a computed fragment, like {@code cells::${request::move}}, makes the table
+ * depend on every fragment of the locator, and on the coordinates inside the braces.</p>
+ *
+ * @since 0.4.1
+ */
+public final class TableDependencies {
+    /**
+     * The graph without any tables.
+     */
+    public static final TableDependencies NONE = new TableDependencies(Map.of(), Map.of());
+
+    /**
+     * The innermost reference to a coordinate, like {@code ${request::move}}.
+     */
+    private static final Pattern REFERENCE = Pattern.compile("\\$\\{([^${}]+)}");
+
+    /**
+     * The placeholder for a fragment that is computed.
+     */
+    private static final String ANY = "*";
+
+    /**
+     * The names of the tables reading a fragment, by the fragment coordinate.
+     */
+    private final Map<String, Set<String>> readers;
+
+    /**
+     * The names of the tables reading any fragment of a locator, by the locator name.
+     */
+    private final Map<String, Set<String>> locators;
+
+    private TableDependencies(
+        final Map<String, Set<String>> readers,
+        final Map<String, Set<String>> locators
+    ) {
+        this.readers = readers;
+        this.locators = locators;
+    }
+
+    /**
+     * Builds the dependency graph of the tables.
+     *
+     * @param sources The parsed tables.
+     * @return The dependency graph.
+     */
+    public static TableDependencies of(final Collection<SourceLines> sources) {
+        final Map<String, Set<String>> readers = new HashMap<>();
+        final Map<String, Set<String>> locators = new HashMap<>();
+        for (final SourceLines source : sources) {
+            final String table = CompiledTable.nameOf(source.fileName());
+            for (final RuleFragments rule : source.specifiedRulesFragments()) {
+                for (final RuleFragment fragment : rule.getFragments()) {
+                    final Set<String> read = new HashSet<>();
+                    if ("CND".equals(fragment.type())) {
+                        TableDependencies.coordinatesIn(fragment.left(), read);
+                    }
+                    TableDependencies.coordinatesIn(fragment.right(), read);
+                    for (final String coordinate : read) {
+                        readers.computeIfAbsent(coordinate, key -> new HashSet<>()).add(table);
+                        locators.computeIfAbsent(
+                            coordinate.substring(0, coordinate.indexOf("::")),
+                            key -> new HashSet<>()
+                        ).add(table);
+                    }
+                }
+            }
+        }
+        return new TableDependencies(readers, locators);
+    }
+
+    /**
+     * Finds the tables that could decide differently after the fragment is changed.
+     *
+     * @param locator The name of the locator.
+     * @param fragment The name of the fragment.
+     * @return The names of all the tables depending on the fragment, directly or not.
+     */
+    public Set<String> affectedBy(final String locator, final String fragment) {
+        final Set<String> direct = new HashSet<>(
+            this.readers.getOrDefault("%s::%s".formatted(locator, fragment), Set.of())
+        );
+        direct.addAll(
+            this.readers.getOrDefault(
+                "%s::%s".formatted(locator, TableDependencies.ANY),
+                Set.of()
+            )
+        );
+        return this.closureOf(direct);
+    }
+
+    /**
+     * Finds the tables that could decide differently after any fragment of the locator is changed.
+     *
+     * @param locator The name of the locator.
+     * @return The names of all the tables depending on the locator, directly or not.
+     */
+    public Set<String> affectedBy(final String locator) {
+        return this.closureOf(this.locators.getOrDefault(locator, Set.of()));
+    }
+
+    private Set<String> closureOf(final Set<String> direct) {
+        final Set<String> result = new HashSet<>(direct);
+        final Deque<String> pending = new ArrayDeque<>(direct);
+        while (!pending.isEmpty()) {
+            for (final String table : this.locators.getOrDefault(pending.pop(), Set.of())) {
+                if (result.add(table)) {
+                    pending.push(table);
+                }
+            }
+        }
+        return result;
+    }
+
+    private static void coordinatesIn(final String text, final Set<String> found) {
+        String rest = text.trim();
+        Matcher reference = TableDependencies.REFERENCE.matcher(rest);
+        while (reference.find()) {
+            TableDependencies.addCoordinate(reference.group(1), found);
+            rest = reference.replaceFirst(TableDependencies.ANY);
+            reference = TableDependencies.REFERENCE.matcher(rest);
+        }
+        TableDependencies.addCoordinate(rest.replaceFirst("^[~!<>=]+", ""), found);
+    }
+
+    private static void addCoordinate(final String text, final Set<String> found) {
+        final String[] parts = text.trim().split("::", 2);
+        if (parts.length == 2 && !"constant".equals(parts[0]) && !parts[0].isBlank()) {
+            final String fragment;
+            if (parts[1].contains(TableDependencies.ANY)) {
+                fragment = TableDependencies.ANY;
+            } else {
+                fragment = parts[1].trim();
+            }
+            found.add("%s::%s".formatted(parts[0].trim(), fragment));
+        }
+    }
+}
@@ -0,0 +1,163 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Decision-Driven Development
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package ru.ewc.checklogic;
+
+import java.net.URI;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * I am the source of the parsed decision tables, shared by all the server instances. My main
+ * responsibility is to read and parse the tables once, and again only after any of them is changed
+ * on disk or the settings they are read with are changed. The tables folder is watched from the
+ * first request for the tables until I am closed.
+ *
+ * @since 0.4.1
+ */
+final class TableSource implements AutoCloseable {
+    /**
+     * The server configuration, holding the settings the tables are read with.
+     */
+    private final ServerConfiguration server;
+
+    /**
+     * The URI of the tables folder.
+     */
+    private final URI folder;
+
+    /**
+     * The watcher of the tables folder, or null if the tables were not requested yet.
+     */
+    private final AtomicReference<TableWatcher> watcher;
+
+    /**
+     * The tables read last, or null if they were not read yet.
+     */
+    private final AtomicReference<Loaded> loaded;
+
+    /**
+     * The lock making sure the tables are read by a single thread at a time.
+     */
+    private final ReentrantLock reading;
+
+    TableSource(final ServerConfiguration server, final URI folder) {
+        this.server = server;
+        this.folder = folder;
+        this.watcher = new AtomicReference<>();
+        this.loaded = new AtomicReference<>();
+        this.reading = new ReentrantLock();
+    }
+
+    /**
+     * Returns the up-to-date tables, reading them again if needed.
+     *
+     * @return The tables, together with the number of times they were read.
+     */
+    Loaded current() {
+        final TableWatcher folders = this.watcher();
+        Loaded result = this.loaded.get();
+        if (this.isStale(result, folders.version())) {
+            this.reading.lock();
+            try {
+                result = this.loaded.get();
+                final long seen = folders.version();
+                if (this.isStale(result, seen)) {
+                    result = this.read(result, seen);
+                    this.loaded.set(result);
+                }
+            } finally {
+                this.reading.unlock();
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public void close() {
+        final TableWatcher current = this.watcher.getAndSet(null);
+        if (current != null) {
+            current.close();
+        }
+    }
+
+    private TableWatcher watcher() {
+        TableWatcher result = this.watcher.get();
+        while (result == null) {
+            final TableWatcher fresh = TableWatcher.of(Path.of(this.folder));
+            if (this.watcher.compareAndSet(null, fresh)) {
+                result = fresh;
+            } else {
+                fresh.close();
+                result = this.watcher.get();
+            }
+        }
+        return result;
+    }
+
+    private boolean isStale(final Loaded current, final long seen) {
+        return current == null
+            || seen != current.version()
+            || !this.settings().equals(current.settings());
+    }
+
+    private Loaded read(final Loaded previous, final long seen) {
+        final int reloads;
+        if (previous == null) {
+            reloads = 1;
+        } else {
+            reloads = previous.reloads() + 1;
+        }
+        Metrics.SHARED.counter(
+            "checker_table_reloads_total",
+            "Times the decision tables were read from disk"
+        ).increment();
+        return new Loaded(
+            new CachedTables(this.server.csvReader(this.folder), this.server.compileTables()),
+            seen,
+            this.settings(),
+            reloads
+        );
+    }
+
+    private String settings() {
+        return "%s|%b".formatted(
+            this.server.getParameterValue("delimiter"),
+            this.server.compileTables()
+        );
+    }
+
+    /**
+     * I am the tables read at a specific moment.
+     *
+     * @param tables The parsed tables.
+     * @param version The version of the tables folder they were read at.
+     * @param settings The settings they were read with.
+     * @param reloads The number of times the tables were read so far.
+     * @since 0.4.1
+     */
+    record Loaded(CachedTables tables, long version, String settings, int reloads) {
+    }
+}
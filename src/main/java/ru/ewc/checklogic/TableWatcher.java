@@ -0,0 +1,261 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Decision-Driven Development
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package ru.ewc.checklogic;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * I am a watch on a folder with decision tables. My main responsibility is to tell whether any of
+ * the tables was created, changed or deleted since the last time I was asked, so that the parsed
+ * tables could be kept until then. The folders with Groovy functions are watched the same way.
+ *
+ * <p>I am shared by everyone watching the same folder, so that the number of the OS watches does
+ * not grow with the number of server instances. Instead of being notified, the watchers compare the
+ * version I report with the one they saw last. Every user has to {@link #close()} me when done, and
+ * the OS watch is released when the last user does. If the folder can not be watched, I compare the
+ * sizes and the modification times of the files instead, at most once a second.</p>
+ *
+ * @since 0.4.1
+ */
+public final class TableWatcher implements AutoCloseable {
+    /**
+     * The watchers, by absolute path of the watched folder.
+     */
+    private static final Map<Path, TableWatcher> WATCHERS = new HashMap<>();
+
+    /**
+     * The shortest time between two scans of a folder that can not be watched, in nanoseconds.
+     */
+    private static final long POLL = TimeUnit.SECONDS.toNanos(1);
+
+    /**
+     * The watched folder.
+     */
+    private final Path folder;
+
+    /**
+     * The watched folders, by their watch keys.
+     */
+    private final Map<WatchKey, Path> folders;
+
+    /**
+     * The OS watch service, if the folder could be watched.
+     */
+    private Optional<WatchService> service;
+
+    /**
+     * The number of users sharing this watcher, guarded by {@link #WATCHERS}.
+     */
+    private int users;
+
+    /**
+     * The number of changes seen so far.
+     */
+    private long changes;
+
+    /**
+     * The sizes and modification times of the files seen by the last scan.
+     */
+    private long fingerprint;
+
+    /**
+     * The time of the last scan, in nanoseconds.
+     */
+    private long scanned;
+
+    private TableWatcher(final Path folder) {
+        this.folder = folder;
+        this.folders = new HashMap<>();
+        this.service = this.watch(folder);
+        this.fingerprint = TableWatcher.fingerprintOf(folder);
+        this.scanned = System.nanoTime();
+    }
+
+    /**
+     * Returns the watcher for the specified folder, starting to watch it if nobody watches it now.
+     * The caller becomes one of the watcher's users and has to close it when done.
+     *
+     * @param folder The folder with decision tables.
+     * @return The watcher, shared by everyone watching the same folder.
+     */
+    public static TableWatcher of(final Path folder) {
+        synchronized (TableWatcher.WATCHERS) {
+            final TableWatcher result = TableWatcher.WATCHERS.computeIfAbsent(
+                folder.toAbsolutePath().normalize(),
+                TableWatcher::new
+            );
+            result.users += 1;
+            return result;
+        }
+    }
+
+    /**
+     * Returns the current version of the folder contents, that changes every time any file in the
+     * folder is created, modified or deleted.
+     *
+     * @return The version of the folder contents.
+     */
+    public synchronized long version() {
+        if (this.service.isPresent()) {
+            if (this.drain(this.service.get())) {
+                this.changes += 1;
+            }
+        } else if (System.nanoTime() - this.scanned >= TableWatcher.POLL) {
+            final long current = TableWatcher.fingerprintOf(this.folder);
+            if (current != this.fingerprint) {
+                this.fingerprint = current;
+                this.changes += 1;
+            }
+            this.scanned = System.nanoTime();
+        }
+        return this.changes;
+    }
+
+    @Override
+    public void close() {
+        synchronized (TableWatcher.WATCHERS) {
+            this.users -= 1;
+            if (this.users == 0) {
+                TableWatcher.WATCHERS.remove(this.folder);
+                this.release();
+            }
+        }
+    }
+
+    private synchronized void release() {
+        this.service.ifPresent(
+            watcher -> {
+                try {
+                    watcher.close();
+                } catch (final IOException exception) {
+                    // The keys are cancelled anyway, nothing else to release
+                }
+            }
+        );
+        this.service = Optional.empty();
+        this.folders.clear();
+    }
+
+    private boolean drain(final WatchService watcher) {
+        boolean changed = false;
+        try {
+            WatchKey key = watcher.poll();
+            while (key != null) {
+                changed = this.changesFrom(key, watcher) || changed;
+                key = watcher.poll();
+            }
+        } catch (final ClosedWatchServiceException | UncheckedIOException exception) {
+            this.service = Optional.empty();
+            this.fingerprint = TableWatcher.fingerprintOf(this.folder);
+            this.scanned = System.nanoTime();
+            changed = true;
+        }
+        return changed;
+    }
+
+    private boolean changesFrom(final WatchKey key, final WatchService watcher) {
+        final Path folder = this.folders.get(key);
+        boolean changed = false;
+        for (final WatchEvent<?> event : key.pollEvents()) {
+            if (event.context() instanceof Path name && folder != null) {
+                final Path path = folder.resolve(name);
+                if (Files.isDirectory(path)) {
+                    this.registerAll(watcher, path);
+                }
+            }
+            changed = true;
+        }
+        if (!key.reset()) {
+            this.folders.remove(key);
+        }
+        return changed;
+    }
+
+    private Optional<WatchService> watch(final Path folder) {
+        Optional<WatchService> result;
+        if (Files.isDirectory(folder)) {
+            try {
+                final WatchService watcher = FileSystems.getDefault().newWatchService();
+                this.registerAll(watcher, folder);
+                result = Optional.of(watcher);
+            } catch (final IOException | UncheckedIOException | UnsupportedOperationException ex) {
+                result = Optional.empty();
+            }
+        } else {
+            result = Optional.empty();
+        }
+        return result;
+    }
+
+    private void registerAll(final WatchService watcher, final Path folder) {
+        try (Stream<Path> tree = Files.walk(folder)) {
+            for (final Path path : tree.filter(Files::isDirectory).toList()) {
+                this.folders.put(
+                    path.register(
+                        watcher,
+                        StandardWatchEventKinds.ENTRY_CREATE,
+                        StandardWatchEventKinds.ENTRY_MODIFY,
+                        StandardWatchEventKinds.ENTRY_DELETE
+                    ),
+                    path
+                );
+            }
+        } catch (final IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+    }
+
+    private static long fingerprintOf(final Path folder) {
+        long result = 0L;
+        if (Files.isDirectory(folder)) {
+            try (Stream<Path> tree = Files.walk(folder)) {
+                for (final Path path : tree.sorted().toList()) {
+                    result = result * 31L + path.hashCode();
+                    result = result * 31L + Files.getLastModifiedTime(path).toMillis();
+                    if (Files.isRegularFile(path)) {
+                        result = result * 31L + Files.size(path);
+                    }
+                }
+            } catch (final IOException | UncheckedIOException exception) {
+                result = System.nanoTime();
+            }
+        }
+        return result;
+    }
+}
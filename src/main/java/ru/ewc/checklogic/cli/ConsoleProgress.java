@@ -0,0 +1,71 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Decision-Driven Development
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package ru.ewc.checklogic.cli;
+
+import java.io.PrintStream;
+import java.util.List;
+import java.util.function.Consumer;
+import ru.ewc.checklogic.testing.TestReport;
+import ru.ewc.checklogic.testing.TestResult;
+
+/**
+ * I am the progress of a test run shown in the console. My main responsibility is to append every
+ * result to the reports and to print it with its failures as soon as it is known, the same way for
+ * all the runners. I am called from the threads performing the tests, so the lines of different
+ * results never mix.
+ *
+ * @since 0.4.1
+ */
+final class ConsoleProgress implements Consumer<TestResult> {
+    /**
+     * The stream to print the results to.
+     */
+    private final PrintStream out;
+
+    /**
+     * The reports to append the results to.
+     */
+    private final List<TestReport> reports;
+
+    /**
+     * Ctor.
+     *
+     * @param out The stream to print the results to.
+     * @param reports The reports to append the results to.
+     */
+    ConsoleProgress(final PrintStream out, final TestReport... reports) {
+        this.out = out;
+        this.reports = List.of(reports);
+    }
+
+    @Override
+    public void accept(final TestResult result) {
+        this.reports.forEach(report -> report.append(result));
+        synchronized (this.out) {
+            this.out.printf("%s: %s%n", result.result(), result.file());
+            result.failures().forEach(failure -> this.out.printf("    %s%n", failure.asText()));
+        }
+    }
+}
@@ -0,0 +1,125 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Decision-Driven Development
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package ru.ewc.checklogic.cli;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import ru.ewc.checklogic.ServerConfiguration;
+import ru.ewc.checklogic.testing.CheckSuite;
+import ru.ewc.checklogic.testing.DiskResultCache;
+import ru.ewc.checklogic.testing.JsonReport;
+import ru.ewc.checklogic.testing.JunitXmlReport;
+import ru.ewc.checklogic.testing.ResultCache;
+import ru.ewc.checklogic.testing.TestReport;
+
+/**
+ * I am a headless test runner. My main responsibility is to run all the tests of the project
+ * without starting the web server, writing the results to machine-readable reports as soon as each
+ * test is finished. The results of the tests that did not change since the previous run, along
+ * with everything they depend on, are taken from the on-disk cache.
+ *
+ * @since 0.4.1
+ */
+public final class ConsoleRunner {
+    /**
+     * The configuration of the project to be tested.
+     */
+    private final ServerConfiguration config;
+
+    /**
+     * The folder to write the reports to.
+     */
+    private final Path reports;
+
+    /**
+     * The stream to print the progress and the summary to.
+     */
+    private final PrintStream out;
+
+    /**
+     * Ctor.
+     *
+     * @param config The configuration of the project to be tested.
+     * @param reports The folder to write the reports to.
+     * @param out The stream to print the progress and the summary to.
+     */
+    public ConsoleRunner(
+        final ServerConfiguration config,
+        final Path reports,
+        final PrintStream out
+    ) {
+        this.config = config;
+        this.reports = reports;
+        this.out = out;
+    }
+
+    /**
+     * Runs all the tests and writes the reports.
+     *
+     * @return The process exit code: 0 if all the tests passed, 1 otherwise.
+     */
+    public int run() {
+        final long start = System.currentTimeMillis();
+        final CheckSuite suite = CheckSuite.of(this.config);
+        try {
+            Files.createDirectories(this.reports);
+        } catch (final IOException exception) {
+            throw new IllegalStateException("Failed to create the reports folder", exception);
+        }
+        try (
+            TestReport junit = JunitXmlReport.writtenTo(this.reports.resolve("junit.xml"));
+            TestReport json = JsonReport.writtenTo(this.reports.resolve("results.json"));
+            ResultCache cache = DiskResultCache.open(
+                this.config.cacheFolder(),
+                Path.of(this.config.getRoot()),
+                this.config.cacheSize()
+            )
+        ) {
+            suite.cachedIn(cache).perform(
+                this.config.parallelism(),
+                new ConsoleProgress(this.out, junit, json)
+            );
+        }
+        try {
+            Files.writeString(
+                this.reports.resolve("timings.json"),
+                suite.timingsAsJson(),
+                StandardCharsets.UTF_8
+            );
+        } catch (final IOException exception) {
+            throw new IllegalStateException("Failed to write the timings report", exception);
+        }
+        this.out.println(suite.statsAsText((System.currentTimeMillis() - start) / 1000.0));
+        final int result;
+        if (suite.successful()) {
+            result = 0;
+        } else {
+            result = 1;
+        }
+        return result;
+    }
+}
@@ -0,0 +1,440 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Decision-Driven Development
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package ru.ewc.checklogic.cli;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import ru.ewc.checklogic.LogicChecker;
+import ru.ewc.checklogic.ServerConfiguration;
+import ru.ewc.checklogic.testing.CheckSuite;
+import ru.ewc.checklogic.testing.JsonReport;
+import ru.ewc.checklogic.testing.JunitXmlReport;
+import ru.ewc.checklogic.testing.ProjectRevision;
+import ru.ewc.checklogic.testing.TestReport;
+import ru.ewc.checklogic.testing.TestResult;
+
+/**
+ * I am the coordinator of a sharded test run. My main responsibility is to spread the test files
+ * of the project between several worker processes, started by me on this host or connected from
+ * the other hosts, and to merge their results into the same reports the headless runner writes.
+ * The files are balanced between the workers by their durations in the previous runs, which are
+ * kept in the project cache folder. If a worker is lost, or stays silent for twice the time budget
+ * of a test, its unfinished file is given to another one, and the results of a file are only
+ * reported once it is performed completely.
+ *
+ * <p>Only the workers on this host are accepted, unless {@code shardRemote} is set. Every worker
+ * has to present the shared token ({@code shardToken}, or a random one given to the local workers)
+ * and test the same revision of the project files, otherwise it is rejected.</p>
+ *
+ * @since 0.4.1
+ */
+public final class ShardCoordinator {
+    /**
+     * The time to wait between the checks whether any workers are still alive, in milliseconds.
+     */
+    private static final long CHECK = 1000L;
+
+    /**
+     * The configuration of the project to be tested.
+     */
+    private final ServerConfiguration config;
+
+    /**
+     * The folder to write the reports to.
+     */
+    private final Path reports;
+
+    /**
+     * The number of worker processes to start on this host.
+     */
+    private final int workers;
+
+    /**
+     * The stream to print the progress and the summary to.
+     */
+    private final PrintStream out;
+
+    /**
+     * Ctor.
+     *
+     * @param config The configuration of the project to be tested.
+     * @param reports The folder to write the reports to.
+     * @param workers The number of worker processes to start on this host, 0 to wait for the
+     *  workers started on the other hosts only.
+     * @param out The stream to print the progress and the summary to.
+     */
+    public ShardCoordinator(
+        final ServerConfiguration config,
+        final Path reports,
+        final int workers,
+        final PrintStream out
+    ) {
+        this.config = config;
+        this.reports = reports;
+        this.workers = Math.max(0, workers);
+        this.out = out;
+    }
+
+    /**
+     * Performs all the tests on the workers and writes the merged reports.
+     *
+     * @return The process exit code: 0 if all the tests passed, 1 otherwise.
+     */
+    public int run() {
+        final long start = System.currentTimeMillis();
+        final List<String> files = CheckSuite.of(this.config).checkNames();
+        final Map<String, Long> durations = this.durations();
+        final ShardQueue queue = new ShardQueue(files, durations, this.workers);
+        final List<TestResult> results = Collections.synchronizedList(new ArrayList<>());
+        final Map<String, Long> measured = new ConcurrentHashMap<>();
+        try {
+            Files.createDirectories(this.reports);
+        } catch (final IOException exception) {
+            throw new IllegalStateException("Failed to create the reports folder", exception);
+        }
+        final ShardProtocol.Hello expected = new ShardProtocol.Hello(
+            this.token(),
+            ProjectRevision.of(Path.of(this.config.getRoot()))
+        );
+        boolean complete = false;
+        try (
+            ServerSocket server = this.bound();
+            TestReport junit = JunitXmlReport.writtenTo(this.reports.resolve("junit.xml"));
+            TestReport json = JsonReport.writtenTo(this.reports.resolve("results.json"))
+        ) {
+            this.out.printf(
+                "Coordinating %d test file(s) on port %d%n",
+                files.size(),
+                server.getLocalPort()
+            );
+            final ConsoleProgress progress = new ConsoleProgress(this.out, junit, json);
+            final AtomicInteger joined = new AtomicInteger();
+            final AtomicInteger active = new AtomicInteger();
+            Thread.ofPlatform().daemon().name("shard-acceptor").start(
+                () -> this.accept(
+                    server,
+                    expected,
+                    joined,
+                    active,
+                    (file, shard) -> {
+                        measured.put(file, shard.nanos());
+                        shard.results().forEach(
+                            result -> {
+                                results.add(result);
+                                progress.accept(result);
+                            }
+                        );
+                    },
+                    queue
+                )
+            );
+            final List<Process> locals = this.spawn(server.getLocalPort(), expected.token());
+            complete = queue.awaitDone(ShardCoordinator.CHECK);
+            while (!complete && (this.workers == 0 || this.alive(locals, joined, active))) {
+                complete = queue.awaitDone(ShardCoordinator.CHECK);
+            }
+            ShardCoordinator.stop(locals);
+        } catch (final IOException exception) {
+            throw new IllegalStateException("Failed to coordinate the workers", exception);
+        } catch (final InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+        final Map<String, Long> updated = new HashMap<>(durations);
+        updated.putAll(measured);
+        this.store(updated);
+        final long failed = results.stream().filter(result -> !result.successful()).count();
+        this.out.printf(
+            Locale.ROOT,
+            "%d test(s) performed in %.3f second(s) by %d worker(s), %d passed, %d failed%n",
+            results.size(),
+            (System.currentTimeMillis() - start) / 1000.0,
+            this.workers,
+            results.size() - failed,
+            failed
+        );
+        final int result;
+        if (complete && failed == 0) {
+            result = 0;
+        } else {
+            if (!complete) {
+                this.out.println("All the workers were lost before all the tests were performed");
+            }
+            result = 1;
+        }
+        return result;
+    }
+
+    private void accept(
+        final ServerSocket server,
+        final ShardProtocol.Hello expected,
+        final AtomicInteger joined,
+        final AtomicInteger active,
+        final Performed performed,
+        final ShardQueue queue
+    ) {
+        try {
+            int connected = 0;
+            while (!server.isClosed()) {
+                final Socket socket = server.accept();
+                active.incrementAndGet();
+                Thread.ofPlatform().daemon().name("shard-worker-%d".formatted(connected)).start(
+                    () -> {
+                        try {
+                            this.serve(socket, expected, joined, queue, performed);
+                        } finally {
+                            active.decrementAndGet();
+                        }
+                    }
+                );
+                connected += 1;
+            }
+        } catch (final IOException exception) {
+            // The server socket is closed, so no more workers are accepted
+        }
+    }
+
+    @SuppressWarnings("PMD.CloseResource")
+    private void serve(
+        final Socket socket,
+        final ShardProtocol.Hello expected,
+        final AtomicInteger joined,
+        final ShardQueue queue,
+        final Performed performed
+    ) {
+        String current = null;
+        try (
+            socket;
+            DataInputStream in = new DataInputStream(
+                new BufferedInputStream(socket.getInputStream())
+            );
+            DataOutputStream commands = new DataOutputStream(
+                new BufferedOutputStream(socket.getOutputStream())
+            )
+        ) {
+            socket.setSoTimeout(this.patience());
+            final Optional<String> mismatch = expected.mismatch(ShardProtocol.receiveHello(in));
+            if (mismatch.isPresent()) {
+                ShardProtocol.sendRejected(commands, mismatch.get());
+                this.out.printf(
+                    "Rejected the worker at %s: %s%n",
+                    socket.getRemoteSocketAddress(),
+                    mismatch.get()
+                );
+            } else {
+                final int index = joined.getAndIncrement();
+                Optional<String> next = queue.take(index);
+                while (next.isPresent()) {
+                    current = next.get();
+                    ShardProtocol.sendFile(commands, current);
+                    final List<TestResult> received = new ArrayList<>(1);
+                    final long nanos = ShardProtocol.receiveResults(in, received::add);
+                    performed.accept(current, new Shard(received, nanos));
+                    queue.done(current);
+                    current = null;
+                    next = queue.take(index);
+                }
+                ShardProtocol.sendStop(commands);
+            }
+        } catch (final IOException exception) {
+            if (current != null) {
+                queue.requeue(current);
+            }
+        } catch (final InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private ServerSocket bound() throws IOException {
+        final ServerSocket result;
+        if (this.config.shardRemote()) {
+            result = new ServerSocket(this.config.shardPort());
+        } else {
+            result = new ServerSocket(this.config.shardPort(), 0, InetAddress.getLoopbackAddress());
+        }
+        return result;
+    }
+
+    private String token() {
+        final Optional<String> configured = this.config.shardToken();
+        if (this.config.shardRemote() && configured.isEmpty()) {
+            throw new IllegalStateException(
+                "The 'shardToken' has to be set in application.yaml to accept the remote workers"
+            );
+        }
+        return configured.orElseGet(
+            () -> {
+                final byte[] random = new byte[16];
+                new SecureRandom().nextBytes(random);
+                return HexFormat.of().formatHex(random);
+            }
+        );
+    }
+
+    /**
+     * Returns the longest time to wait for the next message from a worker. The worker sends the
+     * result of every test as soon as it is finished, and every test has its time budget, so a
+     * worker silent for twice as long is considered hung.
+     *
+     * @return The read timeout of the worker connections, in milliseconds.
+     */
+    private int patience() {
+        return (int) Math.min(Integer.MAX_VALUE, this.config.testTimeout().toMillis() * 2);
+    }
+
+    private List<Process> spawn(final int port, final String token) throws IOException {
+        final String java = ProcessHandle.current().info().command().orElse("java");
+        final String address = InetAddress.getLoopbackAddress().getHostAddress();
+        final List<Process> result = new ArrayList<>(this.workers);
+        for (int index = 0; index < this.workers; index += 1) {
+            final ProcessBuilder builder = new ProcessBuilder(
+                java,
+                "-cp",
+                System.getProperty("java.class.path"),
+                LogicChecker.class.getName(),
+                "worker",
+                this.config.getRoot(),
+                "%s:%d".formatted(address, port)
+            ).redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .redirectError(ProcessBuilder.Redirect.INHERIT);
+            builder.environment().put(ShardWorker.TOKEN, token);
+            result.add(builder.start());
+        }
+        return result;
+    }
+
+    private static void stop(final List<Process> locals) throws InterruptedException {
+        for (final Process process : locals) {
+            if (!process.waitFor(ShardCoordinator.CHECK, TimeUnit.MILLISECONDS)) {
+                process.destroy();
+            }
+        }
+    }
+
+    /**
+     * Checks whether any worker may still perform the remaining files: either one is connected,
+     * or some of the local workers have not joined yet. A local worker dropped for being silent
+     * is not waited for, even if its process is still there.
+     *
+     * @param locals The local worker processes.
+     * @param joined The number of the workers that have joined so far.
+     * @param active The number of the workers connected now.
+     * @return True if the coordinator should keep waiting.
+     */
+    private boolean alive(
+        final List<Process> locals,
+        final AtomicInteger joined,
+        final AtomicInteger active
+    ) {
+        return active.get() > 0
+            || (joined.get() < locals.size() && locals.stream().anyMatch(Process::isAlive));
+    }
+
+    private Map<String, Long> durations() {
+        final Map<String, Long> result = new HashMap<>();
+        final Path file = this.config.durationsFile();
+        if (Files.exists(file)) {
+            final Properties stored = new Properties();
+            try (InputStream input = Files.newInputStream(file)) {
+                stored.load(input);
+            } catch (final IOException exception) {
+                stored.clear();
+            }
+            stored.stringPropertyNames().forEach(
+                name -> {
+                    try {
+                        result.put(name, Long.parseLong(stored.getProperty(name)));
+                    } catch (final NumberFormatException exception) {
+                        // A damaged duration is simply measured again
+                    }
+                }
+            );
+        }
+        return result;
+    }
+
+    private void store(final Map<String, Long> durations) {
+        final Properties stored = new Properties();
+        durations.forEach((name, nanos) -> stored.setProperty(name, Long.toString(nanos)));
+        final Path file = this.config.durationsFile();
+        try {
+            Files.createDirectories(file.getParent());
+            try (OutputStream output = Files.newOutputStream(file)) {
+                stored.store(output, "Durations of the test files, in nanoseconds");
+            }
+        } catch (final IOException exception) {
+            this.out.printf("Failed to store the durations of the test files: %s%n", exception);
+        }
+    }
+
+    /**
+     * I am the consumer of the completely performed test files.
+     *
+     * @since 0.4.1
+     */
+    @FunctionalInterface
+    private interface Performed {
+        /**
+         * Accepts the results of a completely performed test file.
+         *
+         * @param file The name of the test file.
+         * @param shard The results of the file and the time spent performing it.
+         */
+        void accept(String file, Shard shard);
+    }
+
+    /**
+     * I am the outcome of a single test file performed by a worker.
+     *
+     * @param results The results of every test in the file.
+     * @param nanos The time spent performing the whole file, in nanoseconds.
+     * @since 0.4.1
+     */
+    private record Shard(List<TestResult> results, long nanos) {
+    }
+}
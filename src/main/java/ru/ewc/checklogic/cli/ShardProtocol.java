@@ -0,0 +1,332 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Decision-Driven Development
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package ru.ewc.checklogic.cli;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+import ru.ewc.checklogic.testing.CheckFailure;
+import ru.ewc.checklogic.testing.PhaseTimings;
+import ru.ewc.checklogic.testing.TestResult;
+
+/**
+ * I am the protocol spoken between the coordinator of a sharded test run and its workers over a
+ * plain socket. A worker introduces itself with the shared token and the revision of its copy of
+ * the project, and the coordinator either rejects it or sends it the name of the next test file to
+ * perform, or tells it to stop when there is nothing left. The worker answers with the result of
+ * every test in the file as soon as it is finished, followed by the time spent performing the whole
+ * file. The timings by phase are not sent, so the merged results only have the total durations of
+ * the tests. The lengths sent by the peer are limited, so a broken or hostile peer cannot make the
+ * other side allocate more than a few megabytes.
+ *
+ * @since 0.4.1
+ */
+final class ShardProtocol {
+    /**
+     * The message telling the worker to stop.
+     */
+    private static final byte STOP = 0;
+
+    /**
+     * The message telling the worker to perform a test file.
+     */
+    private static final byte PERFORM = 1;
+
+    /**
+     * The message carrying the result of a single test.
+     */
+    private static final byte RESULT = 2;
+
+    /**
+     * The message telling the coordinator the test file is performed.
+     */
+    private static final byte DONE = 3;
+
+    /**
+     * The message introducing the worker to the coordinator.
+     */
+    private static final byte HELLO = 4;
+
+    /**
+     * The message telling the worker it is not accepted by the coordinator.
+     */
+    private static final byte REJECTED = 5;
+
+    /**
+     * The longest text accepted from the peer, in bytes.
+     */
+    private static final int MAX_TEXT = 1 << 20;
+
+    /**
+     * The largest number of failures or log lines of a single test accepted from the peer.
+     */
+    private static final int MAX_ITEMS = 10_000;
+
+    private ShardProtocol() {
+        // Utility class
+    }
+
+    /**
+     * Introduces the worker to the coordinator.
+     *
+     * @param out The stream to the coordinator.
+     * @param hello The token and the project revision of the worker.
+     * @throws IOException If the coordinator is lost.
+     */
+    static void sendHello(final DataOutputStream out, final Hello hello) throws IOException {
+        out.writeByte(ShardProtocol.HELLO);
+        ShardProtocol.writeText(out, hello.token());
+        ShardProtocol.writeText(out, hello.revision());
+        out.flush();
+    }
+
+    /**
+     * Waits for the worker to introduce itself.
+     *
+     * @param in The stream from the worker.
+     * @return The token and the project revision of the worker.
+     * @throws IOException If the worker is lost or sent something else.
+     */
+    static Hello receiveHello(final DataInputStream in) throws IOException {
+        final byte type = in.readByte();
+        if (type != ShardProtocol.HELLO) {
+            throw new IOException("Unexpected message %d from the worker".formatted(type));
+        }
+        return new Hello(ShardProtocol.readText(in), ShardProtocol.readText(in));
+    }
+
+    /**
+     * Tells the worker it is not accepted.
+     *
+     * @param out The stream to the worker.
+     * @param reason The reason the worker is rejected.
+     * @throws IOException If the worker is lost.
+     */
+    static void sendRejected(final DataOutputStream out, final String reason) throws IOException {
+        out.writeByte(ShardProtocol.REJECTED);
+        ShardProtocol.writeText(out, reason);
+        out.flush();
+    }
+
+    /**
+     * Tells the worker to perform the test file.
+     *
+     * @param out The stream to the worker.
+     * @param file The name of the test file.
+     * @throws IOException If the worker is lost.
+     */
+    static void sendFile(final DataOutputStream out, final String file) throws IOException {
+        out.writeByte(ShardProtocol.PERFORM);
+        ShardProtocol.writeText(out, file);
+        out.flush();
+    }
+
+    /**
+     * Tells the worker there is nothing left to perform.
+     *
+     * @param out The stream to the worker.
+     * @throws IOException If the worker is lost.
+     */
+    static void sendStop(final DataOutputStream out) throws IOException {
+        out.writeByte(ShardProtocol.STOP);
+        out.flush();
+    }
+
+    /**
+     * Waits for the coordinator to send the next test file to perform.
+     *
+     * @param in The stream from the coordinator.
+     * @return The name of the test file, or an empty optional if the worker should stop.
+     * @throws IOException If the coordinator is lost, rejected the worker or sent an unknown
+     *  message.
+     */
+    static Optional<String> receiveFile(final DataInputStream in) throws IOException {
+        final byte type = in.readByte();
+        final Optional<String> result;
+        if (type == ShardProtocol.PERFORM) {
+            result = Optional.of(ShardProtocol.readText(in));
+        } else if (type == ShardProtocol.STOP) {
+            result = Optional.empty();
+        } else if (type == ShardProtocol.REJECTED) {
+            throw new IOException(
+                "Rejected by the coordinator: %s".formatted(ShardProtocol.readText(in))
+            );
+        } else {
+            throw new IOException("Unexpected message %d from the coordinator".formatted(type));
+        }
+        return result;
+    }
+
+    /**
+     * Sends the result of a single test to the coordinator at once, so the coordinator knows the
+     * worker is still alive.
+     *
+     * @param out The stream to the coordinator.
+     * @param result The result of the test.
+     * @throws IOException If the coordinator is lost.
+     */
+    static void sendResult(final DataOutputStream out, final TestResult result)
+        throws IOException {
+        out.writeByte(ShardProtocol.RESULT);
+        ShardProtocol.writeText(out, result.file());
+        out.writeBoolean(result.successful());
+        out.writeBoolean(result.timedOut());
+        out.writeInt(result.failures().size());
+        for (final CheckFailure failure : result.failures()) {
+            ShardProtocol.writeText(out, failure.expectation());
+            ShardProtocol.writeText(out, failure.actual());
+        }
+        out.writeInt(result.log().size());
+        for (final String line : result.log()) {
+            ShardProtocol.writeText(out, line);
+        }
+        out.writeLong(result.context());
+        out.writeLong(result.elapsed());
+        out.writeLong(result.cpu());
+        out.flush();
+    }
+
+    /**
+     * Tells the coordinator the test file is performed.
+     *
+     * @param out The stream to the coordinator.
+     * @param nanos The time spent performing the whole file, in nanoseconds.
+     * @throws IOException If the coordinator is lost.
+     */
+    static void sendDone(final DataOutputStream out, final long nanos) throws IOException {
+        out.writeByte(ShardProtocol.DONE);
+        out.writeLong(nanos);
+        out.flush();
+    }
+
+    /**
+     * Receives the results of the test file being performed by the worker.
+     *
+     * @param in The stream from the worker.
+     * @param results The consumer of every received result.
+     * @return The time spent performing the whole file, in nanoseconds.
+     * @throws IOException If the worker is lost or sent an unknown message.
+     */
+    static long receiveResults(final DataInputStream in, final Consumer<TestResult> results)
+        throws IOException {
+        byte type = in.readByte();
+        while (type == ShardProtocol.RESULT) {
+            results.accept(ShardProtocol.readResult(in));
+            type = in.readByte();
+        }
+        if (type != ShardProtocol.DONE) {
+            throw new IOException("Unexpected message %d from the worker".formatted(type));
+        }
+        return in.readLong();
+    }
+
+    private static TestResult readResult(final DataInputStream in) throws IOException {
+        final String file = ShardProtocol.readText(in);
+        final boolean successful = in.readBoolean();
+        final boolean timed = in.readBoolean();
+        final int count = ShardProtocol.readLength(in, ShardProtocol.MAX_ITEMS);
+        final List<CheckFailure> failures = new ArrayList<>(count);
+        for (int index = 0; index < count; index += 1) {
+            failures.add(new CheckFailure(ShardProtocol.readText(in), ShardProtocol.readText(in)));
+        }
+        final int lines = ShardProtocol.readLength(in, ShardProtocol.MAX_ITEMS);
+        final List<String> log = new ArrayList<>(lines);
+        for (int index = 0; index < lines; index += 1) {
+            log.add(ShardProtocol.readText(in));
+        }
+        return new TestResult(
+            file,
+            successful,
+            failures,
+            log,
+            in.readLong(),
+            in.readLong(),
+            in.readLong(),
+            new PhaseTimings(),
+            timed
+        );
+    }
+
+    private static void writeText(final DataOutputStream out, final String text)
+        throws IOException {
+        final byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readText(final DataInputStream in) throws IOException {
+        final byte[] bytes = new byte[ShardProtocol.readLength(in, ShardProtocol.MAX_TEXT)];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static int readLength(final DataInputStream in, final int limit) throws IOException {
+        final int result = in.readInt();
+        if (result < 0 || result > limit) {
+            throw new IOException(
+                "Expected a length between 0 and %d, got %d".formatted(limit, result)
+            );
+        }
+        return result;
+    }
+
+    /**
+     * I am the introduction of a worker: the token shared by the coordinator and its workers, and
+     * the revision of the project files the worker is going to test.
+     *
+     * @param token The shared token.
+     * @param revision The revision of the project files.
+     * @since 0.4.1
+     */
+    record Hello(String token, String revision) {
+        /**
+         * Tells why the worker introduced this way should not be accepted. The tokens are
+         * compared in constant time, so they cannot be guessed byte by byte.
+         *
+         * @param worker The introduction of the worker.
+         * @return The reason to reject the worker, or an empty optional if it matches.
+         */
+        Optional<String> mismatch(final Hello worker) {
+            final Optional<String> result;
+            if (!MessageDigest.isEqual(
+                this.token.getBytes(StandardCharsets.UTF_8),
+                worker.token().getBytes(StandardCharsets.UTF_8)
+            )) {
+                result = Optional.of("the token does not match");
+            } else if (!this.revision.equals(worker.revision())) {
+                result = Optional.of("the project files differ from the ones being tested");
+            } else {
+                result = Optional.empty();
+            }
+            return result;
+        }
+    }
+}
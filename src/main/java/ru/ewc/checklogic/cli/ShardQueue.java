@@ -0,0 +1,177 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Decision-Driven Development
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package ru.ewc.checklogic.cli;
+
+import java.util.ArrayDeque;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.IntStream;
+
+/**
+ * I am the queue of the test files to be performed by the workers. My main responsibility is to
+ * balance the work between them: the files are dealt to the workers up front, the longest ones
+ * first, each to the worker with the least work so far, according to the durations of the files
+ * in the previous runs. A worker that has performed all its files steals the shortest remaining
+ * file of the worker with the most work left, so that the workers finish at about the same time
+ * even if the durations changed, and a worker that joins late or is lost does not matter.
+ *
+ * @since 0.4.1
+ */
+final class ShardQueue {
+    /**
+     * The files dealt to every worker, the longest first.
+     */
+    private final List<Deque<String>> shards;
+
+    /**
+     * The expected durations of the files, in nanoseconds.
+     */
+    private final Map<String, Long> weights;
+
+    /**
+     * The number of files not performed yet, including the ones being performed.
+     */
+    private int pending;
+
+    /**
+     * Ctor.
+     *
+     * @param files The names of the test files to be performed.
+     * @param durations The durations of the files in the previous runs, in nanoseconds.
+     * @param workers The number of workers to deal the files to.
+     */
+    ShardQueue(final List<String> files, final Map<String, Long> durations, final int workers) {
+        final long fallback = Math.max(
+            1L,
+            (long) files.stream()
+                .filter(durations::containsKey)
+                .mapToLong(durations::get)
+                .average()
+                .orElse(1.0)
+        );
+        this.weights = new HashMap<>();
+        files.forEach(file -> this.weights.put(file, durations.getOrDefault(file, fallback)));
+        this.shards = IntStream.range(0, Math.max(1, workers))
+            .mapToObj(index -> (Deque<String>) new ArrayDeque<String>())
+            .toList();
+        final long[] loads = new long[this.shards.size()];
+        files.stream()
+            .distinct()
+            .sorted(
+                Comparator.comparing((String file) -> this.weights.get(file)).reversed()
+                    .thenComparing(Comparator.naturalOrder())
+            )
+            .forEach(
+                file -> {
+                    int lightest = 0;
+                    for (int index = 1; index < loads.length; index += 1) {
+                        if (loads[index] < loads[lightest]) {
+                            lightest = index;
+                        }
+                    }
+                    this.shards.get(lightest).addLast(file);
+                    loads[lightest] += this.weights.get(file);
+                }
+            );
+        this.pending = (int) files.stream().distinct().count();
+    }
+
+    /**
+     * Takes the next file for the worker, waiting while the only files left are being performed
+     * by the other workers, as they might be lost and their files returned to the queue.
+     *
+     * @param worker The index of the worker, the ones beyond the dealt shards only steal.
+     * @return The next file, or an empty optional if all the files are performed.
+     * @throws InterruptedException If interrupted while waiting.
+     */
+    synchronized Optional<String> take(final int worker) throws InterruptedException {
+        Optional<String> result = this.next(worker);
+        while (result.isEmpty() && this.pending > 0) {
+            this.wait();
+            result = this.next(worker);
+        }
+        return result;
+    }
+
+    /**
+     * Marks the file as performed.
+     *
+     * @param file The name of the performed file.
+     */
+    synchronized void done(final String file) {
+        this.pending -= 1;
+        this.notifyAll();
+    }
+
+    /**
+     * Returns the file of a lost worker to the queue, to be performed by the first free worker.
+     *
+     * @param file The name of the file that was not performed.
+     */
+    synchronized void requeue(final String file) {
+        this.shards.stream()
+            .min(Comparator.comparingLong(this::remaining))
+            .orElseThrow()
+            .addFirst(file);
+        this.notifyAll();
+    }
+
+    /**
+     * Waits for all the files to be performed.
+     *
+     * @param millis The longest time to wait, in milliseconds.
+     * @return True if all the files are performed.
+     * @throws InterruptedException If interrupted while waiting.
+     */
+    synchronized boolean awaitDone(final long millis) throws InterruptedException {
+        if (this.pending > 0) {
+            this.wait(millis);
+        }
+        return this.pending == 0;
+    }
+
+    private Optional<String> next(final int worker) {
+        String found = null;
+        if (worker >= 0 && worker < this.shards.size()) {
+            found = this.shards.get(worker).pollFirst();
+        }
+        if (found == null) {
+            found = this.shards.stream()
+                .filter(shard -> !shard.isEmpty())
+                .max(Comparator.comparingLong(this::remaining))
+                .map(Deque::pollLast)
+                .orElse(null);
+        }
+        return Optional.ofNullable(found);
+    }
+
+    private long remaining(final Deque<String> shard) {
+        return shard.stream().mapToLong(this.weights::get).sum();
+    }
+}
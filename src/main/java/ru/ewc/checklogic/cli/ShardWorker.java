@@ -0,0 +1,197 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Decision-Driven Development
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package ru.ewc.checklogic.cli;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.Socket;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import ru.ewc.checklogic.ServerConfiguration;
+import ru.ewc.checklogic.ServerContextFactory;
+import ru.ewc.checklogic.testing.CheckSuite;
+import ru.ewc.checklogic.testing.ProjectRevision;
+import ru.ewc.checklogic.testing.TestResult;
+
+/**
+ * I am a worker of a sharded test run. My main responsibility is to connect to the coordinator,
+ * perform the test files it sends me one by one, and send the results back, until the coordinator
+ * has nothing left. The project is read once, and all the files are performed in the contexts
+ * built from it, so the worker may run on any host that has a copy of the project files.
+ *
+ * @since 0.4.1
+ */
+public final class ShardWorker {
+    /**
+     * The environment variable the coordinator passes the token to its local workers in.
+     */
+    static final String TOKEN = "CHECKLOGIC_SHARD_TOKEN";
+
+    /**
+     * The configuration of the project to be tested.
+     */
+    private final ServerConfiguration config;
+
+    /**
+     * The host the coordinator is running on.
+     */
+    private final String host;
+
+    /**
+     * The port the coordinator accepts the workers on.
+     */
+    private final int port;
+
+    /**
+     * The stream to print the progress to.
+     */
+    private final PrintStream out;
+
+    /**
+     * Ctor.
+     *
+     * @param config The configuration of the project to be tested.
+     * @param coordinator The address of the coordinator, as {@code host:port}.
+     * @param out The stream to print the progress to.
+     */
+    public ShardWorker(
+        final ServerConfiguration config,
+        final String coordinator,
+        final PrintStream out
+    ) {
+        final int colon = coordinator.lastIndexOf(':');
+        if (colon < 0) {
+            throw new IllegalArgumentException(
+                "The coordinator address should be 'host:port', got '%s'".formatted(coordinator)
+            );
+        }
+        this.config = config;
+        this.host = coordinator.substring(0, colon);
+        this.port = Integer.parseInt(coordinator.substring(colon + 1));
+        this.out = out;
+    }
+
+    /**
+     * Performs the test files sent by the coordinator.
+     *
+     * @return The number of the performed test files.
+     */
+    public int run() {
+        int performed = 0;
+        try (
+            ServerContextFactory contexts = ServerContextFactory.create(this.config.getRoot());
+            Socket socket = new Socket(this.host, this.port);
+            DataInputStream in = new DataInputStream(
+                new BufferedInputStream(socket.getInputStream())
+            );
+            DataOutputStream results = new DataOutputStream(
+                new BufferedOutputStream(socket.getOutputStream())
+            )
+        ) {
+            final CheckSuite suite = CheckSuite.of(this.config);
+            ShardProtocol.sendHello(
+                results,
+                new ShardProtocol.Hello(
+                    Optional.ofNullable(System.getenv(ShardWorker.TOKEN))
+                        .or(this.config::shardToken)
+                        .orElse(""),
+                    ProjectRevision.of(Path.of(this.config.getRoot()))
+                )
+            );
+            Optional<String> file = ShardProtocol.receiveFile(in);
+            while (file.isPresent()) {
+                final String name = file.get();
+                final long start = System.nanoTime();
+                final int count = this.perform(suite, contexts, name, results);
+                ShardProtocol.sendDone(results, System.nanoTime() - start);
+                this.out.printf("%d test(s) performed: %s%n", count, name);
+                performed += 1;
+                file = ShardProtocol.receiveFile(in);
+            }
+        } catch (final IOException exception) {
+            throw new IllegalStateException(
+                "Failed to work for the coordinator at %s:%d".formatted(this.host, this.port),
+                exception
+            );
+        } catch (final InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+        return performed;
+    }
+
+    /**
+     * Performs the test file, sending the result of every test to the coordinator as soon as it
+     * is finished, so the coordinator knows the worker is still alive during the long files.
+     *
+     * @param suite The suite of all the tests of the project.
+     * @param contexts The factory of the contexts to perform the tests in.
+     * @param name The name of the test file.
+     * @param results The stream to the coordinator.
+     * @return The number of the performed tests.
+     * @throws IOException If the coordinator is lost.
+     * @throws InterruptedException If the worker was interrupted.
+     */
+    private int perform(
+        final CheckSuite suite,
+        final ServerContextFactory contexts,
+        final String name,
+        final DataOutputStream results
+    ) throws IOException, InterruptedException {
+        final BlockingQueue<Optional<TestResult>> finished = new LinkedBlockingQueue<>();
+        final CompletableFuture<CheckSuite> run = CompletableFuture.supplyAsync(
+            () -> suite.perform(
+                contexts,
+                this.config.parallelism(),
+                result -> finished.add(Optional.of(result)),
+                name::equals
+            ),
+            task -> Thread.ofPlatform().daemon().name("shard-file").start(task)
+        ).whenComplete((done, error) -> finished.add(Optional.empty()));
+        int count = 0;
+        Optional<TestResult> next = finished.take();
+        while (next.isPresent()) {
+            ShardProtocol.sendResult(results, next.get());
+            count += 1;
+            next = finished.take();
+        }
+        try {
+            run.get();
+        } catch (final ExecutionException exception) {
+            throw new IllegalStateException(
+                "Failed to perform %s".formatted(name),
+                exception.getCause()
+            );
+        }
+        return count;
+    }
+}
@@ -0,0 +1,266 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Decision-Driven Development
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package ru.ewc.checklogic.cli;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import ru.ewc.checklogic.ServerConfiguration;
+import ru.ewc.checklogic.testing.CheckSuite;
+import ru.ewc.checklogic.testing.TestResult;
+
+/**
+ * I am a test runner that watches the project files and re-runs the tests affected by every
+ * change. My main responsibility is to remember what every test file depends on and to re-run only
+ * the test files whose dependencies were changed, keeping the previous results for the rest.
+ *
+ * @since 0.4.1
+ */
+public final class WatchRunner {
+    /**
+     * The folders with the project sources that are watched for changes.
+     */
+    private static final List<String> FOLDERS = List.of("tables", "commands", "functions", "tests");
+
+    /**
+     * The pause to wait for more changes after the first one, in milliseconds.
+     */
+    private static final long SETTLE = 200L;
+
+    /**
+     * The configuration of the project to be tested.
+     */
+    private final ServerConfiguration config;
+
+    /**
+     * The stream to print the results to.
+     */
+    private final PrintStream out;
+
+    /**
+     * The latest results of every test file.
+     */
+    private final Map<String, List<TestResult>> results;
+
+    /**
+     * The names every test file depends on, collected during its latest run.
+     */
+    private final Map<String, Set<String>> dependencies;
+
+    /**
+     * Ctor.
+     *
+     * @param config The configuration of the project to be tested.
+     * @param out The stream to print the results to.
+     */
+    public WatchRunner(final ServerConfiguration config, final PrintStream out) {
+        this.config = config;
+        this.out = out;
+        this.results = new LinkedHashMap<>();
+        this.dependencies = new LinkedHashMap<>();
+    }
+
+    /**
+     * Runs all the tests and then re-runs the affected ones after every change, until the thread
+     * is interrupted.
+     */
+    public void run() {
+        this.rerun(Set.of(this.root().resolve("application.yaml")));
+        try (WatchService watcher = FileSystems.getDefault().newWatchService()) {
+            final Map<WatchKey, Path> folders = new LinkedHashMap<>();
+            WatchRunner.register(watcher, this.root(), folders);
+            for (final String folder : WatchRunner.FOLDERS) {
+                WatchRunner.registerAll(watcher, this.root().resolve(folder), folders);
+            }
+            while (!Thread.currentThread().isInterrupted()) {
+                final Set<Path> changed = new HashSet<>();
+                WatchKey key = watcher.take();
+                while (key != null) {
+                    changed.addAll(WatchRunner.changesFrom(key, folders, watcher));
+                    key = watcher.poll(WatchRunner.SETTLE, TimeUnit.MILLISECONDS);
+                }
+                changed.removeIf(path -> !this.isRelevant(path));
+                if (!changed.isEmpty()) {
+                    this.rerun(changed);
+                }
+            }
+        } catch (final InterruptedException | ClosedWatchServiceException exception) {
+            Thread.currentThread().interrupt();
+        } catch (final IOException exception) {
+            throw new IllegalStateException("Failed to watch the project folders", exception);
+        }
+    }
+
+    /**
+     * Re-runs all the test files affected by the specified changes.
+     *
+     * @param changed The paths of the changed files.
+     * @return The names of the test files that were re-run.
+     */
+    Set<String> rerun(final Set<Path> changed) {
+        final CheckSuite suite = CheckSuite.of(this.config);
+        final Set<String> existing = new HashSet<>(suite.checkNames());
+        final Set<String> affected = existing.stream()
+            .filter(file -> this.isAffected(file, changed))
+            .collect(Collectors.toSet());
+        suite.perform(
+            this.config.parallelism(),
+            new ConsoleProgress(this.out),
+            affected::contains
+        );
+        this.results.keySet().retainAll(existing);
+        this.dependencies.keySet().retainAll(existing);
+        final Map<String, Set<String>> touched = suite.dependencies();
+        for (final String file : affected) {
+            this.results.put(file, suite.resultsByFile().getOrDefault(file, List.of()));
+            this.dependencies.put(file, touched.get(file));
+        }
+        this.summarize(affected.size(), changed);
+        return affected;
+    }
+
+    private boolean isAffected(final String file, final Set<Path> changed) {
+        final boolean result;
+        if (!this.dependencies.containsKey(file) || changed.stream().anyMatch(this::isGlobal)) {
+            result = true;
+        } else {
+            final Set<String> names = changed.stream()
+                .map(WatchRunner::baseName)
+                .collect(Collectors.toSet());
+            result = names.contains(WatchRunner.baseName(Path.of(file)))
+                || !Collections.disjoint(names, this.dependencies.get(file));
+        }
+        return result;
+    }
+
+    private boolean isGlobal(final Path path) {
+        return !path.startsWith(this.root()) || this.root().relativize(path).getNameCount() < 2;
+    }
+
+    private boolean isRelevant(final Path path) {
+        final Path relative = this.root().relativize(path);
+        return relative.getNameCount() > 1
+            && WatchRunner.FOLDERS.contains(relative.getName(0).toString())
+            || "application.yaml".equals(relative.toString());
+    }
+
+    private void summarize(final int rerun, final Set<Path> changed) {
+        final List<TestResult> all = this.results.values().stream().flatMap(List::stream).toList();
+        this.out.printf(
+            "Re-ran %d test file(s) after changes in %s. Total: %d test(s), %d passed, %d failed%n",
+            rerun,
+            changed.stream()
+                .map(path -> this.root().relativize(path).toString())
+                .sorted()
+                .collect(Collectors.joining(", ")),
+            all.size(),
+            all.stream().filter(TestResult::successful).count(),
+            all.stream().filter(result -> !result.successful()).count()
+        );
+    }
+
+    private Path root() {
+        return Path.of(this.config.getRoot()).toAbsolutePath();
+    }
+
+    private static Set<Path> changesFrom(
+        final WatchKey key,
+        final Map<WatchKey, Path> folders,
+        final WatchService watcher
+    ) throws IOException {
+        final Set<Path> result = new HashSet<>();
+        final Path folder = folders.get(key);
+        for (final WatchEvent<?> event : key.pollEvents()) {
+            if (event.context() instanceof Path name) {
+                final Path path = folder.resolve(name);
+                if (Files.isDirectory(path)) {
+                    WatchRunner.registerAll(watcher, path, folders);
+                }
+                result.add(path);
+            } else {
+                result.add(folder);
+            }
+        }
+        key.reset();
+        return result;
+    }
+
+    private static void registerAll(
+        final WatchService watcher,
+        final Path folder,
+        final Map<WatchKey, Path> folders
+    ) throws IOException {
+        if (Files.isDirectory(folder)) {
+            try (Stream<Path> tree = Files.walk(folder)) {
+                for (final Path path : tree.filter(Files::isDirectory).toList()) {
+                    WatchRunner.register(watcher, path, folders);
+                }
+            }
+        }
+    }
+
+    private static void register(
+        final WatchService watcher,
+        final Path folder,
+        final Map<WatchKey, Path> folders
+    ) throws IOException {
+        folders.put(
+            folder.register(
+                watcher,
+                StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_MODIFY,
+                StandardWatchEventKinds.ENTRY_DELETE
+            ),
+            folder
+        );
+    }
+
+    private static String baseName(final Path path) {
+        final String name = path.getFileName().toString();
+        final int dot = name.lastIndexOf('.');
+        final String result;
+        if (dot > 0) {
+            result = name.substring(0, dot);
+        } else {
+            result = name;
+        }
+        return result;
+    }
+}
@@ -27,7 +27,6 @@ import com.renomad.minum.web.Request;
 import com.renomad.minum.web.Response;
 import com.renomad.minum.web.WebFramework;
 import java.util.Map;
-import ru.ewc.checklogic.ServerConfiguration;
 import ru.ewc.checklogic.ServerInstance;
 
 /**
@@ -37,34 +36,38 @@ import ru.ewc.checklogic.ServerInstance;
  */
 public final class AllEndpoints implements Endpoints {
     /**
-     * The context to be used for the server.
+     * The sessions of the users, each having its own server instance.
      */
-    private final ServerInstance context;
+    private final Sessions sessions;
 
     /**
      * The template renderer, creating pages to be served.
      */
     private final WebPages pages;
 
-    public AllEndpoints(
-        final ServerInstance context,
-        final ServerConfiguration config,
-        final ResourceTemplateRender render
-    ) {
-        this.context = context;
-        this.pages = new WebPages(render, context.getRoot(), config);
+    public AllEndpoints(final ServerInstance context, final ResourceTemplateRender render) {
+        this(Sessions.single(context), render);
+    }
+
+    public AllEndpoints(final Sessions sessions, final ResourceTemplateRender render) {
+        this.sessions = sessions;
+        this.pages = new WebPages(render);
     }
 
     @Override
     public void register(final WebFramework web) {
-        web.registerPartialPath(GET, "static", AllEndpoints::staticResource);
-        web.registerPath(GET, "", this::httpGetRouter);
-        web.registerPath(GET, "test", this::httpGetRouter);
+        web.registerPartialPath(
+            GET,
+            "static",
+            Endpoints.metered(GET, "static", AllEndpoints::staticResource)
+        );
+        this.route(web, GET, "", this::httpGetRouter);
+        this.route(web, GET, "test", this::httpGetRouter);
     }
 
     private Response httpGetRouter(final Request request) {
         final Response result;
-        if (this.context.isEmpty()) {
+        if (this.sessions.instanceFor(request).isEmpty()) {
             result = this.pages.uninitializedPage();
         } else {
             result = this.getAddressFor(request);
@@ -76,7 +79,10 @@ public final class AllEndpoints implements Endpoints {
         final Response result;
         final String address = request.requestLine().getPathDetails().getIsolatedPath();
         if (address.isEmpty()) {
-            result = this.renderHtmlFor("templates/index.html");
+            result = Response.htmlOk(
+                this.pages.renderInLayout("templates/index.html", Map.of()),
+                this.sessions.start(request).headers()
+            );
         } else if ("test".equals(address)) {
             result = this.pages.testPage();
         } else {
@@ -85,10 +91,6 @@ public final class AllEndpoints implements Endpoints {
         return result;
     }
 
-    private Response renderHtmlFor(final String template) {
-        return Response.htmlOk(this.pages.renderInLayout(template, Map.of()));
-    }
-
     private static Response staticResource(final Request request) {
         final Response result;
         if (request.requestLine().getPathDetails().getIsolatedPath().endsWith("main.css")) {
@@ -56,13 +56,15 @@ public class CommandMetadata {
     }
 
     /**
-     * Converts the command names to an HTML list.
+     * Converts the command names to an HTML list. The availability of all the commands is checked
+     * in a single pass.
      *
      * @param computation The server context to get the existing commands from.
      * @param outcome The decision table's outcome field that shows command's availability.
      * @return The command names as an HTML list to be used in a page template.
      */
     public String namesAsHtmlList(final ServerInstance computation, final String outcome) {
+        final Map<String, Boolean> available = computation.availability(this.names, outcome);
         return this.names.stream().sorted().map(
             command -> new StringBuilder()
                 .append("<div class='col-4 px-2'>")
@@ -71,7 +73,7 @@ public class CommandMetadata {
                 .append("hx-vals='{\"command\":\"%1$s\"}'>%1$s</button>")
                 .append("</div>")
                 .toString()
-                .formatted(command, buttonCssClass(computation, command, outcome))
+                .formatted(command, buttonCssClass(available.get(command)))
         ).collect(Collectors.joining());
     }
 
@@ -98,13 +100,9 @@ public class CommandMetadata {
             .collect(Collectors.joining());
     }
 
-    private static String buttonCssClass(
-        final ServerInstance computation,
-        final String command,
-        final String availability
-    ) {
+    private static String buttonCssClass(final boolean available) {
         final String result;
-        if (computation.isAvailable(command, availability)) {
+        if (available) {
             result = "btn-success";
         } else {
             result = "btn-secondary";
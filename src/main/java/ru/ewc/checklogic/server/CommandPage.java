@@ -32,6 +32,8 @@ import java.net.URLDecoder;
 import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.stream.Collectors;
+import ru.ewc.checklogic.CommandPreview;
 import ru.ewc.checklogic.ServerInstance;
 import ru.ewc.decisions.api.DecitaException;
 
@@ -42,9 +44,9 @@ import ru.ewc.decisions.api.DecitaException;
  */
 public final class CommandPage implements Endpoints {
     /**
-     * The computation to be used for the command processing.
+     * The sessions of the users, each having its own server instance for the command processing.
      */
-    private final ServerInstance computation;
+    private final Sessions sessions;
 
     /**
      * The template processor for the Command page.
@@ -56,25 +58,43 @@ public final class CommandPage implements Endpoints {
      */
     private final TemplateProcessor error;
 
+    /**
+     * The template processor for the command preview.
+     */
+    private final TemplateProcessor preview;
+
     /**
      * Ctor.
      *
      * @param computation The computation to be used for the command processing.
      */
     public CommandPage(final ServerInstance computation) {
-        this.computation = computation;
+        this(Sessions.single(computation));
+    }
+
+    /**
+     * Ctor.
+     *
+     * @param sessions The sessions of the users, each having its own server instance.
+     */
+    public CommandPage(final Sessions sessions) {
+        this.sessions = sessions;
         this.description = TemplateProcessor.buildProcessor(
             WebResource.contentOf("templates/command-info.html")
         );
         this.error = TemplateProcessor.buildProcessor(
             WebResource.contentOf("templates/command-error.html")
         );
+        this.preview = TemplateProcessor.buildProcessor(
+            WebResource.contentOf("templates/command-preview.html")
+        );
     }
 
     @Override
     public void register(final WebFramework web) {
-        web.registerPath(POST, "command", this::executeCommand);
-        web.registerPath(GET, "command", this::commandInfo);
+        this.route(web, POST, "command", this::executeCommand);
+        this.route(web, GET, "command", this::commandInfo);
+        this.route(web, POST, "command/preview", this::previewCommand);
     }
 
     public Response executeCommand(final Request request) {
@@ -82,7 +102,7 @@ public final class CommandPage implements Endpoints {
         final Map<String, String> args = CommandPage.extractArgsFrom(request.body());
         Response response;
         try {
-            this.computation.perform(command, args);
+            this.sessions.instanceFor(request).perform(command, args);
             response = Response.htmlOk("OK", Map.of("HX-Redirect", "/state"));
         } catch (final DecitaException exception) {
             response = Response.htmlOk(
@@ -96,14 +116,65 @@ public final class CommandPage implements Endpoints {
         return response;
     }
 
+    /**
+     * Shows what the command would change, without changing the state of the session.
+     *
+     * @param request The request with the command name and its arguments.
+     * @return The changed fragments and the affected decisions, or the error.
+     */
+    public Response previewCommand(final Request request) {
+        return this.previewOf(
+            this.sessions.instanceFor(request),
+            request.body().asString("command"),
+            CommandPage.extractArgsFrom(request.body())
+        );
+    }
+
+    /**
+     * Renders what the command would change in the server instance, without changing it.
+     *
+     * @param instance The server instance of the session.
+     * @param command The name of the command.
+     * @param args The arguments of the command.
+     * @return The changed fragments and the affected decisions, or the error.
+     */
+    Response previewOf(
+        final ServerInstance instance,
+        final String command,
+        final Map<String, String> args
+    ) {
+        Response response;
+        try {
+            final CommandPreview result = instance.preview(command, args);
+            response = Response.htmlOk(
+                this.preview.renderTemplate(
+                    Map.of(
+                        "changes", CommandPage.changesAsRows(result),
+                        "decisions", CommandPage.decisionsAsRows(result)
+                    )
+                )
+            );
+        } catch (final DecitaException exception) {
+            response = Response.htmlOk(
+                this.error.renderTemplate(
+                    Map.of(
+                        "error", exception.getMessage()
+                    )
+                )
+            );
+        }
+        return response;
+    }
+
     public Response commandInfo(final Request request) {
         final String command = request.requestLine().queryString().getOrDefault("command", "");
-        final CommandMetadata commands = new CommandMetadata(this.computation.commandData());
+        final ServerInstance computation = this.sessions.instanceFor(request);
+        final CommandMetadata commands = new CommandMetadata(computation.commandData());
         return Response.htmlOk(
             this.description.renderTemplate(
                 Map.of(
                     "command_name", command,
-                    "command_args", commands.commandArgsAsHtmlForm(command, this.computation)
+                    "command_args", commands.commandArgsAsHtmlForm(command, computation)
                 )
             )
         );
@@ -121,4 +192,29 @@ public final class CommandPage implements Endpoints {
         return result;
     }
 
+    private static String changesAsRows(final CommandPreview preview) {
+        return preview.changes().entrySet().stream()
+            .map(
+                entry -> "<tr><td>%s</td><td>%s</td><td>%s</td></tr>".formatted(
+                    entry.getKey(),
+                    entry.getValue().before(),
+                    entry.getValue().after()
+                )
+            )
+            .collect(Collectors.joining());
+    }
+
+    private static String decisionsAsRows(final CommandPreview preview) {
+        return preview.decisions().entrySet().stream()
+            .flatMap(
+                table -> table.getValue().entrySet().stream().map(
+                    outcome -> "<tr><td>%s</td><td>%s</td><td>%s</td></tr>".formatted(
+                        table.getKey(),
+                        outcome.getKey(),
+                        outcome.getValue()
+                    )
+                )
+            )
+            .collect(Collectors.joining());
+    }
 }
@@ -40,9 +40,9 @@ import ru.ewc.checklogic.ServerInstance;
  */
 public final class ContextPage implements Endpoints {
     /**
-     * The server context.
+     * The sessions of the users, each having its own server instance.
      */
-    private final ServerInstance context;
+    private final Sessions sessions;
 
     /**
      * The server configuration.
@@ -50,29 +50,34 @@ public final class ContextPage implements Endpoints {
     private final ServerConfiguration config;
 
     public ContextPage(final ServerInstance context, final ServerConfiguration config) {
-        this.context = context;
+        this(Sessions.single(context), config);
+    }
+
+    public ContextPage(final Sessions sessions, final ServerConfiguration config) {
+        this.sessions = sessions;
         this.config = config;
     }
 
     @Override
     public void register(final WebFramework web) {
-        web.registerPath(POST, "context", this::contextPage);
+        this.route(web, POST, "context", this::contextPage);
     }
 
     Response contextPage(final Request request) {
-        this.updateContext(request.body().asString("reqValues"));
-        final CommandMetadata commands = new CommandMetadata(this.context.commandData());
-        return Response.htmlOk(commands.namesAsHtmlList(this.context, this.availabilityField()));
+        final ServerInstance context = this.sessions.instanceFor(request);
+        ContextPage.updateContext(context, request.body().asString("reqValues"));
+        final CommandMetadata commands = new CommandMetadata(context.commandData());
+        return Response.htmlOk(commands.namesAsHtmlList(context, this.availabilityField()));
     }
 
     private String availabilityField() {
         return this.config.commandAvailabilityField();
     }
 
-    private void updateContext(final String values) {
+    private static void updateContext(final ServerInstance context, final String values) {
         final String decoded = URLDecoder.decode(values, StandardCharsets.UTF_8);
         if (!decoded.isBlank()) {
-            this.context.update(Arrays.stream(decoded.split("\n")).collect(Collectors.toList()));
+            context.update(Arrays.stream(decoded.split("\n")).collect(Collectors.toList()));
         }
     }
 }
@@ -23,10 +23,14 @@
  */
 package ru.ewc.checklogic.server;
 
+import com.renomad.minum.web.Request;
 import com.renomad.minum.web.RequestLine;
+import com.renomad.minum.web.Response;
 import com.renomad.minum.web.StatusLine;
+import com.renomad.minum.web.ThrowingFunction;
 import com.renomad.minum.web.WebFramework;
 import java.util.Map;
+import ru.ewc.checklogic.Metrics;
 
 /**
  * I am an interface for all the classes that define the endpoints for the web server.
@@ -77,10 +81,69 @@ public interface Endpoints {
      */
     StatusLine.StatusCode NOT_FOUND = StatusLine.StatusCode.CODE_404_NOT_FOUND;
 
+    /**
+     * The status codes for the 429 Too Many Requests response.
+     */
+    StatusLine.StatusCode TOO_MANY_REQUESTS = StatusLine.StatusCode.CODE_429_TOO_MANY_REQUESTS;
+
     /**
      * Register the endpoints with the web server.
      *
      * @param web The web framework to register endpoints in.
      */
     void register(WebFramework web);
+
+    /**
+     * Registers the endpoint, counting the requests and measuring their latency.
+     *
+     * @param web The web framework to register the endpoint in.
+     * @param method The HTTP method of the endpoint.
+     * @param path The path of the endpoint.
+     * @param handler The handler of the requests.
+     */
+    default void route(
+        final WebFramework web,
+        final RequestLine.Method method,
+        final String path,
+        final ThrowingFunction<Request, Response> handler
+    ) {
+        web.registerPath(method, path, Endpoints.metered(method, path, handler));
+    }
+
+    /**
+     * Wraps the handler so that every request is counted and timed in the shared metrics.
+     *
+     * @param method The HTTP method of the endpoint.
+     * @param path The path of the endpoint.
+     * @param handler The handler of the requests.
+     * @return The handler reporting its metrics.
+     */
+    static ThrowingFunction<Request, Response> metered(
+        final RequestLine.Method method,
+        final String path,
+        final ThrowingFunction<Request, Response> handler
+    ) {
+        final String route = "/" + path;
+        final Metrics.Histogram latency = Metrics.SHARED.histogram(
+            "checker_http_request_duration_seconds",
+            "Latency of the HTTP requests by route",
+            "route", route, "method", method.name()
+        );
+        final Metrics.Counter errors = Metrics.SHARED.counter(
+            "checker_http_request_errors_total",
+            "HTTP requests that failed with an exception, by route",
+            "route", route, "method", method.name()
+        );
+        return request -> {
+            final long start = System.nanoTime();
+            try {
+                return handler.apply(request);
+            } catch (final Exception exception) {
+                errors.increment();
+                throw exception;
+            } finally {
+                latency.observeSince(start);
+            }
+        };
+    }
 }
@@ -0,0 +1,62 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Decision-Driven Development
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package ru.ewc.checklogic.server;
+
+import com.renomad.minum.web.Request;
+import com.renomad.minum.web.Response;
+import com.renomad.minum.web.WebFramework;
+import java.util.Map;
+import ru.ewc.checklogic.Metrics;
+
+/**
+ * I am the endpoint serving the server metrics in the Prometheus text exposition format.
+ *
+ * @since 0.4.1
+ */
+public final class MetricsPage implements Endpoints {
+    /**
+     * Content type of the Prometheus text exposition format.
+     */
+    private static final Map<String, String> PROMETHEUS = Map.of(
+        "Content-Type", "text/plain; version=0.0.4; charset=utf-8"
+    );
+
+    /**
+     * The metrics to be served.
+     */
+    private final Metrics metrics;
+
+    public MetricsPage(final Metrics metrics) {
+        this.metrics = metrics;
+    }
+
+    @Override
+    public void register(final WebFramework web) {
+        web.registerPath(GET, "metrics", this::metricsPage);
+    }
+
+    Response metricsPage(final Request request) {
+        return new Response(OK, this.metrics.asPrometheusText(), MetricsPage.PROMETHEUS);
+    }
+}
@@ -24,8 +24,8 @@
 package ru.ewc.checklogic.server;
 
 import com.renomad.minum.templating.TemplateProcessor;
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * I am a collection of template processors that render the pages to be served based on template
@@ -36,29 +36,27 @@ import java.util.Map;
 public final class ResourceTemplateRender implements TemplateRender {
     /**
      * The map of template processors for the templates. Used to lazy load the processors, because
-     * they are expensive to create.
+     * they are expensive to create, and shared by all the threads serving the requests.
      */
     private final Map<String, TemplateProcessor> processors;
 
     public ResourceTemplateRender() {
-        this.processors = new HashMap<>();
+        this.processors = new ConcurrentHashMap<>();
     }
 
     @Override
     public String renderInLayout(final String template, final Map<String, String> values) {
-        this.processors.putIfAbsent(
-            "layout", ResourceTemplateRender.templateProcessorFor("templates/layout.html")
-        );
-        return this.processors.get("layout").renderTemplate(
+        return this.processors.computeIfAbsent(
+            "layout", name -> ResourceTemplateRender.templateProcessorFor("templates/layout.html")
+        ).renderTemplate(
             Map.of("content", this.renderTemplateWith(template, values))
         );
     }
 
     public String renderTemplateWith(final String template, final Map<String, String> values) {
-        this.processors.putIfAbsent(
-            template, ResourceTemplateRender.templateProcessorFor(template)
-        );
-        return this.processors.get(template).renderTemplate(values);
+        return this.processors.computeIfAbsent(
+            template, ResourceTemplateRender::templateProcessorFor
+        ).renderTemplate(values);
     }
 
     private static TemplateProcessor templateProcessorFor(final String template) {
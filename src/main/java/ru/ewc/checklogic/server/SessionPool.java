@@ -0,0 +1,457 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Decision-Driven Development
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package ru.ewc.checklogic.server;
+
+import com.renomad.minum.web.Request;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.SecureRandom;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+import ru.ewc.checklogic.CommandJournal;
+import ru.ewc.checklogic.Metrics;
+import ru.ewc.checklogic.ServerContextFactory;
+import ru.ewc.checklogic.ServerInstance;
+
+/**
+ * I am a bounded set of user sessions, keyed by the session cookie. My main responsibility is to
+ * keep a separate server instance for every active user, while limiting the memory they take.
+ *
+ * <p>All the instances share the parsed tables, commands and functions, and differ only in their
+ * state. I keep at most the configured number of sessions, evicting the least recently used one
+ * when a new session is started, and evict the sessions that were idle for too long. The state of
+ * an evicted session can be spilled to disk and is then restored when the user comes back.</p>
+ *
+ * <p>My lock only guards the bookkeeping of the sessions. The instances are created, restored and
+ * spilled outside of it, so that a slow session start does not block the other users. The journal
+ * of an evicted session is closed before the session could be restored, and the journal of an
+ * expired one is deleted.</p>
+ *
+ * @since 0.4.1
+ */
+public final class SessionPool implements Sessions {
+    /**
+     * The identifier of the session used for the requests without a session cookie.
+     */
+    static final String DEFAULT = "default";
+
+    /**
+     * The format of the valid session identifiers.
+     */
+    private static final Pattern VALID = Pattern.compile("[0-9a-f]{32}");
+
+    /**
+     * The way to create a new server instance for a session.
+     */
+    private final Function<String, ServerInstance> instances;
+
+    /**
+     * The maximum number of sessions kept in memory.
+     */
+    private final int capacity;
+
+    /**
+     * The time a session is kept in memory after its last request.
+     */
+    private final Duration idle;
+
+    /**
+     * The folder to spill the state of the evicted sessions to, if it should be kept.
+     */
+    private final Optional<Path> spill;
+
+    /**
+     * The clock to measure the idle time with.
+     */
+    private final Clock clock;
+
+    /**
+     * The live sessions, by identifier, the least recently used first.
+     */
+    private final Map<String, Live> live;
+
+    /**
+     * The sessions being spilled to disk, by identifier, to be waited for before restoring them.
+     */
+    private final Map<String, CompletableFuture<Void>> leaving;
+
+    /**
+     * The generator of the session identifiers.
+     */
+    private final SecureRandom random;
+
+    /**
+     * Ctor.
+     *
+     * @param instances The way to create a new server instance for a session, by its identifier.
+     * @param capacity The maximum number of sessions kept in memory.
+     * @param idle The time a session is kept in memory after its last request.
+     * @param spill The folder to spill the state of the evicted sessions to, if it should be kept.
+     * @param clock The clock to measure the idle time with.
+     */
+    public SessionPool(
+        final Function<String, ServerInstance> instances,
+        final int capacity,
+        final Duration idle,
+        final Optional<Path> spill,
+        final Clock clock
+    ) {
+        this.instances = instances;
+        this.capacity = capacity;
+        this.idle = idle;
+        this.spill = spill;
+        this.clock = clock;
+        this.live = new LinkedHashMap<>(16, 0.75f, true);
+        this.leaving = new HashMap<>();
+        this.random = new SecureRandom();
+    }
+
+    /**
+     * Creates the sessions configured in the application configuration. The journals left by the
+     * sessions that expired while the server was down are deleted.
+     *
+     * @param factory The factory to create the server instances with.
+     * @return The sessions.
+     */
+    @SuppressWarnings("PMD.ProhibitPublicStaticMethods")
+    public static SessionPool using(final ServerContextFactory factory) {
+        final Clock clock = Clock.systemUTC();
+        factory.configuration().journalFolder().ifPresent(
+            folder -> CommandJournal.prune(
+                folder,
+                clock.instant().minus(factory.configuration().sessionIdleTimeout())
+            )
+        );
+        return new SessionPool(
+            factory::initialState,
+            factory.configuration().sessions(),
+            factory.configuration().sessionIdleTimeout(),
+            factory.configuration().sessionSpillFolder(),
+            clock
+        );
+    }
+
+    @Override
+    public ServerInstance instanceFor(final Request request) {
+        return this.instanceFor(SessionPool.idFrom(request).orElse(SessionPool.DEFAULT));
+    }
+
+    @Override
+    public Session start(final Request request) {
+        final Optional<String> existing = SessionPool.idFrom(request);
+        final Session result;
+        if (existing.isPresent()) {
+            result = new Session(this.instanceFor(existing.get()), Map.of());
+        } else {
+            final byte[] bytes = new byte[16];
+            this.random.nextBytes(bytes);
+            final String id = HexFormat.of().formatHex(bytes);
+            result = new Session(
+                this.instanceFor(id),
+                Map.of(
+                    "Set-Cookie",
+                    "%s=%s; Path=/; HttpOnly; SameSite=Strict".formatted(Sessions.COOKIE, id)
+                )
+            );
+        }
+        return result;
+    }
+
+    /**
+     * Returns the server instance of the session, creating or restoring it if it is not live.
+     *
+     * @param id The identifier of the session.
+     * @return The server instance of the session.
+     */
+    public ServerInstance instanceFor(final String id) {
+        final Instant now = this.clock.instant();
+        final List<Leaving> evicted = new ArrayList<>(0);
+        final Live session;
+        final Optional<CompletableFuture<Void>> spilled;
+        synchronized (this) {
+            this.evictIdle(now, evicted);
+            final Live existing = this.live.get(id);
+            if (existing == null) {
+                session = new Live();
+                spilled = Optional.of(
+                    this.leaving.getOrDefault(id, CompletableFuture.completedFuture(null))
+                );
+                this.live.put(id, session);
+                this.evictOverCapacity(evicted);
+            } else {
+                session = existing;
+                spilled = Optional.empty();
+            }
+            session.touch(now);
+        }
+        this.leave(evicted);
+        spilled.ifPresent(
+            previous -> {
+                previous.join();
+                this.start(id, session);
+            }
+        );
+        return session.instance.join();
+    }
+
+    /**
+     * Returns the number of sessions in memory.
+     *
+     * @return The number of live sessions.
+     */
+    public synchronized int size() {
+        return this.live.size();
+    }
+
+    private void start(final String id, final Live session) {
+        ServerInstance result = null;
+        try {
+            result = this.restored(id);
+        } finally {
+            if (result == null) {
+                synchronized (this) {
+                    this.live.remove(id, session);
+                }
+                session.instance.completeExceptionally(
+                    new IllegalStateException("Could not start the session '%s'".formatted(id))
+                );
+            } else {
+                session.instance.complete(result);
+            }
+        }
+    }
+
+    private void evictIdle(final Instant now, final List<Leaving> evicted) {
+        final Iterator<Map.Entry<String, Live>> sessions = this.live.entrySet().iterator();
+        boolean expired = true;
+        while (expired && sessions.hasNext()) {
+            final Map.Entry<String, Live> session = sessions.next();
+            expired = session.getValue().touched.plus(this.idle).isBefore(now);
+            if (expired) {
+                sessions.remove();
+                evicted.add(this.evicted(session.getKey(), session.getValue(), "idle"));
+            }
+        }
+    }
+
+    private void evictOverCapacity(final List<Leaving> evicted) {
+        final Iterator<Map.Entry<String, Live>> sessions = this.live.entrySet().iterator();
+        while (this.live.size() > this.capacity && sessions.hasNext()) {
+            final Map.Entry<String, Live> session = sessions.next();
+            sessions.remove();
+            evicted.add(this.evicted(session.getKey(), session.getValue(), "capacity"));
+        }
+    }
+
+    private Leaving evicted(final String id, final Live session, final String reason) {
+        Metrics.SHARED.counter(
+            "checker_sessions_evicted_total",
+            "User sessions evicted from memory, by reason",
+            "reason", reason
+        ).increment();
+        final Leaving result = new Leaving(
+            id,
+            session,
+            "idle".equals(reason),
+            new CompletableFuture<>()
+        );
+        this.leaving.put(id, result.done());
+        return result;
+    }
+
+    private void leave(final List<Leaving> evicted) {
+        evicted.forEach(
+            session -> session.live().instance.thenAccept(
+                instance -> SessionPool.spilled(
+                    instance,
+                    this.spill.map(folder -> folder.resolve(session.id())),
+                    session.expired()
+                )
+            ).whenComplete(
+                (ignored, failure) -> {
+                    if (failure != null) {
+                        Metrics.SHARED.counter(
+                            "checker_sessions_spill_failures_total",
+                            "Evicted user sessions that could not be spilled to disk"
+                        ).increment();
+                    }
+                    this.left(session);
+                }
+            )
+        );
+    }
+
+    /**
+     * Spills the state of the evicted session and closes its journal. The journal of an expired
+     * session is deleted, as its state should not be recovered after a restart anymore.
+     *
+     * @param instance The server instance of the evicted session.
+     * @param file The file to spill the state to, if it should be kept.
+     * @param expired Whether the session expired, rather than evicted to make room.
+     */
+    private static void spilled(
+        final ServerInstance instance,
+        final Optional<Path> file,
+        final boolean expired
+    ) {
+        try {
+            file.ifPresent(path -> SessionPool.store(path, instance));
+        } finally {
+            if (expired) {
+                instance.discard();
+            } else {
+                instance.close();
+            }
+        }
+    }
+
+    private synchronized void left(final Leaving session) {
+        session.done().complete(null);
+        this.leaving.remove(session.id(), session.done());
+    }
+
+    private ServerInstance restored(final String id) {
+        final ServerInstance result = this.instances.apply(id);
+        final Optional<Path> stored = this.spill.map(folder -> folder.resolve(id))
+            .filter(Files::exists);
+        if (stored.isPresent()) {
+            final Properties values = new Properties();
+            try (InputStream input = Files.newInputStream(stored.get())) {
+                values.load(input);
+                Files.delete(stored.get());
+            } catch (final IOException exception) {
+                throw new UncheckedIOException(exception);
+            }
+            result.apply(
+                context -> values.stringPropertyNames().forEach(
+                    key -> {
+                        final String[] coordinate = key.split("::", 2);
+                        context.setValueFor(
+                            coordinate[0],
+                            coordinate[1],
+                            values.getProperty(key)
+                        );
+                    }
+                )
+            );
+        }
+        return result;
+    }
+
+    private static void store(final Path file, final ServerInstance instance) {
+        final Properties values = new Properties();
+        instance.storedState().forEach(
+            (locator, fragments) -> fragments.forEach(
+                (fragment, value) -> values.setProperty(
+                    "%s::%s".formatted(locator, fragment),
+                    String.valueOf(value)
+                )
+            )
+        );
+        try {
+            Files.createDirectories(file.getParent());
+            try (OutputStream output = Files.newOutputStream(file)) {
+                values.store(output, "The state of an evicted session");
+            }
+        } catch (final IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+    }
+
+    private static Optional<String> idFrom(final Request request) {
+        final List<String> cookies = Optional.ofNullable(
+            request.headers().valueByKey("cookie")
+        ).orElse(List.of());
+        final String prefix = "%s=".formatted(Sessions.COOKIE);
+        return cookies.stream()
+            .flatMap(header -> Pattern.compile(";").splitAsStream(header))
+            .map(String::trim)
+            .filter(cookie -> cookie.startsWith(prefix))
+            .map(cookie -> cookie.substring(prefix.length()))
+            .filter(id -> SessionPool.VALID.matcher(id).matches())
+            .findFirst();
+    }
+
+    /**
+     * I am an evicted session being spilled to disk.
+     *
+     * @param id The identifier of the session.
+     * @param live The evicted session.
+     * @param expired Whether the session was idle for too long, rather than evicted to make room.
+     * @param done The future completed when the session is spilled.
+     * @since 0.4.1
+     */
+    private record Leaving(
+        String id,
+        Live live,
+        boolean expired,
+        CompletableFuture<Void> done
+    ) {
+    }
+
+    /**
+     * I am a live session: its server instance, which may still be starting, and the time of its
+     * last request.
+     *
+     * @since 0.4.1
+     */
+    private static final class Live {
+        /**
+         * The server instance of the session, completed once it is started.
+         */
+        private final CompletableFuture<ServerInstance> instance;
+
+        /**
+         * The time of the last request of the session.
+         */
+        private Instant touched;
+
+        Live() {
+            this.instance = new CompletableFuture<>();
+            this.touched = Instant.EPOCH;
+        }
+
+        void touch(final Instant now) {
+            this.touched = now;
+        }
+    }
+}
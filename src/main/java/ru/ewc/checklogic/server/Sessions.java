@@ -0,0 +1,91 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Decision-Driven Development
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package ru.ewc.checklogic.server;
+
+import com.renomad.minum.web.Request;
+import java.util.Map;
+import ru.ewc.checklogic.ServerInstance;
+
+/**
+ * I am the set of the user sessions. My main responsibility is to give every user of the web UI
+ * their own server instance, so that the users exploring different scenarios do not overwrite each
+ * other's state.
+ *
+ * @since 0.4.1
+ */
+public interface Sessions {
+    /**
+     * The name of the cookie holding the session identifier.
+     */
+    String COOKIE = "checker_session";
+
+    /**
+     * Returns the server instance of the session the request belongs to. The requests without a
+     * session share the default one.
+     *
+     * @param request The request to find the session for.
+     * @return The server instance of the session.
+     */
+    ServerInstance instanceFor(Request request);
+
+    /**
+     * Returns the session the request belongs to, starting a new one if there is none. Used by the
+     * full pages, which are the first to be requested by a new user.
+     *
+     * @param request The request to find the session for.
+     * @return The session, with the headers to be sent to the user to keep it.
+     */
+    Session start(Request request);
+
+    /**
+     * Creates the set of sessions, all sharing the same instance.
+     *
+     * @param instance The server instance to use for all the requests.
+     * @return The sessions.
+     */
+    static Sessions single(final ServerInstance instance) {
+        return new Sessions() {
+            @Override
+            public ServerInstance instanceFor(final Request request) {
+                return instance;
+            }
+
+            @Override
+            public Session start(final Request request) {
+                return new Session(instance, Map.of());
+            }
+        };
+    }
+
+    /**
+     * I am a session of a user.
+     *
+     * @param instance The server instance of the session.
+     * @param headers The headers to be added to the response, to let the user keep the session.
+     * @since 0.4.1
+     */
+    record Session(ServerInstance instance, Map<String, String> headers) {
+    }
+}
@@ -44,9 +44,9 @@ import ru.ewc.decisions.api.OutputTracker;
  */
 public final class StatePage implements Endpoints {
     /**
-     * The context that stores the current state of the system.
+     * The sessions of the users, each having its own state of the system.
      */
-    private final ServerInstance context;
+    private final Sessions sessions;
 
     /**
      * The server configuration.
@@ -63,30 +63,44 @@ public final class StatePage implements Endpoints {
         final ServerConfiguration config,
         final ResourceTemplateRender processors
     ) {
-        this.context = context;
+        this(Sessions.single(context), config, processors);
+    }
+
+    public StatePage(
+        final Sessions sessions,
+        final ServerConfiguration config,
+        final ResourceTemplateRender processors
+    ) {
+        this.sessions = sessions;
         this.config = config;
         this.processors = processors;
     }
 
     @Override
     public void register(final WebFramework web) {
-        web.registerPath(GET, "state", this::statePage);
-        web.registerPath(POST, "state", this::postRouter);
-        web.registerPath(DELETE, "state", this::resetState);
+        this.route(web, GET, "state", this::statePage);
+        this.route(web, POST, "state", this::postRouter);
+        this.route(web, DELETE, "state", this::resetState);
     }
 
     private Response statePage(final Request request) {
         assert request.requestLine().getMethod().equals(RequestLine.Method.GET);
-        final StoredState stored = new StoredState(this.context.storedState());
+        final Sessions.Session session = this.sessions.start(request);
+        final ServerInstance context = session.instance();
+        final StoredState stored = new StoredState(context.storedState());
         return Response.htmlOk(
             this.processors.renderInLayout(
                 "templates/state.html",
                 Map.of(
                     "state", stored.asHtmlList(),
                     "includes", this.listOfIncludes(),
-                    "tables", this.listOfTables()
+                    "tables", StatePage.listOfTables(context),
+                    "reloads", String.valueOf(context.getReloads()),
+                    "step", String.valueOf(context.historyStep() + 1),
+                    "steps", String.valueOf(context.historySize())
                 )
-            )
+            ),
+            session.headers()
         );
     }
 
@@ -94,14 +108,20 @@ public final class StatePage implements Endpoints {
         assert request.requestLine().getMethod().equals(RequestLine.Method.POST);
         final String include = request.body().asString("include");
         final String table = request.body().asString("table");
-        final ComputationContext computation = this.context.computation();
+        final String history = request.body().asString("history");
+        final ServerInstance context = this.sessions.instanceFor(request);
         final Response result;
         if (StatePage.isSpecified(include)) {
-            this.testSuite().findAndPerform(include, computation);
+            final CheckSuite suite = this.testSuite();
+            context.apply(computation -> suite.findAndPerform(include, computation));
+            result = Response.htmlOk("OK", Map.of("HX-Redirect", "/state"));
+        } else if (StatePage.isSpecified(history)) {
+            StatePage.travel(context, history.trim());
             result = Response.htmlOk("OK", Map.of("HX-Redirect", "/state"));
         } else if (StatePage.isSpecified(table)) {
+            final ComputationContext computation = context.computation();
             final OutputTracker<String> tracker = computation.startTracking();
-            final Map<String, String> outcomes = computation.decisionFor(table);
+            final Map<String, String> outcomes = context.recomputed(table, computation);
             result = Response.htmlOk(
                 this.processors.renderTemplateWith(
                     "templates/outcomes.html",
@@ -117,6 +137,16 @@ public final class StatePage implements Endpoints {
         return result;
     }
 
+    private static void travel(final ServerInstance context, final String history) {
+        if ("undo".equals(history)) {
+            context.undo();
+        } else if ("redo".equals(history)) {
+            context.redo();
+        } else if (history.length() < 10 && history.chars().allMatch(Character::isDigit)) {
+            context.jumpTo(Integer.parseInt(history) - 1);
+        }
+    }
+
     private static boolean isSpecified(final String include) {
         return !include.isBlank();
     }
@@ -141,14 +171,14 @@ public final class StatePage implements Endpoints {
 
     private Response resetState(final Request request) {
         assert request.requestLine().getMethod().equals(RequestLine.Method.DELETE);
-        this.context.initialize();
+        this.sessions.instanceFor(request).initialize();
         return Response.htmlOk("OK", Map.of("HX-Redirect", "/state"));
     }
 
     private CheckSuite testSuite() {
         return CheckSuite.using(
-            this.config.csvReader(Path.of(this.context.getRoot(), "tests").toUri()),
-            this.context.getRoot(),
+            this.config.csvReader(Path.of(this.config.getRoot(), "tests").toUri()),
+            this.config.getRoot(),
             this.config.requestLocatorName()
         );
     }
@@ -160,8 +190,8 @@ public final class StatePage implements Endpoints {
             .collect(Collectors.joining());
     }
 
-    private String listOfTables() {
-        return this.context.computation().tableNames().stream()
+    private static String listOfTables(final ServerInstance context) {
+        return context.tableNames().stream()
             .sorted()
             .map(name -> "<option value=\"%s\">%s</option>".formatted(name, name))
             .collect(Collectors.joining());
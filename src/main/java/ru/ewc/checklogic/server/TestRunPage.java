@@ -0,0 +1,326 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Decision-Driven Development
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package ru.ewc.checklogic.server;
+
+import com.renomad.minum.templating.TemplateProcessor;
+import com.renomad.minum.web.Request;
+import com.renomad.minum.web.Response;
+import com.renomad.minum.web.WebFramework;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import ru.ewc.checklogic.Metrics;
+import ru.ewc.checklogic.ServerConfiguration;
+import ru.ewc.checklogic.testing.CheckSuite;
+import ru.ewc.checklogic.testing.ProjectRevision;
+import ru.ewc.checklogic.testing.TestResult;
+import ru.ewc.checklogic.testing.TestRun;
+
+/**
+ * I am a class providing the endpoints for the test runs performed in the background. A run is
+ * started by a POST request returning its identifier, and its results are then fetched in small
+ * portions, each containing only the results finished since the previous one, until the run is
+ * over or cancelled.
+ *
+ * <p>The requests to run the tests of the same project revision as a run in progress just attach
+ * to that run and share its results. Cancelling a shared run only detaches the viewer that asked
+ * for it; the run is cancelled when its last viewer detaches. Only a few distinct runs are
+ * performed at once, and a few more are queued; when the queue is full, the request is rejected
+ * with 429 Too Many Requests and a hint to retry later, so a burst of requests could not overload
+ * the server.</p>
+ *
+ * @since 0.4.1
+ */
+public final class TestRunPage implements Endpoints {
+    /**
+     * The number of finished runs kept, the oldest finished ones are dropped to make room for the
+     * new runs. The runs in progress are never dropped, and the executor accepts at most
+     * {@code testRuns + testRunQueue} of them, so no more than {@code testRuns + testRunQueue +
+     * KEPT} runs are kept at once.
+     */
+    private static final int KEPT = 8;
+
+    /**
+     * The number of seconds to retry a rejected run after.
+     */
+    private static final int RETRY = 5;
+
+    /**
+     * The server configuration.
+     */
+    private final ServerConfiguration config;
+
+    /**
+     * The template processor for a just started run.
+     */
+    private final TemplateProcessor started;
+
+    /**
+     * The latest runs, by identifier, the oldest first. Holds all the runs in progress and a few
+     * of the finished ones, see {@link #KEPT}.
+     */
+    private final Map<String, TestRun> runs;
+
+    /**
+     * The executor performing the runs, with a bounded queue of the runs waiting for a thread.
+     */
+    private final ThreadPoolExecutor executor;
+
+    public TestRunPage(final ServerConfiguration config) {
+        this.config = config;
+        this.started = TemplateProcessor.buildProcessor(
+            WebResource.contentOf("templates/test-run.html")
+        );
+        this.runs = new LinkedHashMap<>();
+        this.executor = new ThreadPoolExecutor(
+            config.testRuns(),
+            config.testRuns(),
+            0L,
+            TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(config.testRunQueue()),
+            Thread.ofPlatform().name("test-run-", 0).daemon().factory()
+        );
+    }
+
+    @Override
+    public void register(final WebFramework web) {
+        this.route(web, POST, "test/run", this::startRun);
+        this.route(web, GET, "test/run", this::runResults);
+        this.route(web, DELETE, "test/run", this::cancelRun);
+    }
+
+    /**
+     * Starts a new run of all the tests in the background, or attaches to the run of the same
+     * project revision that is still in progress.
+     *
+     * @param request The request to start the run.
+     * @return The page fragment to show the results of the run in, or 429 Too Many Requests if
+     *  there are too many runs in progress already.
+     */
+    public Response startRun(final Request request) {
+        final String revision = ProjectRevision.of(Path.of(this.config.getRoot()));
+        Optional<Viewer> viewer = this.attachedTo(revision);
+        String outcome = "coalesced";
+        if (viewer.isEmpty()) {
+            final CheckSuite suite = this.suite();
+            synchronized (this.runs) {
+                viewer = this.attachedTo(revision);
+                if (viewer.isEmpty()) {
+                    viewer = this.started(suite, revision);
+                    outcome = viewer.map(started -> "started").orElse("rejected");
+                }
+            }
+        }
+        Metrics.SHARED.counter(
+            "checker_test_runs_total",
+            "Test runs requested from the web UI, by outcome",
+            "outcome", outcome
+        ).increment();
+        return viewer
+            .map(
+                found -> Response.htmlOk(
+                    this.started.renderTemplate(
+                        Map.of("id", found.run().id(), "viewer", found.id())
+                    )
+                )
+            )
+            .orElseGet(
+                () -> new Response(
+                    TOO_MANY_REQUESTS,
+                    "Too many test runs in progress, retrying in %d seconds".formatted(
+                        TestRunPage.RETRY
+                    ),
+                    Map.of(
+                        "Content-Type", "text/plain",
+                        "Retry-After", String.valueOf(TestRunPage.RETRY)
+                    )
+                )
+            );
+    }
+
+    /**
+     * Returns the results finished since the specified offset, along with the progress of the run
+     * and the element polling for the next results, if the run is not over yet.
+     *
+     * @param request The request with the run identifier and the number of results already shown.
+     * @return The fragments of the page to be updated.
+     */
+    public Response runResults(final Request request) {
+        final Map<String, String> query = request.requestLine().queryString();
+        final TestRun run = this.runFor(query.getOrDefault("id", ""));
+        final Response result;
+        if (run == null) {
+            result = new Response(NOT_FOUND, "", PLAIN_TEXT);
+        } else {
+            final int offset = TestRunPage.offsetFrom(query.getOrDefault("offset", "0"));
+            final TestRun.Status status = run.status();
+            final List<TestResult> fresh = run.resultsFrom(offset);
+            final StringBuilder body = new StringBuilder();
+            if (status == TestRun.Status.QUEUED || status == TestRun.Status.RUNNING) {
+                body.append(TestRunPage.poller(run.id(), offset + fresh.size()));
+            } else {
+                body.append(
+                    "<caption id=\"test-stats\" hx-swap-oob=\"true\">%s</caption>".formatted(
+                        run.statsAsHtmlDiv()
+                    )
+                ).append(
+                    "<tbody id=\"test-timings\" hx-swap-oob=\"true\">%s</tbody>".formatted(
+                        run.timingsAsHtmlRows()
+                    )
+                );
+            }
+            body.append(
+                "<tbody hx-swap-oob=\"beforeend:#test-results\">%s</tbody>".formatted(
+                    fresh.stream().map(TestResult::asHtmlTableRow).collect(Collectors.joining())
+                )
+            ).append(
+                "<span id=\"test-progress\" hx-swap-oob=\"true\">%s</span>".formatted(
+                    TestRunPage.progress(status, offset + fresh.size(), run.scheduled())
+                )
+            );
+            result = Response.htmlOk(body.toString());
+        }
+        return result;
+    }
+
+    /**
+     * Detaches the viewer from the run, and cancels the run, interrupting the tests being
+     * performed, if no other viewers are left.
+     *
+     * @param request The request with the run and viewer identifiers.
+     * @return The confirmation of the cancellation.
+     */
+    public Response cancelRun(final Request request) {
+        final Map<String, String> query = request.requestLine().queryString();
+        final TestRun run = this.runFor(query.getOrDefault("id", ""));
+        final Response result;
+        if (run == null) {
+            result = new Response(NOT_FOUND, "", PLAIN_TEXT);
+        } else if (run.isOver()) {
+            result = Response.htmlOk("Already over");
+        } else if (run.detach(query.getOrDefault("viewer", ""))) {
+            this.executor.purge();
+            result = Response.htmlOk("Cancelled");
+        } else {
+            result = Response.htmlOk("Stopped watching, the run goes on for the other viewers");
+        }
+        return result;
+    }
+
+    private Optional<Viewer> attachedTo(final String revision) {
+        synchronized (this.runs) {
+            return this.runs.values().stream()
+                .filter(run -> !run.isOver() && run.revision().equals(revision))
+                .findFirst()
+                .flatMap(run -> run.attach().map(viewer -> new Viewer(run, viewer)));
+        }
+    }
+
+    private Optional<Viewer> started(final CheckSuite suite, final String revision) {
+        Optional<Viewer> result;
+        try {
+            final TestRun run = new TestRun(UUID.randomUUID().toString(), suite, revision);
+            final String viewer = run.attach().orElseThrow();
+            run.startIn(this.executor, this.config.parallelism());
+            final Iterator<TestRun> oldest = this.runs.values().iterator();
+            while (this.runs.size() >= TestRunPage.KEPT && oldest.hasNext()) {
+                final TestRun dropped = oldest.next();
+                if (dropped.isOver()) {
+                    oldest.remove();
+                }
+            }
+            this.runs.put(run.id(), run);
+            result = Optional.of(new Viewer(run, viewer));
+        } catch (final RejectedExecutionException exception) {
+            result = Optional.empty();
+        }
+        return result;
+    }
+
+    private TestRun runFor(final String id) {
+        synchronized (this.runs) {
+            return this.runs.get(id);
+        }
+    }
+
+    private CheckSuite suite() {
+        return CheckSuite.using(
+            this.config.csvReader(Path.of(this.config.getRoot(), "tests").toUri()),
+            this.config.getRoot(),
+            this.config.requestLocatorName()
+        );
+    }
+
+    private static String poller(final String id, final int offset) {
+        return new StringBuilder()
+            .append("<div hx-get=\"/test/run?id=%1$s&offset=%2$d\" ")
+            .append("hx-trigger=\"load delay:500ms\" hx-swap=\"outerHTML\"></div>")
+            .toString()
+            .formatted(id, offset);
+    }
+
+    private static String progress(
+        final TestRun.Status status,
+        final int finished,
+        final int scheduled
+    ) {
+        final String result;
+        if (status == TestRun.Status.QUEUED) {
+            result = "Waiting for the other test runs to finish...";
+        } else {
+            result = "%d of %d test(s) finished".formatted(finished, scheduled);
+        }
+        return result;
+    }
+
+    private static int offsetFrom(final String value) {
+        int result;
+        try {
+            result = Math.max(0, Integer.parseInt(value));
+        } catch (final NumberFormatException exception) {
+            result = 0;
+        }
+        return result;
+    }
+
+    /**
+     * I am a viewer attached to a test run.
+     *
+     * @param run The run being viewed.
+     * @param id The identifier of the viewer.
+     * @since 0.4.1
+     */
+    private record Viewer(TestRun run, String id) {
+    }
+}
@@ -24,10 +24,7 @@
 package ru.ewc.checklogic.server;
 
 import com.renomad.minum.web.Response;
-import java.nio.file.Path;
 import java.util.Map;
-import ru.ewc.checklogic.ServerConfiguration;
-import ru.ewc.checklogic.testing.CheckSuite;
 
 /**
  * I am a collection of template processors that render the pages to be served.
@@ -41,32 +38,12 @@ public final class WebPages {
      */
     private final TemplateRender processors;
 
-    /**
-     * The root path for the external business logic resources.
-     */
-    private final String root;
-
-    /**
-     * Server configuration that holds the request locator name.
-     */
-    private final ServerConfiguration config;
-
-    public WebPages(
-        final TemplateRender processors,
-        final String root,
-        final ServerConfiguration config
-    ) {
+    public WebPages(final TemplateRender processors) {
         this.processors = processors;
-        this.root = root;
-        this.config = config;
     }
 
     public static WebPages testable() {
-        return new WebPages(
-            new MockTemplateRender(),
-            "root folder",
-            new ServerConfiguration("root folder")
-        );
+        return new WebPages(new MockTemplateRender());
     }
 
     public Response uninitializedPage() {
@@ -78,34 +55,19 @@ public final class WebPages {
         );
     }
 
+    /**
+     * Renders the test page. The tests are not performed here: the page starts a background run
+     * and fetches its results as they are finished, see {@link TestRunPage}.
+     *
+     * @return The test page.
+     */
     public Response testPage() {
-        final long start = System.currentTimeMillis();
-        final CheckSuite suite = this.createSuiteAndPerformChecks();
-        final double elapsed = (System.currentTimeMillis() - start) / 1000.0;
-        return this.okResponseFor(suite, elapsed);
+        return Response.htmlOk(
+            this.processors.renderInLayout("templates/test.html", Map.of())
+        );
     }
 
     public String renderInLayout(final String template, final Map<String, String> values) {
         return this.processors.renderInLayout(template, values);
     }
-
-    private CheckSuite createSuiteAndPerformChecks() {
-        return CheckSuite.using(
-            this.config.csvReader(Path.of(this.root, "tests").toUri()),
-            this.root,
-            this.config.requestLocatorName()
-        ).perform();
-    }
-
-    private Response okResponseFor(final CheckSuite suite, final double elapsed) {
-        return Response.htmlOk(
-            this.processors.renderInLayout(
-                "templates/test.html",
-                Map.of(
-                    "tests", suite.resultAsHtmlRows(),
-                    "stats", suite.statsAsHtmlDiv(elapsed)
-                )
-            )
-        );
-    }
 }
@@ -56,6 +56,11 @@ public final class ConfigPage implements Endpoints {
      */
     private static final String DELIMITER = "delimiter";
 
+    /**
+     * The name of the configuration parameter that holds the number of threads running the tests.
+     */
+    private static final String PARALLELISM = "parallelism";
+
     /**
      * The configuration of the web server.
      */
@@ -75,8 +80,8 @@ public final class ConfigPage implements Endpoints {
 
     @Override
     public void register(final WebFramework web) {
-        web.registerPath(GET, "config", this::render);
-        web.registerPath(POST, "config", this::update);
+        this.route(web, GET, "config", this::render);
+        this.route(web, POST, "config", this::update);
     }
 
     void updateParametersFrom(final Request request) {
@@ -90,6 +95,9 @@ public final class ConfigPage implements Endpoints {
         if (keys.contains("delimiter") && request.body().asBytes("delimiter").length > 0) {
             this.config.setParameterValue(ConfigPage.DELIMITER, fieldFrom(request, "delimiter"));
         }
+        if (keys.contains("threads") && request.body().asBytes("threads").length > 0) {
+            this.config.setParameterValue(ConfigPage.PARALLELISM, fieldFrom(request, "threads"));
+        }
     }
 
     Response render(final Request request) {
@@ -100,7 +108,8 @@ public final class ConfigPage implements Endpoints {
         return Map.of(
             "commandAvailabilityOutcome", this.config.getParameterValue(ConfigPage.COMMAND),
             "requestLocatorName", this.config.getParameterValue(ConfigPage.REQUEST),
-            "tableDelimiter", this.config.getParameterValue(ConfigPage.DELIMITER)
+            "tableDelimiter", this.config.getParameterValue(ConfigPage.DELIMITER),
+            "testThreads", this.config.getParameterValue(ConfigPage.PARALLELISM)
         );
     }
 
@@ -24,5 +24,54 @@
 
 package ru.ewc.checklogic.testing;
 
+/**
+ * I am a single failed expectation of a test.
+ *
+ * @param expectation The expected value, as specified in the test.
+ * @param actual The actual value, or the reason of the failure.
+ * @since 0.4.1
+ */
 public record CheckFailure(String expectation, String actual) {
+    /**
+     * Describes the failure as an HTML list item.
+     *
+     * @return The failure description to be rendered on a web page.
+     */
+    public String asHtml() {
+        return "<li>Expected: <kbd>%s</kbd>, but got: <kbd>%s</kbd></li>".formatted(
+            this.expected(),
+            this.received()
+        );
+    }
+
+    /**
+     * Describes the failure as plain text.
+     *
+     * @return The failure description to be used in machine-readable reports.
+     */
+    public String asText() {
+        return "Expected: %s, but got: %s".formatted(this.expected(), this.received());
+    }
+
+    /**
+     * The expected value without the constant locator prefixes.
+     *
+     * @return The expected value to be shown to the user.
+     */
+    public String expected() {
+        return CheckFailure.clearConstants(this.expectation);
+    }
+
+    /**
+     * The actual value without the constant locator prefixes and computation details.
+     *
+     * @return The actual value to be shown to the user.
+     */
+    public String received() {
+        return CheckFailure.clearConstants(this.actual.split("=")[0]);
+    }
+
+    private static String clearConstants(final String expectation) {
+        return expectation.replaceAll("constant::", "");
+    }
 }
@@ -23,9 +23,15 @@
  */
 package ru.ewc.checklogic.testing;
 
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Callable;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import lombok.Getter;
 import ru.ewc.checklogic.ServerContextFactory;
 import ru.ewc.decisions.api.ComputationContext;
@@ -71,35 +77,127 @@ public final class CheckFile {
         this.request = request;
     }
 
-    public List<TestResult> performChecks(final String root, final CheckSuite files) {
+    /**
+     * Prepares all the checks in this file to be performed. Every check is independent of the
+     * others and creates its own computation context, so they can be run in any order and in
+     * parallel.
+     *
+     * @param contexts The factory to create the computation contexts for the checks.
+     * @param files The suite that contains this file, used to resolve included files.
+     * @param cache The cache to take the results of unchanged checks from.
+     * @return The list of checks, in the same order as they are specified in the file.
+     */
+    public List<Callable<TestResult>> checks(
+        final ServerContextFactory contexts,
+        final CheckSuite files,
+        final ResultCache cache
+    ) {
         this.suite = files;
         return this.tests.stream()
             .filter(rule -> rule.getFragments().stream().anyMatch(f -> f.nonEmptyOfType("CND")))
-            .map(
-                rule -> {
-                    final long start = System.currentTimeMillis();
-                    final ComputationContext context = ServerContextFactory.create(root).context();
-                    final long elapsed = System.currentTimeMillis() - start;
-                    return this.getTestResult(rule, context, elapsed);
-                }
-            ).toList();
+            .map(rule -> (Callable<TestResult>) () -> this.cachedCheck(contexts, rule, cache))
+            .toList();
+    }
+
+    /**
+     * Collects all the values referenced by the tests in this file, i.e. coordinates, commands and
+     * included files.
+     *
+     * @return The set of the left and right parts of all the test fragments.
+     */
+    public Set<String> references() {
+        return this.tests.stream()
+            .flatMap(rule -> rule.getFragments().stream())
+            .flatMap(fragment -> Stream.of(fragment.left(), fragment.right()))
+            .collect(Collectors.toSet());
     }
 
-    public void performInSameContext(final ComputationContext ctx, final CheckSuite files) {
+    /**
+     * Performs the first test of this file in the specified context, as a part of another test.
+     *
+     * @param ctx The context of the test including this file.
+     * @param files The suite that contains this file, used to resolve included files.
+     * @return The result of the performed test, with the events logged while performing it.
+     */
+    public TestResult performInSameContext(final ComputationContext ctx, final CheckSuite files) {
         this.suite = files;
-        this.getTestResult(this.tests.getFirst(), ctx, 0);
+        return this.getTestResult(
+            this.tests.getFirst(),
+            ctx,
+            0,
+            CheckFile.cpuTime(),
+            PhaseTimings.current()
+        );
+    }
+
+    private TestResult cachedCheck(
+        final ServerContextFactory contexts,
+        final RuleFragments rule,
+        final ResultCache cache
+    ) {
+        final String key = this.keyOf(rule);
+        return cache.cached(key).orElseGet(
+            () -> {
+                final TestResult result = this.isolatedCheck(contexts, rule);
+                cache.store(key, result, CheckFile.namesFor(rule, result));
+                return result;
+            }
+        );
+    }
+
+    private String keyOf(final RuleFragments rule) {
+        return DiskResultCache.hash(
+            Stream.concat(
+                Stream.of(this.file, this.request, rule.header()),
+                rule.getFragments().stream().map(
+                    fragment -> "%s;%s;%s".formatted(
+                        fragment.type(),
+                        fragment.left(),
+                        fragment.right()
+                    )
+                )
+            ).collect(Collectors.joining("\n"))
+        );
+    }
+
+    private static Set<String> namesFor(final RuleFragments rule, final TestResult result) {
+        return Stream.concat(
+            rule.getFragments().stream()
+                .flatMap(fragment -> Stream.of(fragment.left(), fragment.right())),
+            result.log().stream()
+        ).flatMap(text -> CheckSuite.namesIn(text).stream()).collect(Collectors.toSet());
+    }
+
+    private TestResult isolatedCheck(
+        final ServerContextFactory contexts,
+        final RuleFragments rule
+    ) {
+        final PhaseTimings timings = PhaseTimings.bound();
+        try {
+            final long cpu = CheckFile.cpuTime();
+            final long start = System.nanoTime();
+            final ComputationContext context = contexts.context();
+            final long elapsed = System.nanoTime() - start;
+            timings.record(Phase.CONTEXT, elapsed);
+            return this.getTestResult(rule, context, elapsed, cpu, timings);
+        } finally {
+            timings.unbind();
+        }
     }
 
     private TestResult getTestResult(
         final RuleFragments rule,
         final ComputationContext ctx,
-        final long time
+        final long time,
+        final long cpu,
+        final PhaseTimings timings
     ) {
         logCheckpoint(ctx, "%s - started".formatted(rule.header()));
-        final long start = System.currentTimeMillis();
+        final long start = System.nanoTime();
         final OutputTracker<String> tracker = ctx.startTracking();
         final List<CheckFailure> failures = new ArrayList<>(1);
         for (final RuleFragment fragment : rule.getFragments()) {
+            final long began = System.nanoTime();
             if (fragment.nonEmptyOfType("CND")) {
                 final Condition check = Condition.from(fragment);
                 try {
@@ -114,23 +212,29 @@ public final class CheckFile {
                         )
                     );
                 }
+                timings.record(Phase.CONDITION, System.nanoTime() - began);
             } else {
                 try {
                     this.perform(fragment, ctx);
                 } catch (final DecitaException | IllegalArgumentException exception) {
                     failures.add(new CheckFailure("", exception.getMessage()));
                 }
+                CheckFile.phaseOf(fragment).ifPresent(
+                    phase -> timings.record(phase, System.nanoTime() - began)
+                );
             }
         }
         logCheckpoint(ctx, "%s - %s".formatted(rule.header(), CheckFile.desc(failures)));
-        final long elapsed = System.currentTimeMillis() - start;
+        final long elapsed = System.nanoTime() - start;
         return new TestResult(
             rule.header().replace("::", " - "),
             failures.isEmpty(),
-            resultAsUnorderedList(failures),
+            List.copyOf(failures),
             tracker.events(),
             time,
-            elapsed
+            elapsed,
+            CheckFile.cpuTime() - cpu,
+            timings
         );
     }
 
@@ -153,6 +257,20 @@ public final class CheckFile {
         }
     }
 
+    private static Optional<Phase> phaseOf(final RuleFragment fragment) {
+        final Optional<Phase> result;
+        if ("ASG".equals(fragment.type())) {
+            result = Optional.of(Phase.ASSIGNMENT);
+        } else if ("EXE".equals(fragment.type()) && "command".equals(fragment.left())) {
+            result = Optional.of(Phase.COMMAND);
+        } else if ("EXE".equals(fragment.type()) && "include".equals(fragment.left())) {
+            result = Optional.of(Phase.INCLUDE);
+        } else {
+            result = Optional.empty();
+        }
+        return result;
+    }
+
     private static String desc(final List<CheckFailure> messages) {
         final String result;
         if (messages.isEmpty()) {
@@ -163,28 +281,18 @@ public final class CheckFile {
         return result;
     }
 
-    private static void logCheckpoint(final ComputationContext context, final String formatted) {
-        context.logComputation(OutputTracker.EventType.CH, formatted);
-    }
-
-    private static String resultAsUnorderedList(final List<CheckFailure> failures) {
-        return "<ul>%s</ul>".formatted(String.join("", checkFailureAsHtml(failures)));
-    }
-
-    private static String checkFailureAsHtml(final List<CheckFailure> failures) {
-        return failures.stream()
-            .map(CheckFile::formattedDescriptionFor)
-            .collect(Collectors.joining());
-    }
-
-    private static String formattedDescriptionFor(final CheckFailure failure) {
-        return "<li>Expected: <kbd>%s</kbd>, but got: <kbd>%s</kbd></li>".formatted(
-            CheckFile.clearConstants(failure.expectation()),
-            CheckFile.clearConstants(failure.actual().split("=")[0])
-        );
+    private static long cpuTime() {
+        final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        final long result;
+        if (threads.isCurrentThreadCpuTimeSupported()) {
+            result = threads.getCurrentThreadCpuTime();
+        } else {
+            result = 0L;
+        }
+        return result;
     }
 
-    private static String clearConstants(final String expectation) {
-        return expectation.replaceAll("constant::", "");
+    private static void logCheckpoint(final ComputationContext context, final String formatted) {
+        context.logComputation(OutputTracker.EventType.CH, formatted);
     }
 }
@@ -24,11 +24,34 @@
 
 package ru.ewc.checklogic.testing;
 
+import java.nio.file.Path;
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
+import ru.ewc.checklogic.Metrics;
+import ru.ewc.checklogic.ServerConfiguration;
+import ru.ewc.checklogic.ServerContextFactory;
 import ru.ewc.decisions.api.ComputationContext;
 import ru.ewc.decisions.input.ContentsReader;
 
@@ -40,16 +63,46 @@ import ru.ewc.decisions.input.ContentsReader;
  */
 @SuppressWarnings("PMD.ProhibitPublicStaticMethods")
 public final class CheckSuite {
+    /**
+     * The longest time to wait for a check before checking its time budget again, in nanoseconds.
+     */
+    private static final long POLL = TimeUnit.MILLISECONDS.toNanos(100);
+
+    /**
+     * The performed tests, by result.
+     */
+    private static final Metrics.Labelled<Metrics.Counter> PERFORMED = Metrics.SHARED.counters(
+        "checker_tests_total",
+        "Tests performed, by result",
+        "result"
+    );
+
     /**
      * Collection of test files, each containing multiple tests and outcomes.
      */
     private final Collection<CheckFile> tests;
 
+    /**
+     * Test files indexed by their names, to quickly find the included ones.
+     */
+    private final Map<String, CheckFile> index;
+
+    /**
+     * The memoized outcomes of the included files, keyed by the file name and the state it was
+     * included in.
+     */
+    private final ConcurrentMap<String, IncludeSnapshot> snapshots;
+
     /**
      * Collection of test results.
      */
     private final List<TestResult> results;
 
+    /**
+     * Test results grouped by the name of the file they were specified in.
+     */
+    private final Map<String, List<TestResult>> outcomes;
+
     /**
      * The root directory of the business logic source files.
      */
@@ -60,11 +113,26 @@ public final class CheckSuite {
      */
     private final long reading;
 
+    /**
+     * The cache to take the results of unchanged checks from.
+     */
+    private ResultCache cache;
+
+    /**
+     * The number of checks scheduled by the latest run.
+     */
+    private volatile int scheduled;
+
     private CheckSuite(final Collection<CheckFile> tests, final String root, final long reading) {
         this.tests = tests;
+        this.index = new HashMap<>();
+        tests.forEach(test -> this.index.putIfAbsent(test.getFile(), test));
+        this.snapshots = new ConcurrentHashMap<>();
         this.results = new ArrayList<>(tests.size());
+        this.outcomes = new LinkedHashMap<>();
         this.root = root;
         this.reading = reading;
+        this.cache = ResultCache.NONE;
     }
 
     public static CheckSuite using(
@@ -80,40 +148,427 @@ public final class CheckSuite {
         return new CheckSuite(files, root, elapsed);
     }
 
+    /**
+     * Reads all the test files of the project.
+     *
+     * @param config The configuration of the project.
+     * @return The suite of all the tests in the {@code tests} folder of the project.
+     */
+    public static CheckSuite of(final ServerConfiguration config) {
+        return CheckSuite.using(
+            config.csvReader(Path.of(config.getRoot(), "tests").toUri()),
+            config.getRoot(),
+            config.requestLocatorName()
+        );
+    }
+
+    /**
+     * Makes the suite take the results of the checks that were not changed since their previous
+     * run from the specified cache, and store the results of all the performed checks there.
+     *
+     * @param results The cache of the results.
+     * @return Itself, using the specified cache.
+     */
+    public CheckSuite cachedIn(final ResultCache results) {
+        this.cache = results;
+        return this;
+    }
+
     public String statsAsHtmlDiv(final double elapsed) {
+        return this.statsAsText(elapsed).replace("\n", "</br>\n").concat("\n");
+    }
+
+    /**
+     * Summarizes the latest run as plain text, for the console.
+     *
+     * @param elapsed The wall time of the run, in seconds.
+     * @return The summary, one statistic per line, without the trailing line break.
+     */
+    public String statsAsText(final double elapsed) {
         return """
-            %d test(s) performed in %.3f second(s) (read time: %.3f), %d passed, %d failed</br>
-            %d milliseconds spent creating context, %d milliseconds spent in the tests
+            %d test(s) performed in %.3f second(s) (read time: %.3f), %d passed, %d failed
+            %.3f milliseconds spent creating context, %.3f milliseconds spent in the tests
+            %.3f second(s) of CPU time summed over all the tests (%.1fx the wall time)\
             """.formatted(
             this.results.size(),
             elapsed,
             this.reading / 1000.0,
             this.results.stream().filter(TestResult::successful).count(),
             this.results.stream().filter(result -> !result.successful()).count(),
-            this.results.stream().reduce(0L, (acc, result) -> acc + result.context(), Long::sum),
-            this.results.stream().reduce(0L, (acc, result) -> acc + result.elapsed(), Long::sum)
+            this.results.stream().mapToLong(TestResult::context).sum() / 1_000_000.0,
+            this.results.stream().mapToLong(TestResult::elapsed).sum() / 1_000_000.0,
+            this.cpuSeconds(),
+            this.cpuSeconds() / Math.max(elapsed, 0.001)
         );
     }
 
     public CheckSuite perform() {
-        this.results.addAll(this.tests.stream()
-            .map(test -> test.performChecks(this.root, this))
-            .flatMap(List::stream)
-            .toList()
+        return this.perform(1);
+    }
+
+    /**
+     * Performs all the checks using the specified number of threads. The decision tables are
+     * parsed once per run, and each check runs in its own computation context built from them. The
+     * results are collected in the order the checks are specified in, regardless of the order they
+     * finished in.
+     *
+     * @param threads The degree of parallelism, i.e. the number of checks run simultaneously.
+     * @return Itself, with the results of all the checks collected.
+     */
+    public CheckSuite perform(final int threads) {
+        return this.perform(threads, result -> { });
+    }
+
+    /**
+     * Performs all the checks using the specified number of threads, notifying the listener as soon
+     * as each check is finished.
+     *
+     * @param threads The degree of parallelism, i.e. the number of checks run simultaneously.
+     * @param listener The listener to be notified about each result, called from the worker
+     *  threads, so it has to be thread-safe.
+     * @return Itself, with the results of all the checks collected.
+     */
+    public CheckSuite perform(final int threads, final Consumer<TestResult> listener) {
+        return this.perform(threads, listener, file -> true);
+    }
+
+    /**
+     * Performs the checks from the selected files only, using the specified number of threads and
+     * notifying the listener as soon as each check is finished.
+     *
+     * <p>Every check has a time budget ({@code testTimeoutSeconds}), and the whole run may have
+     * one too ({@code suiteTimeoutSeconds}). A check exceeding the budget is interrupted and
+     * reported as timed out, and the run continues with the rest. As a check might not react to
+     * the interruption, e.g. being stuck in a command cycle, it is then abandoned, and another
+     * thread is added to keep the degree of parallelism.</p>
+     *
+     * @param threads The degree of parallelism, i.e. the number of checks run simultaneously.
+     * @param listener The listener to be notified about each result, called from the worker
+     *  threads, so it has to be thread-safe.
+     * @param selected The predicate selecting the test files to be performed by their names.
+     * @return Itself, with the results of the selected checks collected.
+     */
+    public CheckSuite perform(
+        final int threads,
+        final Consumer<TestResult> listener,
+        final Predicate<String> selected
+    ) {
+        try (ServerContextFactory contexts = ServerContextFactory.create(this.root)) {
+            return this.perform(contexts, threads, listener, selected);
+        }
+    }
+
+    /**
+     * Performs the checks from the selected files only in the contexts created by the specified
+     * factory, so the project files are not read again for every run.
+     *
+     * @param contexts The factory of the contexts to perform the checks in, left open.
+     * @param threads The degree of parallelism, i.e. the number of checks run simultaneously.
+     * @param listener The listener to be notified about each result, called from the worker
+     *  threads, so it has to be thread-safe.
+     * @param selected The predicate selecting the test files to be performed by their names.
+     * @return Itself, with the results of the selected checks collected.
+     * @see #perform(int, Consumer, Predicate)
+     */
+    public CheckSuite perform(
+        final ServerContextFactory contexts,
+        final int threads,
+        final Consumer<TestResult> listener,
+        final Predicate<String> selected
+    ) {
+        final long start = System.nanoTime();
+        final ServerConfiguration config = contexts.configuration();
+        this.snapshots.clear();
+        final List<String> sources = new ArrayList<>(this.tests.size());
+        final List<TimedCheck> checks = new ArrayList<>(this.tests.size());
+        for (final CheckFile test : this.tests) {
+            if (selected.test(test.getFile())) {
+                for (final Callable<TestResult> check : test.checks(contexts, this, this.cache)) {
+                    sources.add(test.getFile());
+                    checks.add(new TimedCheck(CheckSuite.notifying(check, listener)));
+                }
+            }
+        }
+        this.scheduled = checks.size();
+        final ThreadPoolExecutor executor = new ThreadPoolExecutor(
+            Math.max(1, threads),
+            Math.max(1, threads),
+            0L,
+            TimeUnit.MILLISECONDS,
+            new LinkedBlockingQueue<>(),
+            Thread.ofPlatform().name("check-", 0).daemon().factory()
         );
+        try {
+            final List<Future<TestResult>> futures = checks.stream().map(executor::submit).toList();
+            final long deadline = config.suiteTimeout()
+                .map(budget -> start + budget.toNanos())
+                .orElse(Long.MAX_VALUE);
+            for (int idx = 0; idx < futures.size(); idx += 1) {
+                final TestResult result = CheckSuite.awaited(
+                    futures.get(idx),
+                    checks.get(idx),
+                    sources.get(idx),
+                    config,
+                    deadline,
+                    executor
+                );
+                if (result.timedOut()) {
+                    listener.accept(result);
+                }
+                CheckSuite.PERFORMED.of(result.result()).increment();
+                this.results.add(result);
+                this.outcomes.computeIfAbsent(sources.get(idx), file -> new ArrayList<>(1))
+                    .add(result);
+            }
+        } catch (final InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Test run was interrupted", exception);
+        } catch (final ExecutionException exception) {
+            throw new IllegalStateException("Test run failed", exception.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+        Metrics.SHARED.histogram(
+            "checker_test_run_duration_seconds",
+            "Latency of the test suite runs"
+        ).observeSince(start);
         return this;
     }
 
+    /**
+     * Returns the number of checks scheduled by the latest run, known as soon as the run starts.
+     *
+     * @return The number of checks to be performed, or 0 if the run was not started yet.
+     */
+    public int scheduled() {
+        return this.scheduled;
+    }
+
+    /**
+     * Performs the specified test file in the given context, as if its contents were a part of the
+     * test including it. The outcome of every include is memoized, so including the same file into
+     * a context with the same state again just applies the changes it made the first time.
+     *
+     * @param file The name of the included test file.
+     * @param ctx The context to perform the file in.
+     */
     public void findAndPerform(final String file, final ComputationContext ctx) {
-        this.tests.stream().filter(test -> file.equals(test.getFile()))
-            .findFirst()
-            .ifPresent(test -> test.performInSameContext(ctx, this));
+        final CheckFile test = this.index.get(file);
+        if (test != null) {
+            final Map<String, Map<String, Object>> before = IncludeSnapshot.copyOf(
+                ctx.storedState()
+            );
+            final String key = IncludeSnapshot.keyOf(file, before);
+            final IncludeSnapshot snapshot = this.snapshots.get(key);
+            if (snapshot == null) {
+                final TestResult result = test.performInSameContext(ctx, this);
+                IncludeSnapshot.between(before, ctx.storedState(), result.log())
+                    .ifPresent(created -> this.snapshots.putIfAbsent(key, created));
+            } else {
+                snapshot.applyTo(ctx);
+            }
+        }
     }
 
     public List<String> checkNames() {
         return this.tests.stream().map(CheckFile::getFile).toList();
     }
 
+    /**
+     * Returns the results of the performed checks grouped by the names of the test files.
+     *
+     * @return The results of the performed checks for every test file that had any.
+     */
+    public Map<String, List<TestResult>> resultsByFile() {
+        return new LinkedHashMap<>(this.outcomes);
+    }
+
+    /**
+     * Collects the names every test file depends on: the tables, commands, functions, locators and
+     * included files it references directly, or that were touched while performing its checks.
+     *
+     * @return The sets of names, keyed by the test file name.
+     */
+    public Map<String, Set<String>> dependencies() {
+        final Map<String, Set<String>> result = new LinkedHashMap<>();
+        for (final CheckFile test : this.tests) {
+            final Set<String> names = new HashSet<>();
+            test.references().forEach(reference -> names.addAll(CheckSuite.namesIn(reference)));
+            this.outcomes.getOrDefault(test.getFile(), List.of()).stream()
+                .flatMap(outcome -> outcome.log().stream())
+                .forEach(event -> names.addAll(CheckSuite.namesIn(event)));
+            result.put(test.getFile(), names);
+        }
+        return result;
+    }
+
+    /**
+     * Checks whether all the performed checks were successful.
+     *
+     * @return True if there were no failed checks.
+     */
+    public boolean successful() {
+        return this.results.stream().allMatch(TestResult::successful);
+    }
+
+    /**
+     * Waits for the result of the check, as long as neither the check nor the suite exceed their
+     * time budgets.
+     *
+     * @param future The pending result of the check.
+     * @param check The check being performed.
+     * @param file The name of the file the check is specified in.
+     * @param config The configuration with the time budgets.
+     * @param deadline The moment the suite exceeds its time budget, in nanoseconds.
+     * @param executor The executor performing the checks.
+     * @return The result of the check, or the timeout if it was abandoned.
+     * @throws InterruptedException If the run was interrupted.
+     * @throws ExecutionException If the check failed unexpectedly.
+     */
+    private static TestResult awaited(
+        final Future<TestResult> future,
+        final TimedCheck check,
+        final String file,
+        final ServerConfiguration config,
+        final long deadline,
+        final ThreadPoolExecutor executor
+    ) throws InterruptedException, ExecutionException {
+        final Duration budget = config.testTimeout();
+        TestResult result = null;
+        while (result == null) {
+            final long now = System.nanoTime();
+            final long own = check.deadline(budget);
+            if (now >= own || now >= deadline) {
+                result = CheckSuite.abandoned(future, check, executor, now >= deadline).orElseGet(
+                    () -> {
+                        final TestResult timeout;
+                        if (now >= own) {
+                            timeout = TestResult.timeout(file, budget, "Test", check.elapsed());
+                        } else {
+                            timeout = TestResult.timeout(
+                                file,
+                                config.suiteTimeout().orElse(Duration.ZERO),
+                                "Test suite",
+                                check.elapsed()
+                            );
+                        }
+                        return timeout;
+                    }
+                );
+            } else {
+                try {
+                    result = future.get(
+                        Math.min(CheckSuite.POLL, Math.min(own, deadline) - now),
+                        TimeUnit.NANOSECONDS
+                    );
+                } catch (final TimeoutException exception) {
+                    result = null;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Interrupts the check exceeding its time budget. If the check could still be running
+     * afterwards, the executor gets another thread instead of the one that might be stuck. Once
+     * the whole suite is over its budget, the checks still waiting in the queue are cancelled
+     * first, and no threads are added, as there is nothing left for them to do.
+     *
+     * @param future The pending result of the check.
+     * @param check The check being performed.
+     * @param executor The executor performing the checks.
+     * @param overdue Whether the suite exceeded its time budget.
+     * @return The result of the check, if it managed to finish before being interrupted.
+     * @throws InterruptedException If the run was interrupted.
+     * @throws ExecutionException If the check failed unexpectedly.
+     */
+    private static Optional<TestResult> abandoned(
+        final Future<TestResult> future,
+        final TimedCheck check,
+        final ThreadPoolExecutor executor,
+        final boolean overdue
+    ) throws InterruptedException, ExecutionException {
+        if (overdue) {
+            final List<Runnable> queued = new ArrayList<>(executor.getQueue().size());
+            executor.getQueue().drainTo(queued);
+            queued.forEach(task -> ((Future<?>) task).cancel(false));
+        }
+        final boolean running = check.isRunning();
+        final Optional<TestResult> result;
+        if (future.isCancelled() || future.cancel(true)) {
+            result = Optional.empty();
+            if (running && !overdue) {
+                executor.setMaximumPoolSize(executor.getMaximumPoolSize() + 1);
+                executor.setCorePoolSize(executor.getCorePoolSize() + 1);
+            }
+            Metrics.SHARED.counter(
+                "checker_tests_abandoned_total",
+                "Tests interrupted for exceeding their time budget"
+            ).increment();
+        } else {
+            result = Optional.of(future.get());
+        }
+        return result;
+    }
+
+    private static Callable<TestResult> notifying(
+        final Callable<TestResult> check,
+        final Consumer<TestResult> listener
+    ) {
+        return () -> {
+            final TestResult result = check.call();
+            if (!Thread.currentThread().isInterrupted()) {
+                listener.accept(result);
+            }
+            return result;
+        };
+    }
+
+    static List<String> namesIn(final String text) {
+        return Arrays.stream(text.split("[^\\w.-]+")).filter(name -> !name.isEmpty()).toList();
+    }
+
+    private double cpuSeconds() {
+        return this.results.stream().mapToLong(TestResult::cpu).sum() / 1_000_000_000.0;
+    }
+
+    /**
+     * Aggregates the durations of the operations of all the performed checks by phase.
+     *
+     * @return The latency distributions of the phases that had any operations.
+     */
+    public List<LatencyHistogram> histograms() {
+        return Arrays.stream(Phase.values())
+            .map(
+                phase -> new LatencyHistogram(
+                    phase,
+                    this.results.stream()
+                        .flatMap(result -> result.phases().samples(phase).stream())
+                        .toList()
+                )
+            )
+            .filter(histogram -> histogram.count() > 0)
+            .toList();
+    }
+
+    public String timingsAsHtmlRows() {
+        return this.histograms().stream()
+            .map(LatencyHistogram::asHtmlTableRow)
+            .collect(Collectors.joining());
+    }
+
+    /**
+     * Describes the latency distributions of all the phases as a JSON object.
+     *
+     * @return The JSON object with the phase names as keys.
+     */
+    public String timingsAsJson() {
+        return this.histograms().stream()
+            .map(LatencyHistogram::asJson)
+            .collect(Collectors.joining(",\n  ", "{\n  ", "\n}\n"));
+    }
+
     public String resultAsHtmlRows() {
         return this.results.stream()
             .sorted(Comparator.naturalOrder())
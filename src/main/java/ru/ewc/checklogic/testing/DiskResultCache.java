@@ -0,0 +1,324 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Decision-Driven Development
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package ru.ewc.checklogic.testing;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * I am a test results cache kept on disk between the runs, one small properties file per test. My
+ * main responsibility is to tell whether a cached result is still valid: every entry keeps the
+ * names its test depended on, together with the hash of all the project files having those names
+ * at the time the test was performed. The whole {@code functions} folder and the
+ * {@code application.yaml} file are treated as dependencies of every test, since the functions
+ * can call each other and the configuration affects every computation.
+ *
+ * <p>The number of entries is bounded: every hit touches the entry, and the least recently used
+ * entries are deleted when the cache is closed.</p>
+ *
+ * @since 0.4.1
+ */
+@SuppressWarnings("PMD.ProhibitPublicStaticMethods")
+public final class DiskResultCache implements ResultCache {
+    /**
+     * The folders with the project sources the tests can depend on.
+     */
+    private static final List<String> FOLDERS = List.of("tables", "commands", "functions", "tests");
+
+    /**
+     * The extension of the cache entry files.
+     */
+    private static final String EXTENSION = ".properties";
+
+    /**
+     * The folder to keep the cache entries in.
+     */
+    private final Path folder;
+
+    /**
+     * The project root folder.
+     */
+    private final Path root;
+
+    /**
+     * The maximum number of entries to keep.
+     */
+    private final int capacity;
+
+    /**
+     * The project source files, grouped by their names without extensions.
+     */
+    private final Map<String, List<Path>> sources;
+
+    /**
+     * The hashes of the project files, computed at most once per run.
+     */
+    private final ConcurrentMap<Path, String> hashes;
+
+    private DiskResultCache(
+        final Path folder,
+        final Path root,
+        final int capacity,
+        final Map<String, List<Path>> sources
+    ) {
+        this.folder = folder;
+        this.root = root;
+        this.capacity = capacity;
+        this.sources = sources;
+        this.hashes = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Opens the cache for a single test run. The project files are listed once, so the files
+     * created or deleted during the run are not taken into account until the next one.
+     *
+     * @param folder The folder to keep the cache entries in, created if it does not exist.
+     * @param root The project root folder.
+     * @param capacity The maximum number of entries to keep.
+     * @return The cache ready to be used.
+     */
+    public static DiskResultCache open(final Path folder, final Path root, final int capacity) {
+        try {
+            Files.createDirectories(folder);
+            final Map<String, List<Path>> sources = new ConcurrentHashMap<>();
+            for (final String name : DiskResultCache.FOLDERS) {
+                final Path sub = root.resolve(name);
+                if (Files.isDirectory(sub)) {
+                    try (Stream<Path> files = Files.walk(sub)) {
+                        files.filter(Files::isRegularFile).sorted().forEach(
+                            file -> sources.computeIfAbsent(
+                                DiskResultCache.baseName(file),
+                                key -> new ArrayList<>(1)
+                            ).add(file)
+                        );
+                    }
+                }
+            }
+            return new DiskResultCache(folder, root, Math.max(1, capacity), sources);
+        } catch (final IOException exception) {
+            throw new IllegalStateException("Failed to open the test results cache", exception);
+        }
+    }
+
+    /**
+     * Computes the hash of a text, to be used as a cache key.
+     *
+     * @param text The text to compute the hash of.
+     * @return The hexadecimal SHA-256 hash.
+     */
+    public static String hash(final String text) {
+        return DiskResultCache.hash(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public Optional<TestResult> cached(final String key) {
+        final Path entry = this.folder.resolve(key + DiskResultCache.EXTENSION);
+        Optional<TestResult> result = Optional.empty();
+        if (Files.isRegularFile(entry)) {
+            final Properties props = new Properties();
+            try (InputStream input = Files.newInputStream(entry)) {
+                props.load(input);
+                final String names = props.getProperty("names", "");
+                if (this.fingerprint(DiskResultCache.namesFrom(names))
+                    .equals(props.getProperty("fingerprint"))) {
+                    Files.setLastModifiedTime(
+                        entry,
+                        FileTime.fromMillis(System.currentTimeMillis())
+                    );
+                    result = Optional.of(DiskResultCache.resultFrom(props));
+                }
+            } catch (final IOException | IllegalArgumentException exception) {
+                result = Optional.empty();
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public void store(final String key, final TestResult result, final Set<String> names) {
+        final Properties props = new Properties();
+        props.setProperty("names", String.join(",", new TreeSet<>(names)));
+        props.setProperty("fingerprint", this.fingerprint(names));
+        props.setProperty("file", result.file());
+        props.setProperty("successful", String.valueOf(result.successful()));
+        props.setProperty("failures", String.valueOf(result.failures().size()));
+        for (int idx = 0; idx < result.failures().size(); idx += 1) {
+            final CheckFailure failure = result.failures().get(idx);
+            props.setProperty("failure.%d.expected".formatted(idx), failure.expectation());
+            props.setProperty("failure.%d.actual".formatted(idx), failure.actual());
+        }
+        props.setProperty("log", String.valueOf(result.log().size()));
+        for (int idx = 0; idx < result.log().size(); idx += 1) {
+            props.setProperty("log.%d".formatted(idx), result.log().get(idx));
+        }
+        try {
+            final Path temp = Files.createTempFile(this.folder, key, ".tmp");
+            try (OutputStream output = Files.newOutputStream(temp)) {
+                props.store(output, null);
+            }
+            Files.move(
+                temp,
+                this.folder.resolve(key + DiskResultCache.EXTENSION),
+                StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE
+            );
+        } catch (final IOException exception) {
+            throw new IllegalStateException("Failed to store the cached test result", exception);
+        }
+    }
+
+    /**
+     * Deletes the least recently used entries exceeding the capacity of the cache.
+     */
+    @Override
+    public void close() {
+        try (Stream<Path> files = Files.list(this.folder)) {
+            final List<Path> entries = files
+                .filter(file -> file.getFileName().toString().endsWith(DiskResultCache.EXTENSION))
+                .sorted(Comparator.comparing(DiskResultCache::modified).reversed())
+                .toList();
+            final int kept = Math.min(this.capacity, entries.size());
+            for (final Path stale : entries.subList(kept, entries.size())) {
+                Files.deleteIfExists(stale);
+            }
+        } catch (final IOException exception) {
+            throw new IllegalStateException("Failed to prune the test results cache", exception);
+        }
+    }
+
+    private String fingerprint(final Set<String> names) {
+        final String files = Stream.concat(
+                names.stream().flatMap(name -> this.sources.getOrDefault(name, List.of()).stream()),
+                this.sources.values().stream()
+                    .flatMap(List::stream)
+                    .filter(file -> file.startsWith(this.root.resolve("functions")))
+            )
+            .distinct()
+            .map(file -> "%s=%s".formatted(this.root.relativize(file), this.hashOf(file)))
+            .sorted()
+            .collect(Collectors.joining("\n"));
+        return DiskResultCache.hash(
+            "%s\n%s".formatted(files, this.hashOf(this.root.resolve("application.yaml")))
+        );
+    }
+
+    private String hashOf(final Path file) {
+        return this.hashes.computeIfAbsent(
+            file,
+            path -> {
+                String result;
+                try {
+                    result = DiskResultCache.hash(Files.readAllBytes(path));
+                } catch (final IOException exception) {
+                    result = "absent";
+                }
+                return result;
+            }
+        );
+    }
+
+    private static TestResult resultFrom(final Properties props) {
+        final List<CheckFailure> failures = new ArrayList<>(1);
+        for (int idx = 0; idx < Integer.parseInt(props.getProperty("failures")); idx += 1) {
+            failures.add(
+                new CheckFailure(
+                    props.getProperty("failure.%d.expected".formatted(idx)),
+                    props.getProperty("failure.%d.actual".formatted(idx))
+                )
+            );
+        }
+        final List<String> log = new ArrayList<>(0);
+        for (int idx = 0; idx < Integer.parseInt(props.getProperty("log")); idx += 1) {
+            log.add(props.getProperty("log.%d".formatted(idx)));
+        }
+        return new TestResult(
+            props.getProperty("file"),
+            Boolean.parseBoolean(props.getProperty("successful")),
+            List.copyOf(failures),
+            List.copyOf(log),
+            0L,
+            0L,
+            0L,
+            new PhaseTimings()
+        );
+    }
+
+    private static Set<String> namesFrom(final String names) {
+        return Arrays.stream(names.split(","))
+            .filter(name -> !name.isEmpty())
+            .collect(Collectors.toSet());
+    }
+
+    private static FileTime modified(final Path file) {
+        FileTime result;
+        try {
+            result = Files.getLastModifiedTime(file);
+        } catch (final IOException exception) {
+            result = FileTime.fromMillis(0L);
+        }
+        return result;
+    }
+
+    private static String baseName(final Path path) {
+        final String name = path.getFileName().toString();
+        final int dot = name.lastIndexOf('.');
+        final String result;
+        if (dot > 0) {
+            result = name.substring(0, dot);
+        } else {
+            result = name;
+        }
+        return result;
+    }
+
+    private static String hash(final byte[] bytes) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+        } catch (final NoSuchAlgorithmException exception) {
+            throw new IllegalStateException("SHA-256 is not supported", exception);
+        }
+    }
+}
@@ -24,11 +24,9 @@
 package ru.ewc.checklogic.testing;
 
 import groovy.lang.Binding;
-import groovy.util.GroovyScriptEngine;
-import java.net.URL;
 import java.nio.file.Path;
 import java.util.HashMap;
-import lombok.SneakyThrows;
+import ru.ewc.checklogic.Metrics;
 import ru.ewc.decisions.api.ComputationContext;
 import ru.ewc.decisions.api.DecitaException;
 import ru.ewc.decisions.api.InMemoryLocator;
@@ -41,6 +39,15 @@ import ru.ewc.decisions.api.Locator;
  * @since 0.4.1
  */
 public final class FunctionsLocator implements Locator {
+    /**
+     * The latencies of the function calls, by function.
+     */
+    private static final Metrics.Labelled<Metrics.Histogram> CALLS = Metrics.SHARED.histograms(
+        "checker_function_duration_seconds",
+        "Latency of the Groovy function calls, by function",
+        "function"
+    );
+
     /**
      * The locator's name.
      */
@@ -57,19 +64,34 @@ public final class FunctionsLocator implements Locator {
     private final InMemoryLocator locator;
 
     /**
-     * Groovy script engine used to run the Groovy scripts.
+     * The process-wide cache of compiled Groovy scripts.
      */
-    private final GroovyScriptEngine engine;
+    private final GroovyFunctions functions;
 
-    @SneakyThrows
     public FunctionsLocator(final String name, final Path path) {
+        this(name, path, new InMemoryLocator("locator", new HashMap<>()));
+    }
+
+    private FunctionsLocator(final String name, final Path path, final InMemoryLocator locator) {
         this.name = name;
         this.path = path;
-        this.locator = new InMemoryLocator("locator", new HashMap<>());
-        this.engine = new GroovyScriptEngine(new URL[]{path.toUri().toURL()});
+        this.locator = locator;
+        this.functions = GroovyFunctions.SHARED;
+    }
+
+    /**
+     * Creates a copy of this locator, with its own copy of the overridden values.
+     *
+     * @return The copy of this locator.
+     */
+    public FunctionsLocator copy() {
+        return new FunctionsLocator(
+            this.name,
+            this.path,
+            new InMemoryLocator("locator", new HashMap<>(this.locator.state()))
+        );
     }
 
-    @SneakyThrows
     @Override
     public String fragmentBy(
         final String fragment,
@@ -81,7 +103,10 @@ public final class FunctionsLocator implements Locator {
         } else if (this.hasScript(fragment)) {
             final Binding binding = new Binding();
             binding.setVariable("context", context);
-            result = this.engine.run("%s.groovy".formatted(fragment), binding).toString();
+            final long start = System.nanoTime();
+            result = this.functions.run(this.path, fragment, binding).toString();
+            PhaseTimings.recordSince(Phase.FUNCTION, start);
+            FunctionsLocator.CALLS.of(fragment).observeSince(start);
         } else {
             result = "undefined";
         }
@@ -103,7 +128,7 @@ public final class FunctionsLocator implements Locator {
     }
 
     private boolean hasScript(final String arg) {
-        return this.path.resolve("%s.groovy".formatted(arg)).toFile().exists();
+        return this.functions.exists(this.path, arg);
     }
 
     private boolean hasValue(final String arg) {
@@ -0,0 +1,220 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Decision-Driven Development
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package ru.ewc.checklogic.testing;
+
+import groovy.lang.Binding;
+import groovy.transform.ThreadInterrupt;
+import groovy.util.GroovyScriptEngine;
+import java.io.IOException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.stream.Stream;
+import lombok.SneakyThrows;
+import org.codehaus.groovy.control.customizers.ASTTransformationCustomizer;
+import org.codehaus.groovy.runtime.InvokerHelper;
+import ru.ewc.checklogic.TableWatcher;
+
+/**
+ * I am a process-wide cache of compiled Groovy functions. My main responsibility is to compile
+ * every function script only once and to recompile it only when any script in its folder is
+ * modified, since the scripts can reference each other. I watch every functions folder with a
+ * {@link TableWatcher}, and list its scripts with their latest modification time only when the
+ * watch reports a change, so running a function does not touch the file system.
+ * The scripts are compiled to check for the thread interruption in every loop and method, so that
+ * a runaway function could be stopped when its test exceeds the time budget.
+ *
+ * @since 0.4.1
+ */
+final class GroovyFunctions {
+    /**
+     * The instance shared by all the functions locators.
+     */
+    static final GroovyFunctions SHARED = new GroovyFunctions();
+
+    /**
+     * The extension of the Groovy script files.
+     */
+    private static final String EXTENSION = ".groovy";
+
+    /**
+     * The compiled scripts, keyed by the script file path, along with the latest modification time
+     * of the scripts in their folder.
+     */
+    private final ConcurrentMap<Path, Compiled> scripts;
+
+    /**
+     * The names of existing scripts, keyed by the functions folder path.
+     */
+    private final ConcurrentMap<Path, Listing> folders;
+
+    /**
+     * The watches of the functions folders, kept for the lifetime of the process.
+     */
+    private final ConcurrentMap<Path, TableWatcher> watchers;
+
+    /**
+     * The script engines used to compile the scripts, keyed by the functions folder path. Scripts
+     * in the same folder can reference each other, so they share the engine, which is replaced
+     * as soon as any of them is modified.
+     */
+    private final ConcurrentMap<Path, Engine> engines;
+
+    GroovyFunctions() {
+        this.scripts = new ConcurrentHashMap<>();
+        this.folders = new ConcurrentHashMap<>();
+        this.watchers = new ConcurrentHashMap<>();
+        this.engines = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Checks whether the functions folder contains a script with the specified name.
+     *
+     * @param folder The path to the functions folder.
+     * @param name The name of the function, i.e. the script name without extension.
+     * @return True if the script exists.
+     */
+    boolean exists(final Path folder, final String name) {
+        return this.listing(folder).names().contains(name);
+    }
+
+    /**
+     * Runs the specified function script with the specified binding, compiling it only if it is
+     * not compiled yet or any script in its folder was modified since the last compilation.
+     *
+     * @param folder The path to the functions folder.
+     * @param name The name of the function, i.e. the script name without extension.
+     * @param binding The variables to run the script with.
+     * @return The result of the script execution.
+     */
+    Object run(final Path folder, final String name, final Binding binding) {
+        final Path file = folder.resolve(name + GroovyFunctions.EXTENSION);
+        final long modified = this.listing(folder).modified();
+        Compiled compiled = this.scripts.getOrDefault(file, Compiled.NONE);
+        if (compiled.modified() != modified) {
+            compiled = new Compiled(modified, this.compile(folder, file, modified));
+            this.scripts.put(file, compiled);
+        }
+        return InvokerHelper.createScript(compiled.type(), binding).run();
+    }
+
+    @SneakyThrows
+    private Class<?> compile(final Path folder, final Path file, final long modified) {
+        return this.engines.compute(
+            folder,
+            (key, engine) -> {
+                final Engine result;
+                if (engine == null || engine.modified() != modified) {
+                    result = new Engine(modified, GroovyFunctions.engineFor(folder));
+                } else {
+                    result = engine;
+                }
+                return result;
+            }
+        ).engine().loadScriptByName(file.getFileName().toString());
+    }
+
+    private Listing listing(final Path folder) {
+        final long version = this.watchers.computeIfAbsent(folder, TableWatcher::of).version();
+        Listing result = this.folders.getOrDefault(folder, Listing.NONE);
+        if (result.version() != version) {
+            result = GroovyFunctions.scriptsIn(folder, version);
+            this.folders.put(folder, result);
+        }
+        return result;
+    }
+
+    @SneakyThrows
+    private static GroovyScriptEngine engineFor(final Path folder) {
+        final GroovyScriptEngine engine = new GroovyScriptEngine(new URL[]{folder.toUri().toURL()});
+        engine.getConfig().setMinimumRecompilationInterval(0);
+        engine.getConfig().addCompilationCustomizers(
+            new ASTTransformationCustomizer(ThreadInterrupt.class)
+        );
+        return engine;
+    }
+
+    private static Listing scriptsIn(final Path folder, final long version) {
+        final Set<String> names = new HashSet<>();
+        long modified = 0L;
+        try (Stream<Path> files = Files.list(folder)) {
+            for (final Path file : files.toList()) {
+                final String script = file.getFileName().toString();
+                if (script.endsWith(GroovyFunctions.EXTENSION)) {
+                    names.add(
+                        script.substring(0, script.length() - GroovyFunctions.EXTENSION.length())
+                    );
+                    modified = Math.max(modified, Files.getLastModifiedTime(file).toMillis());
+                }
+            }
+        } catch (final IOException exception) {
+            names.clear();
+        }
+        return new Listing(version, Set.copyOf(names), modified);
+    }
+
+    /**
+     * A compiled script class along with the modification time of the scripts it was compiled
+     * from.
+     *
+     * @param modified The latest modification time of the scripts in the folder.
+     * @param type The compiled script class.
+     * @since 0.4.1
+     */
+    private record Compiled(long modified, Class<?> type) {
+        /**
+         * The placeholder for a script that was never compiled.
+         */
+        static final Compiled NONE = new Compiled(-1L, Object.class);
+    }
+
+    /**
+     * The names of the scripts in a folder along with their latest modification time.
+     *
+     * @param version The version of the folder contents reported by its watch when listed.
+     * @param names The names of the scripts, without extensions.
+     * @param modified The latest modification time of the scripts in the folder.
+     * @since 0.4.1
+     */
+    private record Listing(long version, Set<String> names, long modified) {
+        /**
+         * The placeholder for a folder that was never listed.
+         */
+        static final Listing NONE = new Listing(-1L, Set.of(), -1L);
+    }
+
+    /**
+     * A script engine along with the modification time of the scripts it compiled.
+     *
+     * @param modified The latest modification time of the scripts in the folder.
+     * @param engine The engine compiling the scripts of the folder.
+     * @since 0.4.1
+     */
+    private record Engine(long modified, GroovyScriptEngine engine) {
+    }
+}
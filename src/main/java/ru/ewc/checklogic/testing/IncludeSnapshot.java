@@ -0,0 +1,196 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Decision-Driven Development
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package ru.ewc.checklogic.testing;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import ru.ewc.decisions.api.ComputationContext;
+import ru.ewc.decisions.api.OutputTracker;
+
+/**
+ * I am the outcome of performing an included test file, memoized to be applied to other contexts
+ * having the same state. My main responsibility is to bring a context to the state the included
+ * file would have brought it to, without performing its assignments and commands again.
+ *
+ * <p>I keep only the fragments that were changed by the included file, so applying me to a fresh
+ * context is cheap and never shares any mutable data between the contexts.</p>
+ *
+ * @since 0.4.1
+ */
+final class IncludeSnapshot {
+    /**
+     * The values of the fragments changed by the included file, keyed by locator and fragment.
+     */
+    private final Map<String, Map<String, String>> changes;
+
+    /**
+     * The events logged while performing the included file, along with their types.
+     */
+    private final List<Event> events;
+
+    private IncludeSnapshot(
+        final Map<String, Map<String, String>> changes,
+        final List<Event> events
+    ) {
+        this.changes = changes;
+        this.events = events;
+    }
+
+    /**
+     * Computes the key of the included file performed in a context having the specified state.
+     *
+     * @param include The name of the included file.
+     * @param state The stored state of the context before the file is included.
+     * @return The key to memoize the outcome of the include by.
+     */
+    static String keyOf(final String include, final Map<String, Map<String, Object>> state) {
+        return DiskResultCache.hash("%s\n%s".formatted(include, IncludeSnapshot.sorted(state)));
+    }
+
+    /**
+     * Creates a snapshot from the states before and after performing the included file. The
+     * snapshot can only be created if the file changed nothing but the string values of the
+     * existing locators, since nothing else can be applied to another context.
+     *
+     * @param before The stored state before the file was included.
+     * @param after The stored state after the file was included.
+     * @param events The events logged while performing the included file.
+     * @return The snapshot, or an empty optional if the outcome can not be memoized.
+     */
+    static Optional<IncludeSnapshot> between(
+        final Map<String, Map<String, Object>> before,
+        final Map<String, Map<String, Object>> after,
+        final List<String> events
+    ) {
+        final Map<String, Map<String, String>> changes = new TreeMap<>();
+        boolean applicable = after.keySet().containsAll(before.keySet())
+            && before.keySet().containsAll(after.keySet());
+        for (final Map.Entry<String, Map<String, Object>> locator : after.entrySet()) {
+            final Map<String, Object> previous = before.getOrDefault(locator.getKey(), Map.of());
+            applicable = applicable && locator.getValue().keySet().containsAll(previous.keySet());
+            for (final Map.Entry<String, Object> fragment : locator.getValue().entrySet()) {
+                if (!Objects.equals(previous.get(fragment.getKey()), fragment.getValue())) {
+                    applicable = applicable && fragment.getValue() instanceof String;
+                    changes.computeIfAbsent(locator.getKey(), key -> new TreeMap<>())
+                        .put(fragment.getKey(), String.valueOf(fragment.getValue()));
+                }
+            }
+        }
+        final Optional<IncludeSnapshot> result;
+        if (applicable) {
+            result = Optional.of(
+                new IncludeSnapshot(changes, events.stream().map(Event::parsed).toList())
+            );
+        } else {
+            result = Optional.empty();
+        }
+        return result;
+    }
+
+    /**
+     * Makes a deep copy of the stored state, so that it is not affected by further computations.
+     *
+     * @param state The stored state of a context.
+     * @return The copy of the state.
+     */
+    static Map<String, Map<String, Object>> copyOf(final Map<String, Map<String, Object>> state) {
+        return state.entrySet().stream().collect(
+            Collectors.toMap(Map.Entry::getKey, entry -> new HashMap<>(entry.getValue()))
+        );
+    }
+
+    /**
+     * Brings the context to the state the included file would have brought it to.
+     *
+     * @param ctx The context having the same state as the one the snapshot was taken in.
+     */
+    void applyTo(final ComputationContext ctx) {
+        this.changes.forEach(
+            (locator, fragments) -> fragments.forEach(
+                (fragment, value) -> ctx.setValueFor(locator, fragment, value)
+            )
+        );
+        this.events.forEach(event -> ctx.logComputation(event.type(), event.message()));
+    }
+
+    private static String sorted(final Map<String, Map<String, Object>> state) {
+        return state.entrySet().stream()
+            .sorted(Map.Entry.comparingByKey())
+            .map(entry -> "%s=%s".formatted(entry.getKey(), new TreeMap<>(entry.getValue())))
+            .collect(Collectors.joining("\n"));
+    }
+
+    /**
+     * I am an event logged while performing the included file. The tracker of the context keeps
+     * the events as text, prefixed with their types, so I recover the type from the prefix to log
+     * the event again exactly as it was logged the first time.
+     *
+     * @param type The type of the event.
+     * @param message The message of the event without the type prefix.
+     * @since 0.4.1
+     */
+    record Event(OutputTracker.EventType type, String message) {
+        /**
+         * The pattern of the logged event, with the type in the first group and the message in
+         * the second one.
+         */
+        private static final Pattern LOGGED = Pattern.compile(
+            "^\\[?(%s)]?:?\\s(.*)$".formatted(
+                Arrays.stream(OutputTracker.EventType.values())
+                    .map(OutputTracker.EventType::name)
+                    .collect(Collectors.joining("|"))
+            ),
+            Pattern.DOTALL
+        );
+
+        /**
+         * Recovers the type of the event from its logged text. The events without a known type
+         * prefix are taken as checkpoints.
+         *
+         * @param logged The text of the event, as kept by the tracker.
+         * @return The event with its type.
+         */
+        static Event parsed(final String logged) {
+            final Matcher matcher = Event.LOGGED.matcher(logged);
+            final Event result;
+            if (matcher.matches()) {
+                result = new Event(
+                    OutputTracker.EventType.valueOf(matcher.group(1)),
+                    matcher.group(2)
+                );
+            } else {
+                result = new Event(OutputTracker.EventType.CH, logged);
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,142 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Decision-Driven Development
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package ru.ewc.checklogic.testing;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.stream.Collectors;
+
+/**
+ * I am a test report in JSON format: an array of test results, one object per test.
+ *
+ * @since 0.4.1
+ */
+@SuppressWarnings("PMD.ProhibitPublicStaticMethods")
+public final class JsonReport implements TestReport {
+    /**
+     * The writer to the report file.
+     */
+    private final BufferedWriter writer;
+
+    /**
+     * The separator to be written before the next result.
+     */
+    private String separator;
+
+    private JsonReport(final BufferedWriter writer) {
+        this.writer = writer;
+        this.separator = "\n";
+    }
+
+    /**
+     * Creates the report file and opens the array of results in it.
+     *
+     * @param file The path to the report file, overwritten if exists.
+     * @return The report ready to accept results.
+     */
+    public static JsonReport writtenTo(final Path file) {
+        try {
+            final JsonReport report = new JsonReport(
+                Files.newBufferedWriter(file, StandardCharsets.UTF_8)
+            );
+            report.write("[");
+            return report;
+        } catch (final IOException exception) {
+            throw new IllegalStateException("Failed to create the JSON report", exception);
+        }
+    }
+
+    @Override
+    public synchronized void append(final TestResult result) {
+        this.write(
+            "%s  {\"test\": %s, \"result\": %s, %s, \"failures\": [%s]}".formatted(
+                this.separator,
+                JsonReport.quoted(result.file()),
+                JsonReport.quoted(result.result()),
+                String.format(
+                    Locale.ROOT,
+                    "\"context_ms\": %.3f, \"test_ms\": %.3f, \"phases_ms\": %s",
+                    result.context() / 1_000_000.0,
+                    result.elapsed() / 1_000_000.0,
+                    result.phases().totalsAsJson()
+                ),
+                result.failures().stream()
+                    .map(JsonReport::failureAsObject)
+                    .collect(Collectors.joining(", "))
+            )
+        );
+        this.separator = ",\n";
+    }
+
+    @Override
+    public synchronized void close() {
+        this.write("\n]\n");
+        try {
+            this.writer.close();
+        } catch (final IOException exception) {
+            throw new IllegalStateException("Failed to close the JSON report", exception);
+        }
+    }
+
+    private void write(final String text) {
+        try {
+            this.writer.write(text);
+            this.writer.flush();
+        } catch (final IOException exception) {
+            throw new IllegalStateException("Failed to write the JSON report", exception);
+        }
+    }
+
+    private static String failureAsObject(final CheckFailure failure) {
+        return "{\"expected\": %s, \"actual\": %s}".formatted(
+            JsonReport.quoted(failure.expected()),
+            JsonReport.quoted(failure.received())
+        );
+    }
+
+    private static String quoted(final String text) {
+        final StringBuilder result = new StringBuilder(text.length() + 2).append('"');
+        for (final char symbol : text.toCharArray()) {
+            switch (symbol) {
+                case '"' -> result.append("\\\"");
+                case '\\' -> result.append("\\\\");
+                case '\n' -> result.append("\\n");
+                case '\r' -> result.append("\\r");
+                case '\t' -> result.append("\\t");
+                default -> {
+                    if (symbol < ' ') {
+                        result.append("\\u%04x".formatted((int) symbol));
+                    } else {
+                        result.append(symbol);
+                    }
+                }
+            }
+        }
+        return result.append('"').toString();
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Decision-Driven Development
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package ru.ewc.checklogic.testing;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+
+/**
+ * I am a test report in JUnit XML format, understood by most of the CI servers.
+ *
+ * @since 0.4.1
+ */
+@SuppressWarnings("PMD.ProhibitPublicStaticMethods")
+public final class JunitXmlReport implements TestReport {
+    /**
+     * The name of the test suite, used for the results without a file name.
+     */
+    private static final String SUITE = "logic-checker";
+
+    /**
+     * The writer to the report file.
+     */
+    private final BufferedWriter writer;
+
+    private JunitXmlReport(final BufferedWriter writer) {
+        this.writer = writer;
+    }
+
+    /**
+     * Creates the report file and writes the report header into it.
+     *
+     * @param file The path to the report file, overwritten if exists.
+     * @return The report ready to accept results.
+     */
+    public static JunitXmlReport writtenTo(final Path file) {
+        try {
+            final JunitXmlReport report = new JunitXmlReport(
+                Files.newBufferedWriter(file, StandardCharsets.UTF_8)
+            );
+            report.write(
+                "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<testsuite name=\"%s\">\n"
+                    .formatted(JunitXmlReport.SUITE)
+            );
+            return report;
+        } catch (final IOException exception) {
+            throw new IllegalStateException("Failed to create the JUnit report", exception);
+        }
+    }
+
+    @Override
+    public synchronized void append(final TestResult result) {
+        final String[] name = result.file().split(" - ", 2);
+        final StringBuilder test = new StringBuilder(200)
+            .append(
+                String.format(
+                    Locale.ROOT,
+                    "  <testcase classname=\"%s\" name=\"%s\" time=\"%.6f\">",
+                    JunitXmlReport.escaped(name[0]),
+                    JunitXmlReport.escaped(name[name.length - 1]),
+                    (result.context() + result.elapsed()) / 1_000_000_000.0
+                )
+            );
+        result.failures().forEach(
+            failure -> test.append(
+                "\n    <failure message=\"%1$s\">%1$s</failure>".formatted(
+                    JunitXmlReport.escaped(failure.asText())
+                )
+            )
+        );
+        this.write(test.append("\n  </testcase>\n").toString());
+    }
+
+    @Override
+    public synchronized void close() {
+        this.write("</testsuite>\n");
+        try {
+            this.writer.close();
+        } catch (final IOException exception) {
+            throw new IllegalStateException("Failed to close the JUnit report", exception);
+        }
+    }
+
+    private void write(final String text) {
+        try {
+            this.writer.write(text);
+            this.writer.flush();
+        } catch (final IOException exception) {
+            throw new IllegalStateException("Failed to write the JUnit report", exception);
+        }
+    }
+
+    private static String escaped(final String text) {
+        return text.replace("&", "&amp;")
+            .replace("<", "&lt;")
+            .replace(">", "&gt;")
+            .replace("\"", "&quot;")
+            .replace("'", "&apos;");
+    }
+}
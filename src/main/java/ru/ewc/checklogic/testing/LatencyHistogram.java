@@ -0,0 +1,129 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Decision-Driven Development
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package ru.ewc.checklogic.testing;
+
+import java.util.Collection;
+import java.util.Locale;
+
+/**
+ * I am the latency distribution of the operations of a single phase over the whole test suite. My
+ * main responsibility is to compute the percentiles of the collected durations.
+ *
+ * @since 0.4.1
+ */
+public final class LatencyHistogram {
+    /**
+     * The phase the durations were collected for.
+     */
+    private final Phase phase;
+
+    /**
+     * The sorted durations in nanoseconds.
+     */
+    private final long[] sorted;
+
+    /**
+     * Ctor.
+     *
+     * @param phase The phase the durations were collected for.
+     * @param samples The durations in nanoseconds.
+     */
+    public LatencyHistogram(final Phase phase, final Collection<Long> samples) {
+        this.phase = phase;
+        this.sorted = samples.stream().mapToLong(Long::longValue).sorted().toArray();
+    }
+
+    public int count() {
+        return this.sorted.length;
+    }
+
+    /**
+     * Computes the percentile of the durations using the nearest-rank method.
+     *
+     * @param percent The percentile to compute, from 0 to 100.
+     * @return The duration in nanoseconds, or 0 if there are no durations.
+     */
+    public long percentile(final double percent) {
+        final long result;
+        if (this.sorted.length == 0) {
+            result = 0L;
+        } else {
+            final int rank = (int) Math.ceil(percent / 100.0 * this.sorted.length);
+            result = this.sorted[Math.min(this.sorted.length, Math.max(1, rank)) - 1];
+        }
+        return result;
+    }
+
+    /**
+     * Describes the distribution as a row of the timings table on the test page.
+     *
+     * @return The HTML table row with the milliseconds.
+     */
+    public String asHtmlTableRow() {
+        return String.format(
+            Locale.ROOT,
+            "<tr><td>%s</td><td>%d</td><td>%.3f</td><td>%.3f</td><td>%.3f</td><td>%.3f</td>"
+                + "<td>%.3f</td></tr>",
+            this.phase.label(),
+            this.count(),
+            LatencyHistogram.millis(this.total()),
+            LatencyHistogram.millis(this.percentile(50)),
+            LatencyHistogram.millis(this.percentile(90)),
+            LatencyHistogram.millis(this.percentile(99)),
+            LatencyHistogram.millis(this.percentile(100))
+        );
+    }
+
+    /**
+     * Describes the distribution as a JSON object property.
+     *
+     * @return The JSON property named after the phase, with the milliseconds.
+     */
+    public String asJson() {
+        return String.format(
+            Locale.ROOT,
+            "\"%s\": {\"count\": %d, \"total_ms\": %.3f, \"p50_ms\": %.3f, \"p90_ms\": %.3f, "
+                + "\"p99_ms\": %.3f, \"max_ms\": %.3f}",
+            this.phase.label(),
+            this.count(),
+            LatencyHistogram.millis(this.total()),
+            LatencyHistogram.millis(this.percentile(50)),
+            LatencyHistogram.millis(this.percentile(90)),
+            LatencyHistogram.millis(this.percentile(99)),
+            LatencyHistogram.millis(this.percentile(100))
+        );
+    }
+
+    private long total() {
+        long result = 0L;
+        for (final long sample : this.sorted) {
+            result += sample;
+        }
+        return result;
+    }
+
+    private static double millis(final long nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Decision-Driven Development
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package ru.ewc.checklogic.testing;
+
+/**
+ * I am a phase of performing a test, measured separately to show where the time goes. The phases
+ * are inclusive: the time of the functions is also counted in the conditions and commands that
+ * called them, and the time of the included files in the include phase.
+ *
+ * @since 0.4.1
+ */
+public enum Phase {
+    /**
+     * Creating the computation context for the test.
+     */
+    CONTEXT("context"),
+
+    /**
+     * Performing an {@code ASG} fragment.
+     */
+    ASSIGNMENT("assignment"),
+
+    /**
+     * Performing an {@code EXE;command} fragment.
+     */
+    COMMAND("command"),
+
+    /**
+     * Performing an {@code EXE;include} fragment.
+     */
+    INCLUDE("include"),
+
+    /**
+     * Evaluating a {@code CND} fragment.
+     */
+    CONDITION("condition"),
+
+    /**
+     * Running a Groovy function.
+     */
+    FUNCTION("function");
+
+    /**
+     * The name of the phase to be shown in the reports.
+     */
+    private final String label;
+
+    Phase(final String label) {
+        this.label = label;
+    }
+
+    public String label() {
+        return this.label;
+    }
+}
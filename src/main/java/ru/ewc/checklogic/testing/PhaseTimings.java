@@ -0,0 +1,156 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Decision-Driven Development
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package ru.ewc.checklogic.testing;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * I am the durations of every operation performed during a single test, grouped by the phase.
+ * My main responsibility is to collect the measurements made with {@link System#nanoTime()} while
+ * the test is performed on a single thread.
+ *
+ * <p>The instance collecting the measurements can be bound to the current thread, so that the code
+ * called from inside the decision tables, like Groovy functions, can report its timings too.</p>
+ *
+ * @since 0.4.1
+ */
+@SuppressWarnings("PMD.ProhibitPublicStaticMethods")
+public final class PhaseTimings {
+    /**
+     * The timings collected by the test performed on the current thread.
+     */
+    private static final ThreadLocal<PhaseTimings> CURRENT = new ThreadLocal<>();
+
+    /**
+     * The durations of the operations in nanoseconds, by phase.
+     */
+    private final Map<Phase, List<Long>> samples;
+
+    public PhaseTimings() {
+        this.samples = new EnumMap<>(Phase.class);
+    }
+
+    /**
+     * Creates the timings and binds them to the current thread until {@link #unbind()} is called.
+     *
+     * @return The timings to collect the measurements of the test performed on this thread.
+     */
+    public static PhaseTimings bound() {
+        final PhaseTimings result = new PhaseTimings();
+        PhaseTimings.CURRENT.set(result);
+        return result;
+    }
+
+    /**
+     * Returns the timings bound to the current thread, if any.
+     *
+     * @return The bound timings, or new unbound ones if none are bound.
+     */
+    public static PhaseTimings current() {
+        final PhaseTimings bound = PhaseTimings.CURRENT.get();
+        final PhaseTimings result;
+        if (bound == null) {
+            result = new PhaseTimings();
+        } else {
+            result = bound;
+        }
+        return result;
+    }
+
+    /**
+     * Records the duration of an operation into the timings bound to the current thread. Does
+     * nothing if no timings are bound.
+     *
+     * @param phase The phase of the operation.
+     * @param start The {@link System#nanoTime()} value taken when the operation started.
+     */
+    public static void recordSince(final Phase phase, final long start) {
+        final PhaseTimings bound = PhaseTimings.CURRENT.get();
+        if (bound != null) {
+            bound.record(phase, System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Unbinds these timings from the current thread.
+     */
+    public void unbind() {
+        PhaseTimings.CURRENT.remove();
+    }
+
+    /**
+     * Records the duration of an operation.
+     *
+     * @param phase The phase of the operation.
+     * @param nanos The duration in nanoseconds.
+     */
+    public void record(final Phase phase, final long nanos) {
+        this.samples.computeIfAbsent(phase, key -> new ArrayList<>(4)).add(nanos);
+    }
+
+    /**
+     * Returns the durations of all the operations of the specified phase.
+     *
+     * @param phase The phase.
+     * @return The durations in nanoseconds, in the order they were recorded.
+     */
+    public List<Long> samples(final Phase phase) {
+        return List.copyOf(this.samples.getOrDefault(phase, List.of()));
+    }
+
+    /**
+     * Returns the total time spent in the specified phase.
+     *
+     * @param phase The phase.
+     * @return The sum of the durations in nanoseconds.
+     */
+    public long total(final Phase phase) {
+        return this.samples.getOrDefault(phase, List.of()).stream()
+            .mapToLong(Long::longValue)
+            .sum();
+    }
+
+    /**
+     * Describes the total time spent in every phase as a JSON object.
+     *
+     * @return The JSON object with the phase names and milliseconds.
+     */
+    public String totalsAsJson() {
+        return this.samples.keySet().stream()
+            .map(
+                phase -> String.format(
+                    Locale.ROOT,
+                    "\"%s\": %.3f",
+                    phase.label(),
+                    this.total(phase) / 1_000_000.0
+                )
+            )
+            .collect(Collectors.joining(", ", "{", "}"));
+    }
+}
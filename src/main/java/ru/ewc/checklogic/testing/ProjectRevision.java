@@ -0,0 +1,103 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Decision-Driven Development
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package ru.ewc.checklogic.testing;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * I am the revision of the project files. My main responsibility is to tell cheaply whether two
+ * test runs would check the same files: the revision is computed from the names, sizes and
+ * modification times of the files, without reading them. The hidden folders (like the caches)
+ * and the reports are not a part of the project.
+ *
+ * @since 0.4.1
+ */
+@SuppressWarnings("PMD.ProhibitPublicStaticMethods")
+public final class ProjectRevision {
+    private ProjectRevision() {
+        // Utility class
+    }
+
+    /**
+     * Computes the current revision of the project.
+     *
+     * @param root The root folder of the project.
+     * @return The revision, equal for the unchanged project files.
+     */
+    public static String of(final Path root) {
+        try (Stream<Path> files = Files.walk(root)) {
+            final String listing = files
+                .filter(file -> ProjectRevision.isProjectFile(root, file))
+                .map(file -> ProjectRevision.describe(root, file))
+                .sorted()
+                .collect(Collectors.joining("\n"));
+            return HexFormat.of().formatHex(
+                MessageDigest.getInstance("SHA-256")
+                    .digest(listing.getBytes(StandardCharsets.UTF_8))
+            );
+        } catch (final IOException exception) {
+            throw new UncheckedIOException(exception);
+        } catch (final NoSuchAlgorithmException exception) {
+            throw new IllegalStateException("SHA-256 is not supported", exception);
+        }
+    }
+
+    private static boolean isProjectFile(final Path root, final Path file) {
+        final Path relative = root.relativize(file);
+        boolean result = Files.isRegularFile(file) && !relative.startsWith("reports");
+        for (final Path part : relative) {
+            if (part.toString().startsWith(".")) {
+                result = false;
+            }
+        }
+        return result;
+    }
+
+    private static String describe(final Path root, final Path file) {
+        try {
+            final BasicFileAttributes attributes = Files.readAttributes(
+                file,
+                BasicFileAttributes.class
+            );
+            return "%s:%d:%d".formatted(
+                root.relativize(file),
+                attributes.size(),
+                attributes.lastModifiedTime().toMillis()
+            );
+        } catch (final IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+    }
+}
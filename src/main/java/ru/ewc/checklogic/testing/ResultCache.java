@@ -0,0 +1,79 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Decision-Driven Development
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package ru.ewc.checklogic.testing;
+
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * I am a cache of test results. My main responsibility is to give back the result of a test that
+ * was already performed, as long as neither the test nor anything it depends on was changed since.
+ *
+ * @since 0.4.1
+ */
+public interface ResultCache extends AutoCloseable {
+    /**
+     * The cache that never has any results, used when caching is turned off.
+     */
+    ResultCache NONE = new ResultCache() {
+        @Override
+        public Optional<TestResult> cached(final String key) {
+            return Optional.empty();
+        }
+
+        @Override
+        public void store(final String key, final TestResult result, final Set<String> names) {
+            // Nothing to store
+        }
+
+        @Override
+        public void close() {
+            // Nothing to release
+        }
+    };
+
+    /**
+     * Gets the cached result of a test, if it is still valid. Might be called from different
+     * threads.
+     *
+     * @param key The hash of the test contents.
+     * @return The cached result or an empty optional if the test has to be performed.
+     */
+    Optional<TestResult> cached(String key);
+
+    /**
+     * Stores the result of a performed test. Might be called from different threads.
+     *
+     * @param key The hash of the test contents.
+     * @param result The result of the test.
+     * @param names The names of the tables, commands, functions and files the test depends on.
+     */
+    void store(String key, TestResult result, Set<String> names);
+
+    /**
+     * Finalizes the cache and releases all the resources.
+     */
+    @Override
+    void close();
+}
@@ -23,20 +23,88 @@
  */
 package ru.ewc.checklogic.testing;
 
+import java.time.Duration;
 import java.util.List;
+import java.util.Locale;
+import java.util.stream.Collectors;
 
+/**
+ * I am the result of a single test.
+ *
+ * @param file The name of the test, made of the file name and the test header.
+ * @param successful Whether all the expectations of the test were met.
+ * @param failures The failed expectations.
+ * @param log The events logged while performing the test.
+ * @param context Nanoseconds spent creating the computation context for the test.
+ * @param elapsed Nanoseconds spent performing the test itself.
+ * @param cpu Nanoseconds of CPU time spent by the thread performing the test.
+ * @param phases The durations of every operation performed during the test, by phase.
+ * @param timedOut Whether the test was abandoned for exceeding its time budget.
+ * @since 0.4.1
+ */
 public record TestResult(
     String file,
     boolean successful,
-    String error,
+    List<CheckFailure> failures,
     List<String> log,
     long context,
-    long elapsed
+    long elapsed,
+    long cpu,
+    PhaseTimings phases,
+    boolean timedOut
 ) implements Comparable<TestResult> {
+    public TestResult(
+        final String file,
+        final boolean successful,
+        final List<CheckFailure> failures,
+        final List<String> log,
+        final long context,
+        final long elapsed,
+        final long cpu,
+        final PhaseTimings phases
+    ) {
+        this(file, successful, failures, log, context, elapsed, cpu, phases, false);
+    }
+
+    /**
+     * Creates the result of a test abandoned for exceeding its time budget.
+     *
+     * @param file The name of the test.
+     * @param budget The time budget exceeded.
+     * @param reason What the budget was given to, e.g. the test or the whole suite.
+     * @param elapsed Nanoseconds the test was running before it was abandoned.
+     * @return The failed result of the test.
+     */
+    @SuppressWarnings("PMD.ProhibitPublicStaticMethods")
+    public static TestResult timeout(
+        final String file,
+        final Duration budget,
+        final String reason,
+        final long elapsed
+    ) {
+        return new TestResult(
+            file,
+            false,
+            List.of(
+                new CheckFailure(
+                    "%s completed within %d ms".formatted(reason, budget.toMillis()),
+                    "timed out"
+                )
+            ),
+            List.of(),
+            0L,
+            elapsed,
+            0L,
+            new PhaseTimings(),
+            true
+        );
+    }
 
     public String result() {
         final String result;
-        if (this.successful) {
+        if (this.timedOut) {
+            result = "TIMEOUT";
+        } else if (this.successful) {
             result = "PASS";
         } else {
             result = "FAIL";
@@ -55,8 +123,19 @@ public record TestResult(
         );
     }
 
+    public String error() {
+        return "<ul>%s</ul>".formatted(
+            this.failures.stream().map(CheckFailure::asHtml).collect(Collectors.joining())
+        );
+    }
+
     private String time() {
-        return "C: %d ms, T: %d ms".formatted(this.context, this.elapsed);
+        return String.format(
+            Locale.ROOT,
+            "C: %.3f ms, T: %.3f ms",
+            this.context / 1_000_000.0,
+            this.elapsed / 1_000_000.0
+        );
     }
 
     private String errorMessages() {
@@ -64,7 +143,7 @@ public record TestResult(
         if (this.successful) {
             result = "";
         } else {
-            result = this.error.replace("\n\n", "<br><br>").replace("\n\t", " ");
+            result = this.error().replace("\n\n", "<br><br>").replace("\n\t", " ");
         }
         return result;
     }
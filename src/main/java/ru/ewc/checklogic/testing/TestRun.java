@@ -0,0 +1,307 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Decision-Driven Development
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package ru.ewc.checklogic.testing;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * I am a test suite run in the background. My main responsibility is to collect the results as
+ * soon as every check is finished, so that they could be shown while the other checks are still
+ * running, and to let the run be cancelled. Every run knows the revision of the project it checks,
+ * so that the users requesting the same tests could share a single run.
+ *
+ * <p>The users sharing a run are attached to it as its viewers. A viewer that is not interested
+ * anymore just detaches, and the run is cancelled only when the last of its viewers detaches.</p>
+ *
+ * @since 0.4.1
+ */
+public final class TestRun {
+    /**
+     * The identifier of the run.
+     */
+    private final String id;
+
+    /**
+     * The suite being performed.
+     */
+    private final CheckSuite suite;
+
+    /**
+     * The revision of the project being checked.
+     */
+    private final String revision;
+
+    /**
+     * The results collected so far, in the order the checks finished in.
+     */
+    private final List<TestResult> results;
+
+    /**
+     * The moment the run was started, in milliseconds.
+     */
+    private final long start;
+
+    /**
+     * The identifiers of the viewers attached to the run.
+     */
+    private final Set<String> viewers;
+
+    /**
+     * The status of the run.
+     */
+    private volatile Status status;
+
+    /**
+     * The duration of the finished run, in seconds.
+     */
+    private volatile double elapsed;
+
+    /**
+     * The task performing the suite.
+     */
+    private Future<?> task;
+
+    public TestRun(final String id, final CheckSuite suite) {
+        this(id, suite, "");
+    }
+
+    public TestRun(final String id, final CheckSuite suite, final String revision) {
+        this.id = id;
+        this.suite = suite;
+        this.revision = revision;
+        this.results = new ArrayList<>();
+        this.start = System.currentTimeMillis();
+        this.viewers = new HashSet<>();
+        this.status = Status.QUEUED;
+    }
+
+    /**
+     * Submits the suite to the specified executor, the run is queued until the executor starts it.
+     *
+     * @param executor The executor to perform the suite with.
+     * @param threads The degree of parallelism, i.e. the number of checks run simultaneously.
+     * @return Itself, submitted.
+     * @throws java.util.concurrent.RejectedExecutionException If the executor can't accept it.
+     */
+    public synchronized TestRun startIn(final ExecutorService executor, final int threads) {
+        this.task = executor.submit(
+            () -> {
+                if (this.begin()) {
+                    Status finished = Status.FAILED;
+                    try {
+                        this.suite.perform(threads, this::add);
+                        finished = Status.FINISHED;
+                    } finally {
+                        this.over(finished);
+                    }
+                }
+            }
+        );
+        return this;
+    }
+
+    /**
+     * Cancels the run, interrupting the checks being performed.
+     *
+     * @return True if the run was cancelled, false if it was already over.
+     */
+    public synchronized boolean cancel() {
+        final boolean result = !this.isOver();
+        if (result) {
+            this.over(Status.CANCELLED);
+            this.task.cancel(true);
+        }
+        return result;
+    }
+
+    /**
+     * Attaches a new viewer to the run, unless the run is over.
+     *
+     * @return The identifier of the viewer, or an empty optional if the run is over.
+     */
+    public synchronized Optional<String> attach() {
+        final Optional<String> result;
+        if (this.isOver()) {
+            result = Optional.empty();
+        } else {
+            final String viewer = UUID.randomUUID().toString();
+            this.viewers.add(viewer);
+            result = Optional.of(viewer);
+        }
+        return result;
+    }
+
+    /**
+     * Detaches the viewer from the run, cancelling the run if no other viewers are left. Detaching
+     * the same viewer again changes nothing.
+     *
+     * @param viewer The identifier of the viewer.
+     * @return True if the run was cancelled.
+     */
+    public synchronized boolean detach(final String viewer) {
+        return this.viewers.remove(viewer) && this.viewers.isEmpty() && this.cancel();
+    }
+
+    public String id() {
+        return this.id;
+    }
+
+    public Status status() {
+        return this.status;
+    }
+
+    public String revision() {
+        return this.revision;
+    }
+
+    /**
+     * Checks whether the run is over, i.e. finished, cancelled or failed.
+     *
+     * @return True if no more results are to be collected.
+     */
+    public boolean isOver() {
+        return this.status != Status.QUEUED && this.status != Status.RUNNING;
+    }
+
+    /**
+     * Returns the number of the checks to be performed.
+     *
+     * @return The number of checks, or 0 if they are still being collected.
+     */
+    public int scheduled() {
+        return this.suite.scheduled();
+    }
+
+    /**
+     * Returns the number of the checks finished so far.
+     *
+     * @return The number of collected results.
+     */
+    public synchronized int finished() {
+        return this.results.size();
+    }
+
+    /**
+     * Returns the results collected after the specified number of results.
+     *
+     * @param offset The number of results already seen.
+     * @return The results collected since then.
+     */
+    public synchronized List<TestResult> resultsFrom(final int offset) {
+        return List.copyOf(
+            this.results.subList(Math.min(offset, this.results.size()), this.results.size())
+        );
+    }
+
+    /**
+     * Describes the outcome of the run once it is over.
+     *
+     * @return The HTML description of the run statistics.
+     */
+    public String statsAsHtmlDiv() {
+        final String result;
+        if (this.status == Status.FINISHED) {
+            result = this.suite.statsAsHtmlDiv(this.elapsed);
+        } else {
+            result = "Run %s after %.3f second(s), %d of %d test(s) finished".formatted(
+                this.status.name().toLowerCase(Locale.ROOT),
+                this.elapsed,
+                this.finished(),
+                this.scheduled()
+            );
+        }
+        return result;
+    }
+
+    /**
+     * Describes the timings of the run phases once it is finished.
+     *
+     * @return The HTML table rows with the latency distributions of the phases.
+     */
+    public String timingsAsHtmlRows() {
+        return this.suite.timingsAsHtmlRows();
+    }
+
+    private synchronized boolean begin() {
+        final boolean result = this.status == Status.QUEUED;
+        if (result) {
+            this.status = Status.RUNNING;
+        }
+        return result;
+    }
+
+    private synchronized void over(final Status finished) {
+        if (!this.isOver()) {
+            this.elapsed = (System.currentTimeMillis() - this.start) / 1000.0;
+            this.status = finished;
+        }
+    }
+
+    private synchronized void add(final TestResult result) {
+        if (this.status == Status.RUNNING) {
+            this.results.add(result);
+        }
+    }
+
+    /**
+     * I am the status of a test run.
+     *
+     * @since 0.4.1
+     */
+    public enum Status {
+        /**
+         * The run waits for the other runs to finish.
+         */
+        QUEUED,
+
+        /**
+         * The checks are being performed.
+         */
+        RUNNING,
+
+        /**
+         * All the checks were performed.
+         */
+        FINISHED,
+
+        /**
+         * The run was cancelled by the user.
+         */
+        CANCELLED,
+
+        /**
+         * The run failed because of an unexpected error.
+         */
+        FAILED
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Decision-Driven Development
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package ru.ewc.checklogic.testing;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+
+/**
+ * I am a check that knows when it was started. My main responsibility is to let the suite tell
+ * how long the check has been running, to abandon it when it exceeds its time budget.
+ *
+ * @since 0.4.1
+ */
+final class TimedCheck implements Callable<TestResult> {
+    /**
+     * The check to perform.
+     */
+    private final Callable<TestResult> origin;
+
+    /**
+     * The moment the check was started, in nanoseconds.
+     */
+    private volatile long start;
+
+    /**
+     * Whether the check was started.
+     */
+    private volatile boolean started;
+
+    /**
+     * Whether the check is over, successfully or not.
+     */
+    private volatile boolean over;
+
+    TimedCheck(final Callable<TestResult> origin) {
+        this.origin = origin;
+    }
+
+    @Override
+    public TestResult call() throws Exception {
+        this.start = System.nanoTime();
+        this.started = true;
+        try {
+            return this.origin.call();
+        } finally {
+            this.over = true;
+        }
+    }
+
+    /**
+     * Returns the moment the check exceeds the time budget.
+     *
+     * @param budget The time budget of the check.
+     * @return The moment in nanoseconds, or {@link Long#MAX_VALUE} if the check is not started.
+     */
+    long deadline(final Duration budget) {
+        final long result;
+        if (this.started) {
+            result = this.start + budget.toNanos();
+        } else {
+            result = Long.MAX_VALUE;
+        }
+        return result;
+    }
+
+    /**
+     * Returns the time the check has been running.
+     *
+     * @return The nanoseconds elapsed since the start, or 0 if the check is not started.
+     */
+    long elapsed() {
+        final long result;
+        if (this.started) {
+            result = System.nanoTime() - this.start;
+        } else {
+            result = 0L;
+        }
+        return result;
+    }
+
+    /**
+     * Checks whether the check is being performed right now.
+     *
+     * @return True if the check was started and is not over yet.
+     */
+    boolean isRunning() {
+        return this.started && !this.over;
+    }
+}
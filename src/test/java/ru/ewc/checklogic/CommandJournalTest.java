@@ -0,0 +1,178 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Decision-Driven Development
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package ru.ewc.checklogic;
+
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * I test the {@link CommandJournal} class.
+ *
+ * @since 0.4.1
+ */
+final class CommandJournalTest {
+    @Test
+    void shouldReplayAppendedEntriesAfterReopening(@TempDir final Path folder) {
+        final CommandJournal journal = CommandJournal.open(folder, 10);
+        journal.append(Journal.Entry.command("move", Map.of("request::move", "A1")), Map::of);
+        journal.append(Journal.Entry.reset(), Map::of);
+        MatcherAssert.assertThat(
+            "Should replay all the entries in the order they were appended",
+            CommandJournal.open(folder, 10).recover(),
+            Matchers.equalTo(
+                new Journal.Recovery(
+                    Optional.empty(),
+                    List.of(
+                        Journal.Entry.command("move", Map.of("request::move", "A1")),
+                        Journal.Entry.reset()
+                    )
+                )
+            )
+        );
+    }
+
+    @Test
+    void shouldReplayOnlyTheTailAfterSnapshot(@TempDir final Path folder) {
+        final CommandJournal journal = CommandJournal.open(folder, 2);
+        final Map<String, Map<String, Object>> state = Map.of("cells", Map.of("A1", "X"));
+        journal.append(Journal.Entry.update(Map.of("player", "X")), () -> state);
+        journal.append(Journal.Entry.command("move", Map.of()), () -> state);
+        journal.append(Journal.Entry.update(Map.of("player", "O")), Map::of);
+        final Journal.Recovery recovery = CommandJournal.open(folder, 2).recover();
+        MatcherAssert.assertThat(
+            "Should load the snapshot taken after every two entries",
+            recovery.snapshot().orElseThrow(),
+            Matchers.equalTo(state)
+        );
+        MatcherAssert.assertThat(
+            "Should replay only the entries appended after the snapshot",
+            recovery.tail(),
+            Matchers.contains(Journal.Entry.update(Map.of("player", "O")))
+        );
+    }
+
+    @Test
+    void shouldDropTornRecord(@TempDir final Path folder) throws Exception {
+        CommandJournal.open(folder, 10).append(Journal.Entry.reset(), Map::of);
+        Files.write(
+            folder.resolve("journal-0.log"),
+            new byte[] {0, 0, 0, 42, 1, 2},
+            StandardOpenOption.APPEND
+        );
+        final CommandJournal journal = CommandJournal.open(folder, 10);
+        MatcherAssert.assertThat(
+            "Should replay only the complete entries",
+            journal.recover().tail(),
+            Matchers.contains(Journal.Entry.reset())
+        );
+        journal.append(Journal.Entry.update(Map.of("move", "B2")), Map::of);
+        MatcherAssert.assertThat(
+            "Should append new entries right after the complete ones",
+            CommandJournal.open(folder, 10).recover().tail(),
+            Matchers.contains(Journal.Entry.reset(), Journal.Entry.update(Map.of("move", "B2")))
+        );
+    }
+
+    @Test
+    void shouldDropRecordLongerThanLog(@TempDir final Path folder) throws Exception {
+        CommandJournal.open(folder, 10).append(Journal.Entry.reset(), Map::of);
+        Files.write(
+            folder.resolve("journal-0.log"),
+            new byte[] {127, -1, -1, -1, 0, 0, 0, 0},
+            StandardOpenOption.APPEND
+        );
+        MatcherAssert.assertThat(
+            "Should treat the length past the end of the log as a torn tail",
+            CommandJournal.open(folder, 10).recover().tail(),
+            Matchers.contains(Journal.Entry.reset())
+        );
+    }
+
+    @Test
+    void shouldNotAcceptEntriesAfterClosing(@TempDir final Path folder) {
+        final CommandJournal journal = CommandJournal.open(folder, 10);
+        journal.append(Journal.Entry.reset(), Map::of);
+        journal.close();
+        boolean failed;
+        try {
+            journal.append(Journal.Entry.update(Map.of("move", "B2")), Map::of);
+            failed = false;
+        } catch (final UncheckedIOException exception) {
+            failed = true;
+        }
+        MatcherAssert.assertThat(
+            "Should refuse to append to a closed journal",
+            failed,
+            Matchers.is(true)
+        );
+        MatcherAssert.assertThat(
+            "Should keep the entries appended before closing",
+            CommandJournal.open(folder, 10).recover().tail(),
+            Matchers.contains(Journal.Entry.reset())
+        );
+    }
+
+    @Test
+    void shouldDeleteEverythingKept(@TempDir final Path folder) {
+        final Path session = folder.resolve("session");
+        final CommandJournal journal = CommandJournal.open(session, 1);
+        journal.append(Journal.Entry.reset(), () -> Map.of("cells", Map.of("A1", "X")));
+        journal.delete();
+        MatcherAssert.assertThat(
+            "Should delete the folder of the journal",
+            Files.exists(session),
+            Matchers.is(false)
+        );
+    }
+
+    @Test
+    void shouldPruneJournalsOfExpiredSessions(@TempDir final Path folder) throws Exception {
+        final Instant now = Instant.now();
+        CommandJournal.open(folder.resolve("fresh"), 10).append(Journal.Entry.reset(), Map::of);
+        final Path expired = folder.resolve("expired");
+        CommandJournal.open(expired, 10).append(Journal.Entry.reset(), Map::of);
+        final FileTime old = FileTime.from(now.minus(Duration.ofHours(2)));
+        Files.setLastModifiedTime(expired.resolve("journal-0.log"), old);
+        Files.setLastModifiedTime(expired, old);
+        CommandJournal.prune(folder, now.minus(Duration.ofHours(1)));
+        MatcherAssert.assertThat(
+            "Should delete only the journals not changed since the sessions expired",
+            List.of(Files.exists(folder.resolve("fresh")), Files.exists(expired)),
+            Matchers.contains(true, false)
+        );
+    }
+}
@@ -0,0 +1,195 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Decision-Driven Development
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package ru.ewc.checklogic;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import ru.ewc.decisions.api.ComputationContext;
+import ru.ewc.decisions.api.DecitaException;
+import ru.ewc.decisions.api.InMemoryLocator;
+import ru.ewc.decisions.api.Locator;
+import ru.ewc.decisions.input.CombinedCsvFileReader;
+import ru.ewc.state.State;
+
+/**
+ * I test the {@link CompiledTable} class against the tables interpreted by decita, making the same
+ * decisions on the same tables and inputs.
+ *
+ * @since 0.4.1
+ */
+final class CompiledTableTest {
+    /**
+     * The values of the condition bases to make the decisions for, {@code null} for a missing one.
+     */
+    private static final List<String> VALUES = Collections.unmodifiableList(
+        Arrays.asList("A", "B", "true", "false", "maybe", "", null)
+    );
+
+    @Test
+    void shouldCompileOnlyExclusiveTablesWithElseRule(@TempDir final Path folder)
+        throws IOException {
+        MatcherAssert.assertThat(
+            "Should leave the overlapping tables and the tables without an else rule interpreted",
+            new CachedTables(CompiledTableTest.reader(folder), true).compiledNames(),
+            Matchers.contains("exclusive")
+        );
+    }
+
+    @Test
+    void shouldMakeSameDecisionsAsInterpretedTables(@TempDir final Path folder)
+        throws IOException {
+        final List<String> interpreted = new ArrayList<>(0);
+        final List<String> compiled = new ArrayList<>(0);
+        for (final String kind : CompiledTableTest.VALUES) {
+            for (final String flag : CompiledTableTest.VALUES) {
+                for (final String table : List.of("exclusive", "overlapping", "partial")) {
+                    interpreted.add(
+                        CompiledTableTest.outcome(
+                            CompiledTableTest.context(folder, false, kind, flag),
+                            table,
+                            "outcome"
+                        )
+                    );
+                    compiled.add(
+                        CompiledTableTest.outcome(
+                            CompiledTableTest.context(folder, true, kind, flag),
+                            table,
+                            "outcome"
+                        )
+                    );
+                }
+            }
+        }
+        MatcherAssert.assertThat(
+            "Should make the same decisions with the else rule, '!', '~' and missing fragments",
+            compiled,
+            Matchers.is(interpreted)
+        );
+    }
+
+    @Test
+    void shouldFailLikeInterpretedTableOnUnknownOutcome(@TempDir final Path folder)
+        throws IOException {
+        MatcherAssert.assertThat(
+            "Should fail to give an outcome the table does not have",
+            CompiledTableTest.outcome(
+                CompiledTableTest.context(folder, true, "A", "true"),
+                "exclusive",
+                "unknown"
+            ),
+            Matchers.is(
+                CompiledTableTest.outcome(
+                    CompiledTableTest.context(folder, false, "A", "true"),
+                    "exclusive",
+                    "unknown"
+                )
+            )
+        );
+    }
+
+    @Test
+    void shouldIgnoreAssignmentToOutcome(@TempDir final Path folder) throws IOException {
+        final ComputationContext context = CompiledTableTest.context(folder, true, "A", "true");
+        context.setValueFor("exclusive", "outcome", "changed");
+        MatcherAssert.assertThat(
+            "Should keep deciding on the inputs after an assignment to the outcome",
+            CompiledTableTest.outcome(context, "exclusive", "outcome"),
+            Matchers.is("first")
+        );
+    }
+
+    private static String outcome(
+        final ComputationContext context,
+        final String table,
+        final String outcome
+    ) {
+        String result;
+        try {
+            result = context.valueFor(table, outcome);
+        } catch (final DecitaException | IllegalArgumentException exception) {
+            result = "failed";
+        }
+        return result;
+    }
+
+    private static ComputationContext context(
+        final Path folder,
+        final boolean compile,
+        final String kind,
+        final String flag
+    ) throws IOException {
+        final Map<String, Object> data = new HashMap<>();
+        if (kind != null) {
+            data.put("kind", kind);
+        }
+        if (flag != null) {
+            data.put("flag", flag);
+        }
+        final List<Locator> locators = new ArrayList<>(1);
+        locators.add(new InMemoryLocator("data", data));
+        final CachedTables tables = new CachedTables(CompiledTableTest.reader(folder), compile);
+        return new ComputationContext(
+            tables.withCompiled(new State(locators)),
+            tables.decisionTables()
+        );
+    }
+
+    private static CombinedCsvFileReader reader(final Path folder) throws IOException {
+        CompiledTableTest.write(
+            folder.resolve("exclusive.csv"),
+            "CND;data::kind;A;!A;~",
+            "CND;data::flag;true;true;false",
+            "OUT;outcome;first;second;third;other"
+        );
+        CompiledTableTest.write(
+            folder.resolve("overlapping.csv"),
+            "CND;data::kind;A;~",
+            "CND;data::flag;~;true",
+            "OUT;outcome;first;second;other"
+        );
+        CompiledTableTest.write(
+            folder.resolve("partial.csv"),
+            "CND;data::kind;A;B",
+            "OUT;outcome;first;second"
+        );
+        return new CombinedCsvFileReader(folder.toUri(), ".csv", ";");
+    }
+
+    private static void write(final Path file, final String... lines) throws IOException {
+        Files.writeString(file, String.join("\n", lines), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,236 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Decision-Driven Development
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package ru.ewc.checklogic;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+
+/**
+ * I test the {@link EvaluationMemo} class.
+ *
+ * @since 0.4.1
+ */
+final class EvaluationMemoTest {
+    @Test
+    void shouldForgetDecisionsComputedFromChangedFragment() {
+        final EvaluationMemo memo = new EvaluationMemo();
+        final AtomicInteger decisions = new AtomicInteger();
+        EvaluationMemoTest.decide(memo, decisions);
+        EvaluationMemoTest.decide(memo, decisions);
+        memo.invalidate("cells", "A1");
+        EvaluationMemoTest.decide(memo, decisions);
+        MatcherAssert.assertThat(
+            "Should compute the decision again only after its fragment is changed",
+            decisions.get(),
+            Matchers.is(2)
+        );
+    }
+
+    @Test
+    void shouldKeepDecisionsNotDependingOnChangedFragment() {
+        final EvaluationMemo memo = new EvaluationMemo();
+        final AtomicInteger decisions = new AtomicInteger();
+        EvaluationMemoTest.decide(memo, decisions);
+        memo.invalidate("cells", "B2");
+        EvaluationMemoTest.decide(memo, decisions);
+        MatcherAssert.assertThat(
+            "Should not compute the decision again after an unrelated change",
+            decisions.get(),
+            Matchers.is(1)
+        );
+    }
+
+    @Test
+    void shouldForgetDecisionsDependingOnChangeThroughOtherValues() {
+        final EvaluationMemo memo = new EvaluationMemo();
+        final AtomicInteger decisions = new AtomicInteger();
+        EvaluationMemoTest.decide(memo, decisions);
+        memo.decision(
+            "game_state",
+            () -> Map.of("is_over", memo.decision("winner", Map::of).getOrDefault("X", "false"))
+        );
+        memo.invalidate("cells", "A1");
+        MatcherAssert.assertThat(
+            "Should forget both the decision and the decisions using it",
+            memo.size(),
+            Matchers.is(0)
+        );
+    }
+
+    @Test
+    void shouldRememberFunctionsForSingleEvaluationOnly() {
+        final EvaluationMemo memo = new EvaluationMemo();
+        final AtomicInteger calls = new AtomicInteger();
+        final AtomicInteger decisions = new AtomicInteger();
+        for (int evaluation = 0; evaluation < 2; evaluation += 1) {
+            final EvaluationMemo.Evaluation current = new EvaluationMemo.Evaluation();
+            for (int attempt = 0; attempt < 2; attempt += 1) {
+                memo.decision(
+                    "clock",
+                    () -> {
+                        decisions.incrementAndGet();
+                        return Map.of(
+                            "now",
+                            memo.function(
+                                current,
+                                "function",
+                                "now",
+                                () -> "%d".formatted(calls.incrementAndGet())
+                            )
+                        );
+                    }
+                );
+            }
+        }
+        MatcherAssert.assertThat(
+            "Should call the function once per evaluation",
+            calls.get(),
+            Matchers.is(2)
+        );
+        MatcherAssert.assertThat(
+            "Should not remember the decision computed from the function",
+            decisions.get(),
+            Matchers.is(4)
+        );
+    }
+
+    @Test
+    void shouldCallFunctionAgainAfterFragmentItReadChanges() {
+        final EvaluationMemo memo = new EvaluationMemo();
+        final EvaluationMemo.Evaluation evaluation = new EvaluationMemo.Evaluation();
+        final AtomicInteger calls = new AtomicInteger();
+        for (int attempt = 0; attempt < 2; attempt += 1) {
+            memo.function(
+                evaluation,
+                "function",
+                "next_player",
+                () -> memo.fragment("cells", "A1", () -> "X") + calls.incrementAndGet()
+            );
+            memo.function(evaluation, "function", "next_player", () -> "unexpected");
+            memo.invalidate(evaluation, "cells", "A1");
+        }
+        MatcherAssert.assertThat(
+            "Should call the function again only after the fragment it read is changed",
+            calls.get(),
+            Matchers.is(2)
+        );
+    }
+
+    @Test
+    void shouldForgetDecisionsUsingFailedFragmentAfterItChanges() {
+        final EvaluationMemo memo = new EvaluationMemo();
+        final AtomicInteger decisions = new AtomicInteger();
+        for (int attempt = 0; attempt < 2; attempt += 1) {
+            memo.decision(
+                "winner",
+                () -> {
+                    decisions.incrementAndGet();
+                    String value;
+                    try {
+                        value = memo.fragment(
+                            "cells",
+                            "A1",
+                            () -> {
+                                throw new IllegalStateException("no such fragment");
+                            }
+                        );
+                    } catch (final IllegalStateException exception) {
+                        value = "none";
+                    }
+                    return Map.of("X", value);
+                }
+            );
+            memo.invalidate("cells", "A1");
+        }
+        MatcherAssert.assertThat(
+            "Should compute the decision again after the fragment that failed is changed",
+            decisions.get(),
+            Matchers.is(2)
+        );
+    }
+
+    @Test
+    void shouldShareValuesWithForkWithoutSharingChanges() {
+        final EvaluationMemo memo = new EvaluationMemo();
+        final AtomicInteger decisions = new AtomicInteger();
+        EvaluationMemoTest.decide(memo, decisions);
+        final EvaluationMemo fork = memo.fork();
+        EvaluationMemoTest.decide(fork, decisions);
+        fork.invalidate("cells", "A1");
+        EvaluationMemoTest.decide(memo, decisions);
+        EvaluationMemoTest.decide(fork, decisions);
+        MatcherAssert.assertThat(
+            "Should reuse the values of the parent and forget them only in the fork",
+            decisions.get(),
+            Matchers.is(2)
+        );
+    }
+
+    @Test
+    void shouldHideParentValuesComputedFromFragmentsChangedInFork() {
+        final EvaluationMemo memo = new EvaluationMemo();
+        final AtomicInteger decisions = new AtomicInteger();
+        final EvaluationMemo fork = memo.fork();
+        fork.invalidate("cells", "A1");
+        fork.invalidate("request");
+        EvaluationMemoTest.decide(memo, decisions);
+        memo.fragment("request", "move", () -> "A1");
+        MatcherAssert.assertThat(
+            "Should not see the values the parent computed from the fragments changed in the fork",
+            fork.size(),
+            Matchers.is(0)
+        );
+    }
+
+    @Test
+    void shouldKeepValuesWhenMergingLongChainOfForks() {
+        EvaluationMemo memo = new EvaluationMemo();
+        final AtomicInteger decisions = new AtomicInteger();
+        EvaluationMemoTest.decide(memo, decisions);
+        for (int fork = 0; fork < 40; fork += 1) {
+            memo = memo.fork();
+            memo.invalidate("cells", "B%d".formatted(fork));
+        }
+        EvaluationMemoTest.decide(memo, decisions);
+        MatcherAssert.assertThat(
+            "Should remember the values through all the forks",
+            decisions.get(),
+            Matchers.is(1)
+        );
+    }
+
+    private static void decide(final EvaluationMemo memo, final AtomicInteger decisions) {
+        memo.decision(
+            "winner",
+            () -> {
+                decisions.incrementAndGet();
+                return Map.of("X", memo.fragment("cells", "A1", () -> "X"));
+            }
+        );
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Decision-Driven Development
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package ru.ewc.checklogic;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+import ru.ewc.decisions.api.ComputationContext;
+import ru.ewc.decisions.api.Locator;
+
+/**
+ * I test the {@link MemoizingLocator} class.
+ *
+ * @since 0.4.1
+ */
+final class MemoizingLocatorTest {
+    @Test
+    void shouldResolveEveryFragmentOnlyOnce() {
+        final AtomicInteger calls = new AtomicInteger();
+        final Locator target = new MemoizingLocator(
+            MemoizingLocatorTest.counting(calls),
+            new EvaluationMemo()
+        );
+        target.fragmentBy("winner", null);
+        target.fragmentBy("winner", null);
+        target.fragmentBy("is_over", null);
+        MatcherAssert.assertThat(
+            "Should resolve the same fragment only once",
+            calls.get(),
+            Matchers.is(2)
+        );
+    }
+
+    @Test
+    void shouldForgetValuesOnAssignment() {
+        final AtomicInteger calls = new AtomicInteger();
+        final Locator target = new MemoizingLocator(
+            MemoizingLocatorTest.counting(calls),
+            new EvaluationMemo()
+        );
+        target.fragmentBy("winner", null);
+        target.setFragmentValue("winner", "X");
+        MatcherAssert.assertThat(
+            "Should resolve the fragment again after an assignment",
+            target.fragmentBy("winner", null),
+            Matchers.is("winner#2")
+        );
+    }
+
+    private static Locator counting(final AtomicInteger calls) {
+        return new Locator() {
+            @Override
+            public String fragmentBy(final String fragment, final ComputationContext context) {
+                return "%s#%d".formatted(fragment, calls.incrementAndGet());
+            }
+
+            @Override
+            public void setFragmentValue(final String fragment, final String value) {
+                // nothing to store
+            }
+
+            @Override
+            public String locatorName() {
+                return "counting";
+            }
+        };
+    }
+}
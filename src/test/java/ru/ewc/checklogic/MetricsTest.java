@@ -0,0 +1,96 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Decision-Driven Development
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package ru.ewc.checklogic;
+
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+
+/**
+ * I test the {@link Metrics} class.
+ *
+ * @since 0.4.1
+ */
+final class MetricsTest {
+    @Test
+    void shouldDescribeHistogramWithCumulativeBuckets() {
+        final Metrics metrics = new Metrics();
+        final Metrics.Histogram histogram = metrics.histogram(
+            "checker_sample_seconds",
+            "Sample latency",
+            "route", "/state"
+        );
+        histogram.observe(2_000_000L);
+        histogram.observe(20_000_000_000L);
+        MatcherAssert.assertThat(
+            "Should count every observation in all the buckets not less than it",
+            metrics.asPrometheusText(),
+            Matchers.allOf(
+                Matchers.containsString("# TYPE checker_sample_seconds histogram\n"),
+                Matchers.containsString("_bucket{route=\"/state\",le=\"0.001\"} 0\n"),
+                Matchers.containsString("_bucket{route=\"/state\",le=\"0.0025\"} 1\n"),
+                Matchers.containsString("_bucket{route=\"/state\",le=\"+Inf\"} 2\n"),
+                Matchers.containsString("checker_sample_seconds_sum{route=\"/state\"} 20.002000\n")
+            )
+        );
+    }
+
+    @Test
+    void shouldDescribeCounterAndJvmStats() {
+        final Metrics metrics = new Metrics();
+        metrics.counter("checker_sample_total", "Sample counter", "result", "PASS").increment();
+        MatcherAssert.assertThat(
+            "Should describe the counter and the JVM heap usage",
+            metrics.asPrometheusText(),
+            Matchers.allOf(
+                Matchers.containsString("checker_sample_total{result=\"PASS\"} 1\n"),
+                Matchers.containsString("# TYPE jvm_memory_heap_used_bytes gauge\n")
+            )
+        );
+    }
+
+    @Test
+    void shouldKeepHandlesOfLabelledMetrics() {
+        final Metrics metrics = new Metrics();
+        final Metrics.Labelled<Metrics.Counter> counters = metrics.counters(
+            "checker_sample_total",
+            "Sample counter",
+            "result"
+        );
+        counters.of("PASS").increment();
+        counters.of("PASS").increment();
+        MatcherAssert.assertThat(
+            "Should give the same counter registered under the label value",
+            counters.of("PASS"),
+            Matchers.sameInstance(
+                metrics.counter("checker_sample_total", "Sample counter", "result", "PASS")
+            )
+        );
+        MatcherAssert.assertThat(
+            "Should count every increment of the kept counter",
+            counters.of("PASS").value(),
+            Matchers.is(2L)
+        );
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Decision-Driven Development
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package ru.ewc.checklogic;
+
+import java.util.HashMap;
+import java.util.Map;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+
+/**
+ * I test the {@link PersistentMap} class.
+ *
+ * @since 0.4.1
+ */
+final class PersistentMapTest {
+    @Test
+    void shouldBehaveAsRegularMap() {
+        final Map<String, Object> expected = new HashMap<>();
+        final PersistentMap map = new PersistentMap();
+        for (int index = 0; index < 1000; index += 1) {
+            expected.put("A%d".formatted(index), index);
+            map.put("A%d".formatted(index), index);
+        }
+        for (int index = 0; index < 1000; index += 3) {
+            expected.remove("A%d".formatted(index));
+            map.remove("A%d".formatted(index));
+        }
+        MatcherAssert.assertThat(
+            "Should keep the same entries as a hash map",
+            map,
+            Matchers.equalTo(expected)
+        );
+    }
+
+    @Test
+    void shouldKeepKeysWithSameHash() {
+        final PersistentMap map = new PersistentMap();
+        map.put("Aa", "first");
+        map.put("BB", "second");
+        map.put("Aa", "changed");
+        map.remove("BB");
+        MatcherAssert.assertThat(
+            "Should tell apart the keys with the same hash code",
+            map,
+            Matchers.equalTo(Map.of("Aa", "changed"))
+        );
+    }
+
+    @Test
+    void shouldNotShareChangesWithCopies() {
+        final PersistentMap original = PersistentMap.copyOf(Map.of("A1", "empty", "B2", "X"));
+        final PersistentMap copy = original.copy();
+        copy.put("A1", "O");
+        copy.remove("B2");
+        MatcherAssert.assertThat(
+            "Should keep the original entries after changing the copy",
+            original,
+            Matchers.equalTo(Map.of("A1", "empty", "B2", "X"))
+        );
+        MatcherAssert.assertThat(
+            "Should change only the copy",
+            copy,
+            Matchers.equalTo(Map.of("A1", "O"))
+        );
+    }
+
+    @Test
+    void shouldFindOnlyChangedKeys() {
+        final PersistentMap original = new PersistentMap();
+        for (int index = 0; index < 500; index += 1) {
+            original.put("C%d".formatted(index), "empty");
+        }
+        final PersistentMap changed = original.copy();
+        changed.put("C7", "X");
+        changed.put("C8", "empty");
+        changed.remove("C9");
+        changed.put("D1", "O");
+        MatcherAssert.assertThat(
+            "Should report the changed, removed and added keys only",
+            PersistentMap.changedKeys(original, changed),
+            Matchers.containsInAnyOrder("C7", "C9", "D1")
+        );
+    }
+}
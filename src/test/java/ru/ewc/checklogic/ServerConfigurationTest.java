@@ -23,9 +23,15 @@
  */
 package ru.ewc.checklogic;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
 import org.hamcrest.MatcherAssert;
 import org.hamcrest.Matchers;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 /**
  * I am a test class for the {@link ServerConfiguration} class.
@@ -74,4 +80,76 @@ final class ServerConfigurationTest {
             Matchers.is("enabled")
         );
     }
+
+    @Test
+    void shouldFallBackToSingleThreadForInvalidParallelism() {
+        final ServerConfiguration context = new ServerConfiguration("any");
+        context.setParameterValue("parallelism", "many");
+        MatcherAssert.assertThat(
+            "Context server should run tests in a single thread if parallelism is not a number",
+            context.parallelism(),
+            Matchers.is(1)
+        );
+    }
+
+    @Test
+    void shouldNotCompileTablesByDefault() {
+        MatcherAssert.assertThat(
+            "Context server should interpret the tables unless the compilation is turned on",
+            new ServerConfiguration("any").compileTables(),
+            Matchers.is(false)
+        );
+    }
+
+    @Test
+    void shouldCompileTablesIfTurnedOn(@TempDir final Path root) throws IOException {
+        Files.writeString(
+            root.resolve("application.yaml"),
+            "locators:\n  - table\ncompileTables: true\n",
+            StandardCharsets.UTF_8
+        );
+        MatcherAssert.assertThat(
+            "Context server should compile the tables if the application config says so",
+            new ServerConfiguration(root.toString()).compileTables(),
+            Matchers.is(true)
+        );
+    }
+
+    @Test
+    void shouldReadParametersFromApplicationConfig(@TempDir final Path root) throws IOException {
+        Files.writeString(
+            root.resolve("application.yaml"),
+            String.join(
+                "\n",
+                "locators:",
+                "  - table",
+                "parallelism: 3",
+                "delimiter: ;",
+                ""
+            ),
+            StandardCharsets.UTF_8
+        );
+        final ServerConfiguration context = new ServerConfiguration(root.toString());
+        MatcherAssert.assertThat(
+            "Context server should take the parameters from the application config",
+            List.of(context.parallelism(), context.getParameterValue("delimiter")),
+            Matchers.contains(3, ";")
+        );
+    }
+
+    @Test
+    void shouldIgnoreUnknownAndNestedKeysOfApplicationConfig(@TempDir final Path root)
+        throws IOException {
+        Files.writeString(
+            root.resolve("application.yaml"),
+            "locators:\n  - table\nunknown: value\nrequest:\n  nested: value\n",
+            StandardCharsets.UTF_8
+        );
+        final ServerConfiguration context = new ServerConfiguration(root.toString());
+        MatcherAssert.assertThat(
+            "Context server should keep the defaults for the sections that are not parameters",
+            List.of(context.getParameterValue("unknown"), context.requestLocatorName()),
+            Matchers.contains("", "request")
+        );
+    }
 }
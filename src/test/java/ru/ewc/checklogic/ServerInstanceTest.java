@@ -0,0 +1,317 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Decision-Driven Development
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package ru.ewc.checklogic;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import ru.ewc.checklogic.testing.FunctionsLocator;
+import ru.ewc.decisions.api.DecitaException;
+import ru.ewc.state.State;
+
+/**
+ * I test the {@link ServerInstance} class.
+ *
+ * @since 0.4.1
+ */
+final class ServerInstanceTest {
+    /**
+     * The number of threads to use in the stress tests.
+     */
+    private static final int THREADS = 16;
+
+    /**
+     * The number of operations every thread performs.
+     */
+    private static final int OPERATIONS = 200;
+
+    @Test
+    void shouldNeverExposeHalfUpdatedState() throws Exception {
+        final ServerInstance target = ServerInstance.testable();
+        final List<Callable<Integer>> tasks = new ArrayList<>(ServerInstanceTest.THREADS);
+        for (int thread = 0; thread < ServerInstanceTest.THREADS; thread += 1) {
+            final int id = thread;
+            if (id % 2 == 0) {
+                tasks.add(() -> ServerInstanceTest.update(target, id));
+            } else {
+                tasks.add(() -> ServerInstanceTest.tornReads(target));
+            }
+        }
+        MatcherAssert.assertThat(
+            "Should never let the readers see only a part of an update",
+            ServerInstanceTest.sumOf(tasks),
+            Matchers.is(0)
+        );
+    }
+
+    @Test
+    void shouldKeepStateConsistentAfterConcurrentResets() throws Exception {
+        final ServerInstance target = ServerInstance.testable();
+        final List<Callable<Integer>> tasks = new ArrayList<>(ServerInstanceTest.THREADS);
+        for (int thread = 0; thread < ServerInstanceTest.THREADS; thread += 1) {
+            final int id = thread;
+            tasks.add(
+                () -> {
+                    for (int step = 0; step < ServerInstanceTest.OPERATIONS; step += 1) {
+                        if (step % 10 == 0) {
+                            target.initialize();
+                        } else {
+                            target.update(List.of("step: %d-%d".formatted(id, step)));
+                        }
+                        target.tableNames();
+                    }
+                    return 0;
+                }
+            );
+        }
+        ServerInstanceTest.sumOf(tasks);
+        MatcherAssert.assertThat(
+            "Should keep the initial entities after all the changes",
+            target.valueFor("locator", "fragment"),
+            Matchers.is("value")
+        );
+    }
+
+    @Test
+    void shouldCheckFunctionsOfCurrentState(@TempDir final Path root) throws Exception {
+        final Path functions = root.resolve("functions");
+        Files.createDirectories(functions);
+        Files.writeString(functions.resolve("answer.groovy"), "42", StandardCharsets.UTF_8);
+        final ServerConfiguration config = new ServerConfiguration(root.toString());
+        final ServerInstance target = new ServerInstance(
+            () -> new State(List.of(new FunctionsLocator("function", functions))),
+            new TableSource(config, root.resolve("tables").toUri()),
+            config
+        );
+        MatcherAssert.assertThat(
+            "Should find only the functions of the current state",
+            List.of(
+                target.isNotSpecified("function::answer"),
+                target.isNotSpecified("function::question")
+            ),
+            Matchers.contains(false, true)
+        );
+    }
+
+    @Test
+    void shouldPreviewCommandWithoutChangingState() throws Exception {
+        final ServerInstance target = ServerContextFactory.create(
+            Path.of(
+                Thread.currentThread().getContextClassLoader().getResource("tic-tac-toe").toURI()
+            ).toString()
+        ).initialState();
+        target.perform("initialize", Map.of());
+        final CommandPreview preview = target.preview(
+            "computed_move",
+            Map.of("request::move", "A1", "request::player", "X")
+        );
+        MatcherAssert.assertThat(
+            "Should show the changed fragments",
+            preview.changes(),
+            Matchers.allOf(
+                Matchers.hasEntry("cells::A1", new CommandPreview.Change("empty", "X")),
+                Matchers.hasEntry("table::currentPlayer", new CommandPreview.Change("X", "O"))
+            )
+        );
+        MatcherAssert.assertThat(
+            "Should compute the decisions affected by the changes",
+            preview.decisions(),
+            Matchers.hasEntry("selected_cell", Map.of("is_empty", "false"))
+        );
+        MatcherAssert.assertThat(
+            "Should keep the state of the instance as it was",
+            List.of(target.valueFor("cells", "A1"), target.historySize()),
+            Matchers.contains("empty", 2)
+        );
+    }
+
+    @Test
+    void shouldPerformAndPreviewCommandsConcurrently() throws Exception {
+        final ServerContextFactory factory = ServerContextFactory.create(
+            Path.of(
+                Thread.currentThread().getContextClassLoader().getResource("tic-tac-toe").toURI()
+            ).toString()
+        );
+        final ServerInstance target = factory.initialState();
+        target.perform("initialize", Map.of());
+        final Map<String, String> move = Map.of("request::move", "A1", "request::player", "X");
+        final List<Callable<Integer>> tasks = new ArrayList<>(ServerInstanceTest.THREADS);
+        for (int thread = 0; thread < ServerInstanceTest.THREADS; thread += 1) {
+            final int id = thread;
+            if (id == 0) {
+                tasks.add(() -> ServerInstanceTest.reconfigure(factory.configuration()));
+            } else if (id % 2 == 0) {
+                tasks.add(() -> ServerInstanceTest.moves(target, move));
+            } else {
+                tasks.add(() -> ServerInstanceTest.previews(target, move));
+            }
+        }
+        MatcherAssert.assertThat(
+            "Should preview every move consistently while the moves are performed",
+            ServerInstanceTest.sumOf(tasks),
+            Matchers.is(0)
+        );
+        MatcherAssert.assertThat(
+            "Should keep only the changes of the performed commands",
+            List.of(target.valueFor("cells", "A1"), target.valueFor("table", "currentPlayer")),
+            Matchers.contains("empty", "X")
+        );
+    }
+
+    @Test
+    void shouldNotPublishChangeThatFailedToBeJournaled() {
+        final ServerConfiguration config = new ServerConfiguration("any");
+        final ServerInstance target = new ServerInstance(
+            new MockStateFactory(),
+            new TableSource(config, Path.of("any", "tables").toUri()),
+            config,
+            new Journal() {
+                @Override
+                public void append(
+                    final Entry entry,
+                    final Supplier<Map<String, Map<String, Object>>> state
+                ) {
+                    throw new UncheckedIOException(new IOException("disk is full"));
+                }
+
+                @Override
+                public void snapshot(final Map<String, Map<String, Object>> state) {
+                    throw new UncheckedIOException(new IOException("disk is full"));
+                }
+
+                @Override
+                public Recovery recover() {
+                    return new Recovery(Optional.empty(), List.of());
+                }
+
+                @Override
+                public void close() {
+                    // nothing to release
+                }
+
+                @Override
+                public void delete() {
+                    // nothing to delete
+                }
+            }
+        );
+        boolean failed;
+        try {
+            target.update(List.of("first: changed"));
+            failed = false;
+        } catch (final UncheckedIOException exception) {
+            failed = true;
+        }
+        MatcherAssert.assertThat(
+            "Should report the failure and keep the state the change was not journaled for",
+            List.of(
+                failed,
+                target.storedState().getOrDefault("request", Map.of()).containsKey("first"),
+                target.historySize()
+            ),
+            Matchers.contains(true, false, 1)
+        );
+    }
+
+    private static int update(final ServerInstance target, final int id) {
+        for (int step = 0; step < ServerInstanceTest.OPERATIONS; step += 1) {
+            final String value = "%d-%d".formatted(id, step);
+            target.update(List.of("first: %s".formatted(value), "second: %s".formatted(value)));
+        }
+        return 0;
+    }
+
+    private static int moves(final ServerInstance target, final Map<String, String> move)
+        throws DecitaException {
+        for (int step = 0; step < ServerInstanceTest.OPERATIONS / 10; step += 1) {
+            target.perform("computed_move", move);
+            target.perform("initialize", Map.of());
+        }
+        return 0;
+    }
+
+    private static int previews(final ServerInstance target, final Map<String, String> move)
+        throws DecitaException {
+        int result = 0;
+        for (int step = 0; step < ServerInstanceTest.OPERATIONS / 10; step += 1) {
+            final CommandPreview.Change cell = target.preview("computed_move", move)
+                .changes()
+                .get("cells::A1");
+            if (cell != null && !cell.equals(new CommandPreview.Change("empty", "X"))) {
+                result += 1;
+            }
+        }
+        return result;
+    }
+
+    private static int reconfigure(final ServerConfiguration config) {
+        for (int step = 0; step < ServerInstanceTest.OPERATIONS; step += 1) {
+            config.setParameterValue("historySize", String.valueOf(1000 - step % 2));
+            config.historySize();
+        }
+        return 0;
+    }
+
+    private static int tornReads(final ServerInstance target) {
+        int result = 0;
+        for (int step = 0; step < ServerInstanceTest.OPERATIONS; step += 1) {
+            final Map<String, Object> request = target.storedState()
+                .getOrDefault("request", Map.of());
+            if (!Objects.equals(request.get("first"), request.get("second"))) {
+                result += 1;
+            }
+        }
+        return result;
+    }
+
+    private static int sumOf(final List<Callable<Integer>> tasks) throws Exception {
+        final ExecutorService executor = Executors.newFixedThreadPool(ServerInstanceTest.THREADS);
+        int result = 0;
+        try {
+            for (final Future<Integer> future : executor.invokeAll(tasks)) {
+                result += future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        return result;
+    }
+}
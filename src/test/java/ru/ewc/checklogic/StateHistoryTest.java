@@ -0,0 +1,92 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Decision-Driven Development
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package ru.ewc.checklogic;
+
+import java.util.List;
+import java.util.Optional;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+import ru.ewc.state.State;
+
+/**
+ * I test the {@link StateHistory} class.
+ *
+ * @since 0.4.1
+ */
+final class StateHistoryTest {
+    @Test
+    void shouldUndoAndRedoChanges() {
+        final StateHistory history = new StateHistory(10);
+        final State first = new State(List.of());
+        final State second = new State(List.of());
+        history.record(first);
+        history.record(second);
+        MatcherAssert.assertThat(
+            "Should move back to the previous state",
+            history.undo(),
+            Matchers.equalTo(Optional.of(first))
+        );
+        MatcherAssert.assertThat(
+            "Should move forward to the undone state",
+            history.redo(),
+            Matchers.equalTo(Optional.of(second))
+        );
+        MatcherAssert.assertThat(
+            "Should not move past the latest state",
+            history.redo(),
+            Matchers.equalTo(Optional.empty())
+        );
+    }
+
+    @Test
+    void shouldDropUndoneStatesOnNewChange() {
+        final StateHistory history = new StateHistory(10);
+        history.record(new State(List.of()));
+        history.record(new State(List.of()));
+        history.undo();
+        history.record(new State(List.of()));
+        MatcherAssert.assertThat(
+            "Should replace the undone state with the new one",
+            history.size(),
+            Matchers.is(2)
+        );
+    }
+
+    @Test
+    void shouldKeepOnlyLatestStates() {
+        final StateHistory history = new StateHistory(3);
+        final State oldest = new State(List.of());
+        history.record(new State(List.of()));
+        history.record(oldest);
+        history.record(new State(List.of()));
+        history.record(new State(List.of()));
+        MatcherAssert.assertThat(
+            "Should keep the oldest state within the limit as the first step",
+            history.jump(0),
+            Matchers.equalTo(Optional.of(oldest))
+        );
+    }
+}
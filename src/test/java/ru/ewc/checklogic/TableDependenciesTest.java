@@ -0,0 +1,102 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Decision-Driven Development
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package ru.ewc.checklogic;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import ru.ewc.decisions.input.CombinedCsvFileReader;
+
+/**
+ * I test the {@link TableDependencies} class.
+ *
+ * @since 0.4.1
+ */
+final class TableDependenciesTest {
+    @Test
+    void shouldFindTablesReadingChangedFragment(@TempDir final Path folder) throws IOException {
+        final TableDependencies target = TableDependenciesTest.dependencies(folder);
+        MatcherAssert.assertThat(
+            "Should find the tables reading the fragment directly and through other tables",
+            target.affectedBy("cells", "A1"),
+            Matchers.containsInAnyOrder("winner", "game_state", "selected")
+        );
+    }
+
+    @Test
+    void shouldIgnoreTablesNotReadingChangedFragment(@TempDir final Path folder)
+        throws IOException {
+        final TableDependencies target = TableDependenciesTest.dependencies(folder);
+        MatcherAssert.assertThat(
+            "Should find only the tables reading any fragment of the locator",
+            List.of(target.affectedBy("cells", "B2"), target.affectedBy("constant", "X")),
+            Matchers.contains(Matchers.contains("selected"), Matchers.empty())
+        );
+    }
+
+    @Test
+    void shouldFindTablesReadingComputedFragment(@TempDir final Path folder) throws IOException {
+        final TableDependencies target = TableDependenciesTest.dependencies(folder);
+        MatcherAssert.assertThat(
+            "Should find the tables reading the coordinates inside the braces",
+            List.of(target.affectedBy("request", "move"), target.affectedBy("cells")),
+            Matchers.contains(
+                Matchers.contains("selected"),
+                Matchers.containsInAnyOrder("winner", "game_state", "selected")
+            )
+        );
+    }
+
+    private static TableDependencies dependencies(final Path folder) throws IOException {
+        TableDependenciesTest.write(
+            folder.resolve("winner.csv"),
+            "CND;cells::A1;X;O",
+            "OUT;X;true;false;false"
+        );
+        TableDependenciesTest.write(
+            folder.resolve("game_state.csv"),
+            "CND;winner::X;true",
+            "OUT;is_over;true;false"
+        );
+        TableDependenciesTest.write(
+            folder.resolve("selected.csv"),
+            "CND;cells::${request::move};empty",
+            "OUT;available;true;false"
+        );
+        return TableDependencies.of(
+            new CombinedCsvFileReader(folder.toUri(), ".csv", ";").readAll()
+        );
+    }
+
+    private static void write(final Path file, final String... lines) throws IOException {
+        Files.writeString(file, String.join("\n", lines), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Decision-Driven Development
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package ru.ewc.checklogic;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * I test the {@link TableSource} class.
+ *
+ * @since 0.4.1
+ */
+final class TableSourceTest {
+    @Test
+    void shouldKeepTablesUntilTheyChange(@TempDir final Path root) throws Exception {
+        final Path tables = root.resolve("tables");
+        Files.createDirectories(tables);
+        Files.writeString(
+            tables.resolve("table.csv"),
+            "CND;data::value;1\nOUT;outcome;one;other\n",
+            StandardCharsets.UTF_8
+        );
+        try (
+            TableSource target = new TableSource(
+                new ServerConfiguration(root.toString()),
+                tables.toUri()
+            )
+        ) {
+            final TableSource.Loaded initial = target.current();
+            MatcherAssert.assertThat(
+                "Should not read the unchanged tables again",
+                target.current().tables(),
+                Matchers.sameInstance(initial.tables())
+            );
+            Files.writeString(
+                tables.resolve("table.csv"),
+                "CND;data::value;2\nOUT;outcome;two;other\n",
+                StandardCharsets.UTF_8
+            );
+            TableSource.Loaded latest = target.current();
+            for (int attempt = 0; latest == initial && attempt < 100; attempt += 1) {
+                Thread.sleep(50L);
+                latest = target.current();
+            }
+            MatcherAssert.assertThat(
+                "Should read the tables again after they were changed",
+                latest.reloads(),
+                Matchers.is(initial.reloads() + 1)
+            );
+        }
+    }
+}
@@ -0,0 +1,123 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Decision-Driven Development
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package ru.ewc.checklogic;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * I test the {@link TableWatcher} class.
+ *
+ * @since 0.4.1
+ */
+final class TableWatcherTest {
+    @Test
+    void shouldKeepVersionUntilTablesChange(@TempDir final Path folder) throws Exception {
+        try (TableWatcher watcher = TableWatcher.of(folder)) {
+            final long initial = watcher.version();
+            MatcherAssert.assertThat(
+                "Should report the same version while nothing changes",
+                watcher.version(),
+                Matchers.is(initial)
+            );
+            Files.writeString(folder.resolve("table.csv"), "CND;1\n");
+            MatcherAssert.assertThat(
+                "Should report a new version after a table is created",
+                TableWatcherTest.versionAfterChange(watcher, initial),
+                Matchers.greaterThan(initial)
+            );
+        }
+    }
+
+    @Test
+    void shouldScanFolderThatCanNotBeWatched(@TempDir final Path folder) throws Exception {
+        final Path missing = folder.resolve("missing");
+        try (TableWatcher watcher = TableWatcher.of(missing)) {
+            final long initial = watcher.version();
+            MatcherAssert.assertThat(
+                "Should not re-read the tables while the folder that can not be watched is intact",
+                watcher.version(),
+                Matchers.is(initial)
+            );
+            Files.createDirectories(missing);
+            Files.writeString(missing.resolve("table.csv"), "CND;1\n");
+            MatcherAssert.assertThat(
+                "Should notice the change of the folder that can not be watched by scanning it",
+                TableWatcherTest.versionAfterChange(watcher, initial),
+                Matchers.greaterThan(initial)
+            );
+        }
+    }
+
+    @Test
+    void shouldBeSharedForTheSameFolder(@TempDir final Path folder) {
+        try (
+            TableWatcher first = TableWatcher.of(folder.resolve("."));
+            TableWatcher second = TableWatcher.of(folder)
+        ) {
+            MatcherAssert.assertThat(
+                "Should use a single watch for the same folder",
+                first,
+                Matchers.sameInstance(second)
+            );
+        }
+    }
+
+    @Test
+    void shouldStopWatchingWhenLastUserCloses(@TempDir final Path folder) {
+        final TableWatcher first = TableWatcher.of(folder);
+        final TableWatcher second = TableWatcher.of(folder);
+        first.close();
+        try (TableWatcher third = TableWatcher.of(folder)) {
+            MatcherAssert.assertThat(
+                "Should keep the watch while anyone uses it",
+                third,
+                Matchers.sameInstance(second)
+            );
+        }
+        second.close();
+        try (TableWatcher fresh = TableWatcher.of(folder)) {
+            MatcherAssert.assertThat(
+                "Should start a new watch after the last user closed the previous one",
+                fresh,
+                Matchers.not(Matchers.sameInstance(second))
+            );
+        }
+    }
+
+    private static long versionAfterChange(final TableWatcher watcher, final long initial)
+        throws InterruptedException {
+        long result = watcher.version();
+        for (int attempt = 0; result == initial && attempt < 100; attempt += 1) {
+            Thread.sleep(50L);
+            result = watcher.version();
+        }
+        return result;
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Decision-Driven Development
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package ru.ewc.checklogic.cli;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import ru.ewc.checklogic.ServerConfiguration;
+
+/**
+ * I test the {@link ConsoleRunner} class.
+ *
+ * @since 0.4.1
+ */
+final class ConsoleRunnerTest {
+    @Test
+    void shouldExitWithZeroIfAllTestsPass(@TempDir final Path root) throws IOException {
+        ConsoleRunnerTest.project(root);
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        MatcherAssert.assertThat(
+            "Should return 0 if all the tests passed",
+            ConsoleRunnerTest.run(root, out),
+            Matchers.is(0)
+        );
+        MatcherAssert.assertThat(
+            "Should print the summary as plain text",
+            out.toString(StandardCharsets.UTF_8),
+            Matchers.allOf(
+                Matchers.containsString("passing.csv"),
+                Matchers.not(Matchers.containsString("</br>"))
+            )
+        );
+    }
+
+    @Test
+    void shouldExitWithOneIfAnyTestFails(@TempDir final Path root) throws IOException {
+        ConsoleRunnerTest.project(root);
+        Files.writeString(
+            root.resolve("tests").resolve("failing.csv"),
+            "ASG;request::move;A1\nCND;request::move;B2"
+        );
+        MatcherAssert.assertThat(
+            "Should return 1 if any of the tests failed",
+            ConsoleRunnerTest.run(root, new ByteArrayOutputStream()),
+            Matchers.is(1)
+        );
+    }
+
+    private static int run(final Path root, final ByteArrayOutputStream out) {
+        return new ConsoleRunner(
+            new ServerConfiguration(root.toString()),
+            root.resolve("reports"),
+            new PrintStream(out, true, StandardCharsets.UTF_8)
+        ).run();
+    }
+
+    private static void project(final Path root) throws IOException {
+        Files.createDirectories(root.resolve("tables"));
+        Files.createDirectories(root.resolve("commands"));
+        Files.createDirectories(root.resolve("tests"));
+        Files.writeString(
+            root.resolve("tests").resolve("passing.csv"),
+            "ASG;request::move;A1\nCND;request::move;A1"
+        );
+    }
+}
@@ -0,0 +1,179 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Decision-Driven Development
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package ru.ewc.checklogic.cli;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+import ru.ewc.checklogic.testing.CheckFailure;
+import ru.ewc.checklogic.testing.PhaseTimings;
+import ru.ewc.checklogic.testing.TestResult;
+
+/**
+ * I test the {@link ShardProtocol} class.
+ *
+ * @since 0.4.1
+ */
+final class ShardProtocolTest {
+    @Test
+    void shouldTransferResultsOfPerformedFile() throws Exception {
+        final TestResult sent = new TestResult(
+            "game.yaml - Ход игрока",
+            false,
+            List.of(new CheckFailure("constant::X", "O=computed")),
+            List.of("command performed"),
+            1L,
+            2L,
+            3L,
+            new PhaseTimings()
+        );
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        final DataOutputStream out = new DataOutputStream(bytes);
+        ShardProtocol.sendResult(out, sent);
+        ShardProtocol.sendDone(out, 42L);
+        final List<TestResult> received = new ArrayList<>(1);
+        final long nanos = ShardProtocol.receiveResults(
+            new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())),
+            received::add
+        );
+        MatcherAssert.assertThat(
+            "Should receive the time spent on the whole file",
+            nanos,
+            Matchers.is(42L)
+        );
+        MatcherAssert.assertThat(
+            "Should receive the result as it was sent, except for the phases",
+            received.stream()
+                .map(
+                    result -> List.of(
+                        result.file(),
+                        result.result(),
+                        result.failures(),
+                        result.log(),
+                        List.of(result.context(), result.elapsed(), result.cpu())
+                    )
+                )
+                .toList(),
+            Matchers.contains(
+                List.of(
+                    sent.file(),
+                    sent.result(),
+                    sent.failures(),
+                    sent.log(),
+                    List.of(sent.context(), sent.elapsed(), sent.cpu())
+                )
+            )
+        );
+    }
+
+    @Test
+    void shouldTellWorkerToStop() throws Exception {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        final DataOutputStream out = new DataOutputStream(bytes);
+        ShardProtocol.sendFile(out, "game.yaml");
+        ShardProtocol.sendStop(out);
+        final DataInputStream in = new DataInputStream(
+            new ByteArrayInputStream(bytes.toByteArray())
+        );
+        MatcherAssert.assertThat(
+            "Should receive the file to perform, then the stop",
+            List.of(ShardProtocol.receiveFile(in), ShardProtocol.receiveFile(in)),
+            Matchers.contains(Optional.of("game.yaml"), Optional.empty())
+        );
+    }
+
+    @Test
+    void shouldRefuseLengthsOverLimit() throws Exception {
+        final List<Integer> lengths = List.of(-1, Integer.MAX_VALUE);
+        final List<String> refused = new ArrayList<>(lengths.size());
+        for (final int length : lengths) {
+            final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            final DataOutputStream out = new DataOutputStream(bytes);
+            out.writeByte(1);
+            out.writeInt(length);
+            try {
+                ShardProtocol.receiveFile(
+                    new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()))
+                );
+            } catch (final IOException exception) {
+                refused.add(exception.getMessage());
+            }
+        }
+        MatcherAssert.assertThat(
+            "Should refuse the negative and huge lengths before allocating anything",
+            refused,
+            Matchers.everyItem(Matchers.startsWith("Expected a length between 0 and"))
+        );
+    }
+
+    @Test
+    void shouldRejectWorkerWithWrongTokenOrRevision() throws Exception {
+        final ShardProtocol.Hello expected = new ShardProtocol.Hello("secret", "abc");
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        final DataOutputStream out = new DataOutputStream(bytes);
+        ShardProtocol.sendHello(out, new ShardProtocol.Hello("guess", "abc"));
+        ShardProtocol.sendHello(out, new ShardProtocol.Hello("secret", "def"));
+        ShardProtocol.sendHello(out, new ShardProtocol.Hello("secret", "abc"));
+        final DataInputStream in = new DataInputStream(
+            new ByteArrayInputStream(bytes.toByteArray())
+        );
+        MatcherAssert.assertThat(
+            "Should accept only the worker with the same token and project revision",
+            List.of(
+                expected.mismatch(ShardProtocol.receiveHello(in)).isPresent(),
+                expected.mismatch(ShardProtocol.receiveHello(in)).isPresent(),
+                expected.mismatch(ShardProtocol.receiveHello(in)).isPresent()
+            ),
+            Matchers.contains(true, true, false)
+        );
+    }
+
+    @Test
+    void shouldTellRejectedWorkerWhy() throws Exception {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        ShardProtocol.sendRejected(new DataOutputStream(bytes), "the token does not match");
+        String reason = "";
+        try {
+            ShardProtocol.receiveFile(
+                new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()))
+            );
+        } catch (final IOException exception) {
+            reason = exception.getMessage();
+        }
+        MatcherAssert.assertThat(
+            "Should stop the rejected worker with the reason",
+            reason,
+            Matchers.is("Rejected by the coordinator: the token does not match")
+        );
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Decision-Driven Development
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package ru.ewc.checklogic.cli;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+
+/**
+ * I test the {@link ShardQueue} class.
+ *
+ * @since 0.4.1
+ */
+final class ShardQueueTest {
+    @Test
+    void shouldDealLongestFilesToLeastLoadedWorkers() throws Exception {
+        final ShardQueue queue = new ShardQueue(
+            List.of("a", "b", "c", "d"),
+            Map.of("a", 10L, "b", 7L, "c", 4L, "d", 2L),
+            2
+        );
+        MatcherAssert.assertThat(
+            "Should start the first worker with the longest file",
+            queue.take(0),
+            Matchers.is(Optional.of("a"))
+        );
+        MatcherAssert.assertThat(
+            "Should give the second worker the files balancing the first one",
+            List.of(queue.take(1), queue.take(1)),
+            Matchers.contains(Optional.of("b"), Optional.of("c"))
+        );
+    }
+
+    @Test
+    void shouldStealShortestFileOfMostLoadedWorker() throws Exception {
+        final ShardQueue queue = new ShardQueue(
+            List.of("a", "b", "c", "d", "e"),
+            Map.of("a", 9L, "b", 8L, "c", 3L, "d", 2L, "e", 1L),
+            2
+        );
+        final List<Optional<String>> own = new ArrayList<>(3);
+        own.add(queue.take(1));
+        own.add(queue.take(1));
+        MatcherAssert.assertThat(
+            "Should perform the own files first",
+            own,
+            Matchers.contains(Optional.of("b"), Optional.of("c"))
+        );
+        MatcherAssert.assertThat(
+            "Should steal from the other end of the busy worker's files",
+            queue.take(1),
+            Matchers.is(Optional.of("e"))
+        );
+    }
+
+    @Test
+    void shouldGiveFileOfLostWorkerToAnotherOne() throws Exception {
+        final ShardQueue queue = new ShardQueue(List.of("a", "b"), Map.of(), 2);
+        final String lost = queue.take(0).orElseThrow();
+        final String other = queue.take(1).orElseThrow();
+        queue.done(other);
+        queue.requeue(lost);
+        MatcherAssert.assertThat(
+            "Should give the requeued file to the next free worker",
+            queue.take(1),
+            Matchers.is(Optional.of(lost))
+        );
+        queue.done(lost);
+        MatcherAssert.assertThat(
+            "Should finish when all the files are performed",
+            queue.take(1),
+            Matchers.is(Optional.empty())
+        );
+    }
+}
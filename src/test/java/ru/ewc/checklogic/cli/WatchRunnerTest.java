@@ -0,0 +1,71 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Decision-Driven Development
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package ru.ewc.checklogic.cli;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Set;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import ru.ewc.checklogic.ServerConfiguration;
+
+/**
+ * I test the {@link WatchRunner} class.
+ *
+ * @since 0.4.1
+ */
+final class WatchRunnerTest {
+    @Test
+    void shouldRerunOnlyTestsDependingOnChangedTable(@TempDir final Path root) throws IOException {
+        final Path tables = Files.createDirectories(root.resolve("tables"));
+        Files.createDirectories(root.resolve("commands"));
+        final Path tests = Files.createDirectories(root.resolve("tests"));
+        Files.writeString(tables.resolve("first.csv"), "OUT;result;yes");
+        Files.writeString(tables.resolve("second.csv"), "OUT;result;yes");
+        Files.writeString(tests.resolve("uses-first.csv"), "CND;first::result;yes");
+        Files.writeString(tests.resolve("uses-second.csv"), "CND;second::result;yes");
+        final WatchRunner runner = new WatchRunner(
+            new ServerConfiguration(root.toString()),
+            new PrintStream(new ByteArrayOutputStream(), true, StandardCharsets.UTF_8)
+        );
+        MatcherAssert.assertThat(
+            "Should run all the test files on start",
+            runner.rerun(Set.of(root.resolve("application.yaml"))),
+            Matchers.hasSize(2)
+        );
+        Files.writeString(tables.resolve("first.csv"), "OUT;result;no");
+        MatcherAssert.assertThat(
+            "Should re-run only the test file depending on the changed table",
+            runner.rerun(Set.of(tables.resolve("first.csv"))),
+            Matchers.contains(Matchers.endsWith("uses-first.csv"))
+        );
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Decision-Driven Development
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package ru.ewc.checklogic.server;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Map;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+import ru.ewc.checklogic.ServerContextFactory;
+import ru.ewc.checklogic.ServerInstance;
+
+/**
+ * I test the {@link CommandPage} class.
+ *
+ * @since 0.4.1
+ */
+final class CommandPageTest {
+    @Test
+    void shouldRenderCommandPreview() throws Exception {
+        final ServerInstance server = ServerContextFactory.create(
+            Path.of(
+                Thread.currentThread().getContextClassLoader().getResource("tic-tac-toe").toURI()
+            ).toString()
+        ).initialState();
+        server.perform("initialize", Map.of());
+        final String page = new String(
+            new CommandPage(server).previewOf(
+                server,
+                "computed_move",
+                Map.of("request::move", "A1", "request::player", "X")
+            ).getBody(),
+            StandardCharsets.UTF_8
+        );
+        MatcherAssert.assertThat(
+            "Should render the changed fragments and the affected decisions",
+            page,
+            Matchers.allOf(
+                Matchers.containsString("<tr><td>cells::A1</td><td>empty</td><td>X</td></tr>"),
+                Matchers.containsString(
+                    "<tr><td>selected_cell</td><td>is_empty</td><td>false</td></tr>"
+                )
+            )
+        );
+        MatcherAssert.assertThat(
+            "Should not change the state of the session",
+            server.valueFor("cells", "A1"),
+            Matchers.is("empty")
+        );
+    }
+}
@@ -25,6 +25,12 @@ package ru.ewc.checklogic.server;
 
 import com.renomad.minum.web.Response;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import org.hamcrest.MatcherAssert;
 import org.hamcrest.Matchers;
 import org.junit.jupiter.api.Test;
@@ -50,4 +56,37 @@ final class ContextPageTest {
             Matchers.is("")
         );
     }
+
+    @Test
+    void shouldServeConcurrentRequests() throws Exception {
+        final ServerInstance server = ServerInstance.testable();
+        final ContextPage target = new ContextPage(server, new ServerConfiguration("any"));
+        final List<Callable<String>> requests = new ArrayList<>(32);
+        for (int request = 0; request < 32; request += 1) {
+            final int id = request;
+            requests.add(
+                () -> {
+                    server.update(List.of("move: A%d".formatted(id)));
+                    return new String(
+                        target.contextPage(ServerTestObjects.emptyRequest()).getBody(),
+                        StandardCharsets.UTF_8
+                    );
+                }
+            );
+        }
+        final ExecutorService executor = Executors.newFixedThreadPool(8);
+        final List<String> pages = new ArrayList<>(requests.size());
+        try {
+            for (final Future<String> page : executor.invokeAll(requests)) {
+                pages.add(page.get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        MatcherAssert.assertThat(
+            "Should render every page while the context is being updated by other requests",
+            pages,
+            Matchers.everyItem(Matchers.is(""))
+        );
+    }
 }
@@ -0,0 +1,192 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Decision-Driven Development
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package ru.ewc.checklogic.server;
+
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import ru.ewc.checklogic.ServerInstance;
+
+/**
+ * I test the {@link SessionPool} class.
+ *
+ * @since 0.4.1
+ */
+final class SessionPoolTest {
+    @Test
+    void shouldKeepSeparateInstancePerSession() {
+        final SessionPool target = SessionPoolTest.pool(2, Optional.empty(), new TestClock());
+        final ServerInstance first = target.instanceFor("first");
+        MatcherAssert.assertThat(
+            "Should give the same instance to the same session only",
+            target.instanceFor("first"),
+            Matchers.allOf(
+                Matchers.sameInstance(first),
+                Matchers.not(Matchers.sameInstance(target.instanceFor("second")))
+            )
+        );
+    }
+
+    @Test
+    void shouldEvictLeastRecentlyUsedSession() {
+        final SessionPool target = SessionPoolTest.pool(2, Optional.empty(), new TestClock());
+        final ServerInstance first = target.instanceFor("first");
+        final ServerInstance second = target.instanceFor("second");
+        target.instanceFor("first");
+        target.instanceFor("third");
+        MatcherAssert.assertThat(
+            "Should evict the least recently used session when over capacity",
+            target.instanceFor("second"),
+            Matchers.not(Matchers.sameInstance(second))
+        );
+        MatcherAssert.assertThat(
+            "Should keep the recently used sessions",
+            target.size(),
+            Matchers.is(2)
+        );
+        MatcherAssert.assertThat(
+            "Should evict the other session after the evicted one is back",
+            target.instanceFor("first"),
+            Matchers.not(Matchers.sameInstance(first))
+        );
+    }
+
+    @Test
+    void shouldEvictIdleSessions() {
+        final TestClock clock = new TestClock();
+        final SessionPool target = SessionPoolTest.pool(10, Optional.empty(), clock);
+        target.instanceFor("first");
+        clock.advance(Duration.ofMinutes(2));
+        target.instanceFor("second");
+        MatcherAssert.assertThat(
+            "Should evict the sessions idle for too long",
+            target.size(),
+            Matchers.is(1)
+        );
+    }
+
+    @Test
+    void shouldRestoreSpilledState(@TempDir final Path folder) {
+        final SessionPool target = SessionPoolTest.pool(1, Optional.of(folder), new TestClock());
+        target.instanceFor("first").apply(
+            context -> context.setValueFor("locator", "fragment", "changed")
+        );
+        target.instanceFor("second");
+        MatcherAssert.assertThat(
+            "Should restore the state of the evicted session",
+            target.instanceFor("first").valueFor("locator", "fragment"),
+            Matchers.is("changed")
+        );
+    }
+
+    @Test
+    void shouldNotBlockOtherSessionsWhileOneIsStarting() throws InterruptedException {
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final SessionPool target = new SessionPool(
+            id -> {
+                if ("slow".equals(id)) {
+                    started.countDown();
+                    try {
+                        release.await();
+                    } catch (final InterruptedException exception) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                return ServerInstance.testable();
+            },
+            10,
+            Duration.ofMinutes(1),
+            Optional.empty(),
+            new TestClock()
+        );
+        final CompletableFuture<ServerInstance> slow = CompletableFuture.supplyAsync(
+            () -> target.instanceFor("slow")
+        );
+        started.await();
+        final ServerInstance fast = target.instanceFor("fast");
+        release.countDown();
+        MatcherAssert.assertThat(
+            "Should start the other sessions while a slow one is still starting",
+            slow.join(),
+            Matchers.not(Matchers.sameInstance(fast))
+        );
+    }
+
+    private static SessionPool pool(
+        final int capacity,
+        final Optional<Path> spill,
+        final Clock clock
+    ) {
+        return new SessionPool(
+            id -> ServerInstance.testable(),
+            capacity,
+            Duration.ofMinutes(1),
+            spill,
+            clock
+        );
+    }
+
+    /**
+     * I am a clock that can be moved forward by the tests.
+     *
+     * @since 0.4.1
+     */
+    private static final class TestClock extends Clock {
+        /**
+         * The current time.
+         */
+        private Instant now = Instant.parse("2024-01-01T00:00:00Z");
+
+        void advance(final Duration duration) {
+            this.now = this.now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(final ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return this.now;
+        }
+    }
+}
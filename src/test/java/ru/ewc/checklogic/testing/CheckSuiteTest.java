@@ -0,0 +1,129 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Decision-Driven Development
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package ru.ewc.checklogic.testing;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.stream.Collectors;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import ru.ewc.checklogic.ServerConfiguration;
+
+/**
+ * I test the {@link CheckSuite} class.
+ *
+ * @since 0.4.1
+ */
+final class CheckSuiteTest {
+    @Test
+    void shouldReportSameResultsWhenRunInParallel() throws URISyntaxException {
+        final String root = CheckSuiteTest.sampleProject();
+        MatcherAssert.assertThat(
+            "Parallel test run should produce the same results as a sequential one",
+            CheckSuiteTest.summaryOf(CheckSuiteTest.suiteFor(root).perform(4)),
+            Matchers.is(CheckSuiteTest.summaryOf(CheckSuiteTest.suiteFor(root).perform(1)))
+        );
+    }
+
+    @Test
+    void shouldCollectTheNamesTestFilesDependOn() throws URISyntaxException {
+        MatcherAssert.assertThat(
+            "Test file dependencies should include the referenced commands and locators",
+            CheckSuiteTest.suiteFor(CheckSuiteTest.sampleProject()).perform(1).dependencies()
+                .entrySet().stream()
+                .filter(entry -> entry.getKey().startsWith("02-second-move"))
+                .findFirst()
+                .orElseThrow()
+                .getValue(),
+            Matchers.hasItems("computed_move", "cells", "request")
+        );
+    }
+
+    @Test
+    void shouldTimeOutLoopingFunctionAndCompleteOtherTests(@TempDir final Path root)
+        throws IOException {
+        Files.writeString(root.resolve("application.yaml"), "testTimeoutSeconds: 1\n");
+        Files.createDirectories(root.resolve("tables"));
+        Files.createDirectories(root.resolve("commands"));
+        Files.createDirectories(root.resolve("functions"));
+        Files.writeString(
+            root.resolve("functions").resolve("spin.groovy"),
+            String.join(
+                "\n",
+                "def end = System.currentTimeMillis() + 3000",
+                "while (System.currentTimeMillis() < end) { }",
+                "return 'done'"
+            )
+        );
+        Files.createDirectories(root.resolve("tests"));
+        Files.writeString(root.resolve("tests").resolve("looping.csv"), "CND;function::spin;done");
+        Files.writeString(
+            root.resolve("tests").resolve("passing.csv"),
+            "ASG;request::move;A1\nCND;request::move;A1"
+        );
+        final Map<String, String> results = CheckSuiteTest.suiteFor(root.toString())
+            .perform(1)
+            .resultsByFile()
+            .entrySet()
+            .stream()
+            .collect(
+                Collectors.toMap(
+                    entry -> Path.of(entry.getKey()).getFileName().toString(),
+                    entry -> entry.getValue().get(0).result()
+                )
+            );
+        MatcherAssert.assertThat(
+            "Should time the looping test out and still perform the test queued after it",
+            results,
+            Matchers.allOf(
+                Matchers.hasEntry(Matchers.startsWith("looping"), Matchers.is("TIMEOUT")),
+                Matchers.hasEntry(Matchers.startsWith("passing"), Matchers.is("PASS"))
+            )
+        );
+    }
+
+    static String sampleProject() throws URISyntaxException {
+        return Path.of(
+            Thread.currentThread().getContextClassLoader().getResource("tic-tac-toe").toURI()
+        ).toString();
+    }
+
+    static CheckSuite suiteFor(final String root) {
+        final ServerConfiguration config = new ServerConfiguration(root);
+        return CheckSuite.using(
+            config.csvReader(Path.of(root, "tests").toUri()),
+            root,
+            config.requestLocatorName()
+        );
+    }
+
+    private static String summaryOf(final CheckSuite suite) {
+        return suite.resultAsHtmlRows().replaceAll("C: [\\d.]+ ms, T: [\\d.]+ ms", "");
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Decision-Driven Development
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package ru.ewc.checklogic.testing;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * I test the {@link DiskResultCache} class.
+ *
+ * @since 0.4.1
+ */
+final class DiskResultCacheTest {
+    @Test
+    void shouldReturnStoredResultWhileDependenciesAreUnchanged(@TempDir final Path root)
+        throws IOException {
+        DiskResultCacheTest.project(root);
+        try (ResultCache cache = DiskResultCacheTest.cacheIn(root, 10)) {
+            cache.store("key", DiskResultCacheTest.failed(), Set.of("game_state"));
+        }
+        try (ResultCache cache = DiskResultCacheTest.cacheIn(root, 10)) {
+            MatcherAssert.assertThat(
+                "Should return the stored result with its failures",
+                cache.cached("key").orElseThrow().failures(),
+                Matchers.contains(new CheckFailure("constant::X", "O"))
+            );
+        }
+    }
+
+    @Test
+    void shouldMissWhenDependencyChanged(@TempDir final Path root) throws IOException {
+        DiskResultCacheTest.project(root);
+        try (ResultCache cache = DiskResultCacheTest.cacheIn(root, 10)) {
+            cache.store("key", DiskResultCacheTest.failed(), Set.of("game_state"));
+        }
+        Files.writeString(root.resolve("tables").resolve("game_state.csv"), "changed");
+        try (ResultCache cache = DiskResultCacheTest.cacheIn(root, 10)) {
+            MatcherAssert.assertThat(
+                "Should not return the result if a file it depends on was changed",
+                cache.cached("key").isPresent(),
+                Matchers.is(false)
+            );
+        }
+    }
+
+    @Test
+    void shouldKeepOnlyTheConfiguredNumberOfEntries(@TempDir final Path root) throws IOException {
+        DiskResultCacheTest.project(root);
+        try (ResultCache cache = DiskResultCacheTest.cacheIn(root, 2)) {
+            for (final String key : List.of("first", "second", "third")) {
+                cache.store(key, DiskResultCacheTest.failed(), Set.of());
+            }
+        }
+        try (Stream<Path> entries = Files.list(root.resolve("cache"))) {
+            MatcherAssert.assertThat(
+                "Should prune the entries exceeding the capacity",
+                entries.count(),
+                Matchers.is(2L)
+            );
+        }
+    }
+
+    private static ResultCache cacheIn(final Path root, final int capacity) {
+        return DiskResultCache.open(root.resolve("cache"), root, capacity);
+    }
+
+    private static void project(final Path root) throws IOException {
+        Files.createDirectories(root.resolve("tables"));
+        Files.writeString(root.resolve("tables").resolve("game_state.csv"), "original");
+        Files.writeString(root.resolve("application.yaml"), "locators: []");
+    }
+
+    private static TestResult failed() {
+        return new TestResult(
+            "sample",
+            false,
+            List.of(new CheckFailure("constant::X", "O")),
+            List.of("game_state::is_over"),
+            1L,
+            2L,
+            3L,
+            new PhaseTimings()
+        );
+    }
+}
@@ -0,0 +1,163 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Decision-Driven Development
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package ru.ewc.checklogic.testing;
+
+import groovy.lang.Binding;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * I test the {@link GroovyFunctions} class.
+ *
+ * @since 0.4.1
+ */
+final class GroovyFunctionsTest {
+    @Test
+    void shouldFindScriptAddedToTheFolder(@TempDir final Path folder) throws IOException {
+        final GroovyFunctions target = new GroovyFunctions();
+        final boolean before = target.exists(folder, "answer");
+        Files.writeString(folder.resolve("answer.groovy"), "42", StandardCharsets.UTF_8);
+        MatcherAssert.assertThat(
+            "Should notice the script added after the folder was listed",
+            before || !GroovyFunctionsTest.eventually(() -> target.exists(folder, "answer"), true),
+            Matchers.is(false)
+        );
+    }
+
+    @Test
+    void shouldRecompileModifiedScript(@TempDir final Path folder) throws IOException {
+        final GroovyFunctions target = new GroovyFunctions();
+        final Path script = folder.resolve("answer.groovy");
+        Files.writeString(script, "40 + 2", StandardCharsets.UTF_8);
+        target.run(folder, "answer", new Binding());
+        Files.writeString(script, "'forty two'", StandardCharsets.UTF_8);
+        script.toFile().setLastModified(script.toFile().lastModified() + 1000L);
+        MatcherAssert.assertThat(
+            "Should run the recompiled script after it was modified",
+            GroovyFunctionsTest.eventually(
+                () -> target.run(folder, "answer", new Binding()),
+                "forty two"
+            ),
+            Matchers.is("forty two")
+        );
+    }
+
+    @Test
+    void shouldRecompileScriptWhenItsHelperIsModified(@TempDir final Path folder)
+        throws IOException {
+        final GroovyFunctions target = new GroovyFunctions();
+        final Path helper = folder.resolve("helper.groovy");
+        Files.writeString(helper, "def value() { 40 }", StandardCharsets.UTF_8);
+        Files.writeString(
+            folder.resolve("answer.groovy"),
+            "new helper().value() + 2",
+            StandardCharsets.UTF_8
+        );
+        target.run(folder, "answer", new Binding());
+        Files.writeString(helper, "def value() { 0 }", StandardCharsets.UTF_8);
+        helper.toFile().setLastModified(helper.toFile().lastModified() + 1000L);
+        MatcherAssert.assertThat(
+            "Should run the script with the modified helper script",
+            GroovyFunctionsTest.eventually(() -> target.run(folder, "answer", new Binding()), 2),
+            Matchers.is(2)
+        );
+    }
+
+    @Test
+    void shouldStopRunawayScriptWhenInterrupted(@TempDir final Path folder) throws Exception {
+        final GroovyFunctions target = new GroovyFunctions();
+        Files.writeString(
+            folder.resolve("forever.groovy"),
+            "def count = 0\nwhile (true) { count += 1 }\ncount",
+            StandardCharsets.UTF_8
+        );
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            final Future<Object> running = executor.submit(
+                () -> target.run(folder, "forever", new Binding())
+            );
+            MatcherAssert.assertThat(
+                "Should keep running the endless loop until interrupted",
+                GroovyFunctionsTest.finishes(running),
+                Matchers.is(false)
+            );
+            running.cancel(true);
+            executor.shutdown();
+            MatcherAssert.assertThat(
+                "Should stop the endless loop once the thread is interrupted",
+                executor.awaitTermination(5, TimeUnit.SECONDS),
+                Matchers.is(true)
+            );
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Waits for the folder watch to report a change, returning the first expected value or the
+     * last one computed.
+     *
+     * @param value The way to compute the value.
+     * @param expected The expected value.
+     * @param <T> The type of the value.
+     * @return The computed value.
+     */
+    private static <T> T eventually(final Supplier<T> value, final T expected) {
+        T result = value.get();
+        for (int attempt = 0; !expected.equals(result) && attempt < 100; attempt += 1) {
+            try {
+                Thread.sleep(50L);
+            } catch (final InterruptedException exception) {
+                Thread.currentThread().interrupt();
+            }
+            result = value.get();
+        }
+        return result;
+    }
+
+    private static boolean finishes(final Future<Object> running)
+        throws InterruptedException, ExecutionException {
+        boolean result;
+        try {
+            running.get(200, TimeUnit.MILLISECONDS);
+            result = true;
+        } catch (final TimeoutException exception) {
+            result = false;
+        }
+        return result;
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Decision-Driven Development
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package ru.ewc.checklogic.testing;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+import ru.ewc.decisions.api.OutputTracker;
+
+/**
+ * I test the {@link IncludeSnapshot} class.
+ *
+ * @since 0.4.1
+ */
+final class IncludeSnapshotTest {
+    @Test
+    void shouldComputeSameKeyForSameStateInAnyOrder() {
+        final Map<String, Object> straight = new LinkedHashMap<>();
+        straight.put("A1", "X");
+        straight.put("B2", "O");
+        final Map<String, Object> reversed = new LinkedHashMap<>();
+        reversed.put("B2", "O");
+        reversed.put("A1", "X");
+        MatcherAssert.assertThat(
+            "Should not depend on the order of the fragments in the state",
+            IncludeSnapshot.keyOf("setup", Map.of("cells", straight)),
+            Matchers.is(IncludeSnapshot.keyOf("setup", Map.of("cells", reversed)))
+        );
+    }
+
+    @Test
+    void shouldMemoizeChangedStringValues() {
+        MatcherAssert.assertThat(
+            "Should create a snapshot if only the string values were changed",
+            IncludeSnapshot.between(
+                Map.of("cells", Map.of("A1", "empty")),
+                Map.of("cells", Map.of("A1", "X", "B2", "O")),
+                List.of()
+            ).isPresent(),
+            Matchers.is(true)
+        );
+    }
+
+    @Test
+    void shouldNotMemoizeRemovedFragments() {
+        MatcherAssert.assertThat(
+            "Should not create a snapshot if the include removed a fragment",
+            IncludeSnapshot.between(
+                Map.of("cells", Map.of("A1", "empty", "B2", "empty")),
+                Map.of("cells", Map.of("A1", "X")),
+                List.of()
+            ).isPresent(),
+            Matchers.is(false)
+        );
+    }
+
+    @Test
+    void shouldKeepTypeOfLoggedEvent() {
+        MatcherAssert.assertThat(
+            "Should recover the type of the event from its prefix",
+            IncludeSnapshot.Event.parsed("CH: setup - started"),
+            Matchers.is(
+                new IncludeSnapshot.Event(OutputTracker.EventType.CH, "setup - started")
+            )
+        );
+    }
+
+    @Test
+    void shouldTakeEventWithoutTypeAsCheckpoint() {
+        MatcherAssert.assertThat(
+            "Should keep the whole text of the event without a type prefix",
+            IncludeSnapshot.Event.parsed("setup - started"),
+            Matchers.is(
+                new IncludeSnapshot.Event(OutputTracker.EventType.CH, "setup - started")
+            )
+        );
+    }
+}
@@ -0,0 +1,69 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Decision-Driven Development
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package ru.ewc.checklogic.testing;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * I test the {@link JsonReport} class.
+ *
+ * @since 0.4.1
+ */
+final class JsonReportTest {
+    @Test
+    void shouldWriteEscapedFailures(@TempDir final Path folder) throws IOException {
+        final Path file = folder.resolve("results.json");
+        try (TestReport report = JsonReport.writtenTo(file)) {
+            report.append(
+                new TestResult(
+                    "sample - \"quoted\"",
+                    false,
+                    List.of(new CheckFailure("constant::X", "O")),
+                    List.of(),
+                    1L,
+                    2L,
+                    3L,
+                    new PhaseTimings()
+                )
+            );
+        }
+        MatcherAssert.assertThat(
+            "Should write the result as an escaped JSON object inside an array",
+            Files.readString(file, StandardCharsets.UTF_8),
+            Matchers.allOf(
+                Matchers.startsWith("[\n  {\"test\": \"sample - \\\"quoted\\\"\", "),
+                Matchers.containsString("[{\"expected\": \"X\", \"actual\": \"O\"}]}"),
+                Matchers.endsWith("}\n]\n")
+            )
+        );
+    }
+}
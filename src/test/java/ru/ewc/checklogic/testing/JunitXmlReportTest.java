@@ -0,0 +1,92 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Decision-Driven Development
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package ru.ewc.checklogic.testing;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * I test the {@link JunitXmlReport} class.
+ *
+ * @since 0.4.1
+ */
+final class JunitXmlReportTest {
+    @Test
+    void shouldWriteEscapedFailures(@TempDir final Path folder) throws IOException {
+        final Path file = folder.resolve("junit.xml");
+        try (TestReport report = JunitXmlReport.writtenTo(file)) {
+            report.append(
+                new TestResult(
+                    "file.csv - <first> & \"second\"",
+                    false,
+                    List.of(new CheckFailure("constant::X", "O")),
+                    List.of(),
+                    1_000_000L,
+                    3_000_000L,
+                    2L,
+                    new PhaseTimings()
+                )
+            );
+        }
+        MatcherAssert.assertThat(
+            "Should write the escaped test case with its failure inside the test suite",
+            Files.readString(file, StandardCharsets.UTF_8),
+            Matchers.allOf(
+                Matchers.startsWith("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"),
+                Matchers.containsString("<testsuite name=\"logic-checker\">\n  <testcase "),
+                Matchers.containsString(
+                    String.join(
+                        " ",
+                        "<testcase classname=\"file.csv\"",
+                        "name=\"&lt;first&gt; &amp; &quot;second&quot;\""
+                    )
+                ),
+                Matchers.containsString("time=\"0.004000\""),
+                Matchers.containsString(
+                    "<failure message=\"Expected: X, but got: O\">Expected: X, but got: O</failure>"
+                ),
+                Matchers.endsWith("  </testcase>\n</testsuite>\n")
+            )
+        );
+    }
+
+    @Test
+    void shouldWriteEmptySuite(@TempDir final Path folder) throws IOException {
+        final Path file = folder.resolve("junit.xml");
+        JunitXmlReport.writtenTo(file).close();
+        MatcherAssert.assertThat(
+            "Should close the test suite even if there were no results",
+            Files.readString(file, StandardCharsets.UTF_8),
+            Matchers.endsWith("<testsuite name=\"logic-checker\">\n</testsuite>\n")
+        );
+    }
+}
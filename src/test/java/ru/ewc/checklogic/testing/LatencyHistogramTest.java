@@ -0,0 +1,66 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Decision-Driven Development
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package ru.ewc.checklogic.testing;
+
+import java.util.List;
+import java.util.stream.LongStream;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+
+/**
+ * I test the {@link LatencyHistogram} class.
+ *
+ * @since 0.4.1
+ */
+final class LatencyHistogramTest {
+    @Test
+    void shouldComputeNearestRankPercentiles() {
+        final LatencyHistogram histogram = new LatencyHistogram(
+            Phase.CONDITION,
+            LongStream.rangeClosed(1, 100).map(value -> 101 - value).boxed().toList()
+        );
+        MatcherAssert.assertThat(
+            "Should compute p50, p90, p99 and max of the unsorted durations",
+            List.of(
+                histogram.percentile(50),
+                histogram.percentile(90),
+                histogram.percentile(99),
+                histogram.percentile(100)
+            ),
+            Matchers.contains(50L, 90L, 99L, 100L)
+        );
+    }
+
+    @Test
+    void shouldDescribePhaseAsJson() {
+        MatcherAssert.assertThat(
+            "Should write the milliseconds with a dot as a decimal separator",
+            new LatencyHistogram(Phase.FUNCTION, List.of(1_500_000L)).asJson(),
+            Matchers.startsWith(
+                "\"function\": {\"count\": 1, \"total_ms\": 1.500, \"p50_ms\": 1.500"
+            )
+        );
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Decision-Driven Development
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package ru.ewc.checklogic.testing;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * I test the {@link ProjectRevision} class.
+ *
+ * @since 0.4.1
+ */
+final class ProjectRevisionTest {
+    @Test
+    void shouldChangeWhenProjectFileChanges(@TempDir final Path root) throws Exception {
+        Files.createDirectories(root.resolve("tables"));
+        Files.writeString(root.resolve("tables/table.csv"), "CND;1\n");
+        final String initial = ProjectRevision.of(root);
+        MatcherAssert.assertThat(
+            "Should keep the revision of the unchanged project",
+            ProjectRevision.of(root),
+            Matchers.is(initial)
+        );
+        Files.writeString(root.resolve("tables/table.csv"), "CND;1;2\n");
+        MatcherAssert.assertThat(
+            "Should change the revision when a project file is changed",
+            ProjectRevision.of(root),
+            Matchers.not(initial)
+        );
+    }
+
+    @Test
+    void shouldIgnoreCachesAndReports(@TempDir final Path root) throws Exception {
+        Files.writeString(root.resolve("application.yaml"), "delimiter: ;\n");
+        final String initial = ProjectRevision.of(root);
+        Files.createDirectories(root.resolve(".cache/results"));
+        Files.writeString(root.resolve(".cache/results/test.properties"), "file=test\n");
+        Files.createDirectories(root.resolve("reports"));
+        Files.writeString(root.resolve("reports/junit.xml"), "<testsuites/>\n");
+        MatcherAssert.assertThat(
+            "Should not change the revision when only the caches and reports are written",
+            ProjectRevision.of(root),
+            Matchers.is(initial)
+        );
+    }
+}
@@ -0,0 +1,130 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Decision-Driven Development
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package ru.ewc.checklogic.testing;
+
+import java.net.URISyntaxException;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+
+/**
+ * I test the {@link TestRun} class.
+ *
+ * @since 0.4.1
+ */
+final class TestRunTest {
+    @Test
+    void shouldCollectAllResultsInBackground() throws Exception {
+        try (ExecutorService executor = Executors.newSingleThreadExecutor()) {
+            final TestRun run = TestRunTest.startedIn(executor);
+            TestRunTest.awaitEnd(run);
+            MatcherAssert.assertThat(
+                "Should collect a result for every scheduled test",
+                run.resultsFrom(0),
+                Matchers.hasSize(run.scheduled())
+            );
+            MatcherAssert.assertThat(
+                "Should return only the results after the offset",
+                run.resultsFrom(1),
+                Matchers.hasSize(run.scheduled() - 1)
+            );
+        }
+    }
+
+    @Test
+    void shouldNotCancelFinishedRun() throws Exception {
+        try (ExecutorService executor = Executors.newSingleThreadExecutor()) {
+            final TestRun run = TestRunTest.startedIn(executor);
+            TestRunTest.awaitEnd(run);
+            MatcherAssert.assertThat(
+                "Should not cancel the run that is already over",
+                run.cancel(),
+                Matchers.is(false)
+            );
+            MatcherAssert.assertThat(
+                "Should keep the status of the finished run",
+                run.status(),
+                Matchers.is(TestRun.Status.FINISHED)
+            );
+        }
+    }
+
+    @Test
+    void shouldCancelSharedRunOnlyWhenLastViewerDetaches() throws Exception {
+        final CountDownLatch busy = new CountDownLatch(1);
+        try (ExecutorService executor = Executors.newSingleThreadExecutor()) {
+            try {
+                executor.submit(
+                    () -> {
+                        busy.await();
+                        return null;
+                    }
+                );
+                final TestRun run = TestRunTest.startedIn(executor);
+                final String first = run.attach().orElseThrow();
+                final String second = run.attach().orElseThrow();
+                MatcherAssert.assertThat(
+                    "Should keep the run for the other viewers and cancel it after the last one",
+                    List.of(
+                        run.detach(first),
+                        run.detach(first),
+                        run.status(),
+                        run.detach(second),
+                        run.status()
+                    ),
+                    Matchers.contains(
+                        false,
+                        false,
+                        TestRun.Status.QUEUED,
+                        true,
+                        TestRun.Status.CANCELLED
+                    )
+                );
+            } finally {
+                busy.countDown();
+            }
+        }
+    }
+
+    private static TestRun startedIn(final ExecutorService executor)
+        throws URISyntaxException {
+        return new TestRun(
+            "run",
+            CheckSuiteTest.suiteFor(CheckSuiteTest.sampleProject())
+        ).startIn(executor, 2);
+    }
+
+    private static void awaitEnd(final TestRun run) throws InterruptedException {
+        int attempt = 0;
+        while (!run.isOver() && attempt < 500) {
+            Thread.sleep(20);
+            attempt += 1;
+        }
+    }
+}